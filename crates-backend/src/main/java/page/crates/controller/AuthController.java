@@ -11,12 +11,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.util.UriComponentsBuilder;
-import page.crates.service.LibrarySyncService;
+import page.crates.exception.LibrarySyncQueueFullException;
+import page.crates.service.LibrarySyncJobService;
 import page.crates.service.SpotifyUserCreation;
 import page.crates.service.UserService;
 import page.crates.service.enums.LibrarySyncOption;
 import page.crates.spotify.client.SpotifyAuth;
-import page.crates.util.DelegatingUserContextRunnable;
 
 import java.io.IOException;
 
@@ -29,7 +29,7 @@ public class AuthController {
     @Resource
     private UserService userService;
     @Resource
-    private LibrarySyncService librarySyncService;
+    private LibrarySyncJobService librarySyncJobService;
 
     @Value("${crates.auth.callback.uri}")
     private String callbackUri;
@@ -50,16 +50,18 @@ public class AuthController {
             return;
         }
         final SpotifyUserCreation spotifyUserCreation = userService.findOrCreateUserForCode(code);
-        if (spotifyUserCreation.created()) {
-            log.info("kicking off initial sync for user {}", spotifyUserCreation.spotifyUser().getSpotifyId());
-            new Thread(new DelegatingUserContextRunnable(
-                    () -> librarySyncService.synchronize(LibrarySyncOption.FIRST_SYNC),
-                    spotifyUserCreation.spotifyUser())).start();
-        } else {
-            log.info("kicking off library sync for user {}", spotifyUserCreation.spotifyUser().getSpotifyId());
-            new Thread(new DelegatingUserContextRunnable(
-                    () -> librarySyncService.synchronize(),
-                    spotifyUserCreation.spotifyUser())).start();
+        try {
+            if (spotifyUserCreation.created()) {
+                log.info("kicking off initial sync for user {}", spotifyUserCreation.spotifyUser().getSpotifyId());
+                librarySyncJobService.submit(spotifyUserCreation.spotifyUser(), LibrarySyncOption.FIRST_SYNC);
+            } else {
+                log.info("kicking off library sync for user {}", spotifyUserCreation.spotifyUser().getSpotifyId());
+                librarySyncJobService.submit(spotifyUserCreation.spotifyUser());
+            }
+        } catch (LibrarySyncQueueFullException e) {
+            // don't fail the login over it, the user can sync from the library page later.
+            log.warn("could not queue library sync for user {} -- {}",
+                    spotifyUserCreation.spotifyUser().getSpotifyId(), e.getMessage());
         }
         final String callback = UriComponentsBuilder.fromUriString(callbackUri)
                 .queryParam("token", spotifyUserCreation.spotifyUser().getToken().getAuthToken())
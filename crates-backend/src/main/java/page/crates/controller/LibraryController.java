@@ -1,9 +1,11 @@
 package page.crates.controller;
 
 import jakarta.annotation.Resource;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -11,25 +13,42 @@ import org.springframework.web.bind.annotation.RestController;
 import page.crates.controller.api.Album;
 import page.crates.controller.api.Library;
 import page.crates.controller.api.LibraryAlbumFilter;
+import page.crates.controller.api.LibraryAlbumPage;
+import page.crates.controller.api.LibrarySaveJob;
+import page.crates.controller.api.LibrarySyncJob;
+import page.crates.controller.api.LibrarySyncProgress;
 import page.crates.controller.api.mapper.AlbumMapper;
 import page.crates.controller.api.mapper.LibraryAlbumMapper;
 import page.crates.controller.api.mapper.LibraryMapper;
+import page.crates.controller.api.mapper.LibrarySaveJobMapper;
+import page.crates.controller.api.mapper.LibrarySyncJobMapper;
+import page.crates.controller.api.mapper.LibrarySyncProgressMapper;
+import page.crates.entity.SpotifyUser;
 import page.crates.security.SpotifyAuthorization;
 import page.crates.service.AlbumService;
 import page.crates.service.CurrentUserService;
+import page.crates.service.LibraryAlbumCursor;
+import page.crates.service.LibraryAlbumScroll;
+import page.crates.service.LibrarySaveService;
 import page.crates.service.LibraryService;
-import page.crates.service.LibrarySyncService;
-import page.crates.util.DelegatingUserContextRunnable;
+import page.crates.service.LibrarySyncJobService;
+import page.crates.service.LibrarySyncProgressService;
+import page.crates.service.enums.LibrarySyncOption;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping(value = "/v1/library")
 public class LibraryController {
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Resource
     private LibraryService libraryService;
     @Resource
-    private LibrarySyncService librarySyncService;
+    private LibrarySyncJobService librarySyncJobService;
     @Resource
     private CurrentUserService currentUserService;
     @Resource
@@ -40,17 +59,69 @@ public class LibraryController {
     private AlbumService albumService;
     @Resource
     private AlbumMapper albumMapper;
+    @Resource
+    private LibrarySyncJobMapper librarySyncJobMapper;
+    @Resource
+    private LibrarySyncProgressService librarySyncProgressService;
+    @Resource
+    private LibrarySyncProgressMapper librarySyncProgressMapper;
+    @Resource
+    private LibrarySaveService librarySaveService;
+    @Resource
+    private LibrarySaveJobMapper librarySaveJobMapper;
 
+    /**
+     * Reads the local mirror, starting a background refresh when it is stale. Unsearched pages are
+     * keyset paged by cursor; searches, and page numbers past the first without a cursor, fall back
+     * to offset paging.
+     */
     @GetMapping("/albums")
     @SpotifyAuthorization
-    Page<Album> getAlbums(@RequestParam(value = "search", required = false) String search,
-                          @RequestParam(value = "filters", required = false) List<LibraryAlbumFilter> filters,
-                          Pageable pageable) {
-        return libraryService.searchLibraryAlbums(
-                        search,
-                        pageable,
-                        null == filters ? null : filters.toArray(new LibraryAlbumFilter[0]))
+    LibraryAlbumPage getAlbums(@RequestParam(value = "search", required = false) String search,
+                               @RequestParam(value = "filters", required = false) List<LibraryAlbumFilter> filters,
+                               @RequestParam(value = "cursor", required = false) String cursor,
+                               Pageable pageable) {
+        final SpotifyUser user = currentUserService.getCurrentUser();
+        final Optional<page.crates.entity.Library> library = libraryService.findLibrary(user);
+        final boolean refreshing = library
+                .map(found -> librarySyncJobService.revalidate(user, found))
+                .orElse(false);
+        final Instant updatedAt = library.map(found -> found.getUpdatedAt()).orElse(null);
+        final LibraryAlbumFilter[] albumFilters = null == filters ? null : filters.toArray(new LibraryAlbumFilter[0]);
+        if (StringUtils.isBlank(search) && (null != cursor || 0 == pageable.getPageNumber())) {
+            final LibraryAlbumScroll scroll = libraryService.scrollAlbums(
+                    user,
+                    LibraryAlbumCursor.decode(cursor),
+                    Math.max(1, Math.min(pageable.getPageSize(), MAX_PAGE_SIZE)),
+                    albumFilters);
+            final List<Album> albums = scroll.albums().stream().map(libraryAlbumMapper::map).toList();
+            return LibraryAlbumPage.builder()
+                    .content(albums)
+                    .number(pageable.getPageNumber())
+                    .size(pageable.getPageSize())
+                    .numberOfElements(albums.size())
+                    .first(null == cursor)
+                    .last(null == scroll.next())
+                    .empty(albums.isEmpty())
+                    .nextCursor(null == scroll.next() ? null : scroll.next().encode())
+                    .updatedAt(updatedAt)
+                    .refreshing(refreshing)
+                    .build();
+        }
+        final Page<Album> page = libraryService.searchLibraryAlbums(search, pageable, albumFilters)
                 .map(libraryAlbumMapper::map);
+        return LibraryAlbumPage.builder()
+                .content(page.getContent())
+                .number(page.getNumber())
+                .size(page.getSize())
+                .numberOfElements(page.getNumberOfElements())
+                .totalElements(page.getTotalElements())
+                .first(page.isFirst())
+                .last(page.isLast())
+                .empty(page.isEmpty())
+                .updatedAt(updatedAt)
+                .refreshing(refreshing)
+                .build();
     }
 
     @GetMapping("/albums/search")
@@ -64,15 +135,47 @@ public class LibraryController {
     @GetMapping()
     @SpotifyAuthorization
     Library getLibrary() {
-        return libraryMapper.map(libraryService.getLibrary(currentUserService.getCurrentUser()));
+        final SpotifyUser user = currentUserService.getCurrentUser();
+        final Library library = libraryMapper.map(libraryService.getLibrary(user));
+        library.setSyncJob(librarySyncJobMapper.map(librarySyncJobService.findJob(user)));
+        return library;
+    }
+
+    @GetMapping("/progress")
+    @SpotifyAuthorization
+    LibrarySyncProgress getProgress() {
+        return librarySyncProgressMapper.map(
+                librarySyncProgressService.getProgress(currentUserService.getCurrentUser()));
+    }
+
+    @PostMapping("/save/crate/{crateId}")
+    @SpotifyAuthorization
+    LibrarySaveJob saveCrate(@PathVariable Long crateId) {
+        return librarySaveJobMapper.map(librarySaveService.saveCrate(crateId));
+    }
+
+    @PostMapping("/save/collection")
+    @SpotifyAuthorization
+    LibrarySaveJob saveCollection() {
+        return librarySaveJobMapper.map(librarySaveService.saveCollection());
+    }
+
+    @GetMapping("/save/{jobId}")
+    @SpotifyAuthorization
+    LibrarySaveJob getSaveJob(@PathVariable UUID jobId) {
+        return librarySaveJobMapper.map(librarySaveService.getJob(jobId));
     }
 
+    /**
+     * Queues a refresh of the user's library. A refresh normally only pages back to the newest album
+     * it already has; {@code full=true} walks the whole library instead, e.g. to pick up removals.
+     */
     @PostMapping("/sync")
     @SpotifyAuthorization
-    void syncLibrary() {
-        librarySyncService.markSyncInProgress();
-        new Thread(new DelegatingUserContextRunnable(() -> {
-            librarySyncService.synchronize();
-        }, currentUserService.getCurrentUser())).start();
+    LibrarySyncJob syncLibrary(@RequestParam(value = "full", defaultValue = "false") boolean full) {
+        final LibrarySyncOption[] options = full
+                ? new LibrarySyncOption[]{LibrarySyncOption.FULL_SYNC}
+                : new LibrarySyncOption[0];
+        return librarySyncJobMapper.map(librarySyncJobService.submit(currentUserService.getCurrentUser(), options));
     }
 }
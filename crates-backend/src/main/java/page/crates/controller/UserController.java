@@ -1,10 +1,8 @@
 package page.crates.controller;
 
-import feign.FeignException;
 import jakarta.annotation.Resource;
 import jakarta.validation.Valid;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -23,13 +21,12 @@ import org.springframework.data.domain.Pageable;
 import page.crates.exception.ExpiredTokenException;
 import page.crates.security.SpotifyAuthorization;
 import page.crates.service.CurrentUserService;
+import page.crates.service.TokenValidityService;
 import page.crates.service.UserService;
 import page.crates.service.CrateService;
 import page.crates.service.CrateDecorator;
 import page.crates.service.CrateCollectionService;
 import page.crates.controller.api.mapper.CrateMapper;
-import page.crates.spotify.client.Context;
-import page.crates.spotify.client.Spotify;
 import lombok.extern.slf4j.Slf4j;
 
 @RestController
@@ -53,18 +50,14 @@ public class UserController {
     @Resource
     private CrateCollectionService crateCollectionService;
     @Resource
-    private Spotify spotify;
+    private TokenValidityService tokenValidityService;
 
     @GetMapping(value = "/current")
     @SpotifyAuthorization
     public SpotifyUser getCurrentUser() {
         page.crates.entity.SpotifyUser user = currentUserService.getCurrentUser();
-        try {
-            spotify.getCurrentUser(Context.forToken(user.getToken().getAccessToken()));
-        } catch (FeignException e) {
-            if (e.status() == HttpStatus.UNAUTHORIZED.value()) {
-                throw new ExpiredTokenException();
-            }
+        if (!tokenValidityService.isSessionUsable(user)) {
+            throw new ExpiredTokenException();
         }
         return userMapper.map(user);
     }
@@ -18,4 +18,5 @@ public class Library {
     private LibraryState state;
     private Instant createdAt;
     private Instant updatedAt;
+    private LibrarySyncJob syncJob;
 }
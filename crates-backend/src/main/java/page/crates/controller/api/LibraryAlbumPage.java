@@ -0,0 +1,33 @@
+package page.crates.controller.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A page of library albums, shaped like a Spring Data page so paging clients keep working.
+ * Unsearched pages are keyset paged: pass {@code nextCursor} back as {@code cursor} for the next
+ * one, and {@code totalElements} is left out. {@code updatedAt} and {@code refreshing} describe the
+ * local mirror the albums were read from.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LibraryAlbumPage {
+    private List<Album> content;
+    private int number;
+    private int size;
+    private int numberOfElements;
+    private Long totalElements;
+    private boolean first;
+    private boolean last;
+    private boolean empty;
+    private String nextCursor;
+    private Instant updatedAt;
+    private boolean refreshing;
+}
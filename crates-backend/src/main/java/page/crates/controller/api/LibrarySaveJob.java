@@ -0,0 +1,27 @@
+package page.crates.controller.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import page.crates.service.enums.LibrarySyncJobState;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LibrarySaveJob {
+    private UUID id;
+    private Long crateId;
+    private LibrarySyncJobState state;
+    private int totalAlbums;
+    private int alreadySavedAlbums;
+    private int savedAlbums;
+    private int failedAlbums;
+    private Instant queuedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
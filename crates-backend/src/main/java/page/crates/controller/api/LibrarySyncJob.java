@@ -0,0 +1,22 @@
+package page.crates.controller.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import page.crates.service.enums.LibrarySyncJobState;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LibrarySyncJob {
+    private LibrarySyncJobState state;
+    private boolean firstSync;
+    private boolean background;
+    private Instant queuedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
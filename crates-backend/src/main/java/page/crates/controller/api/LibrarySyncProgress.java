@@ -0,0 +1,31 @@
+package page.crates.controller.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import page.crates.entity.enums.LibrarySyncPhase;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LibrarySyncProgress {
+    private LibrarySyncPhase phase;
+    private boolean running;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Integer totalAlbums;
+    private int processedAlbums;
+    private int pagesFetched;
+    private int albumsInserted;
+    private int albumsUpdated;
+    private int albumsArchived;
+    private int spotifyCalls;
+    private int spotifyRetries;
+    private Double percentComplete;
+    private Double albumsPerSecond;
+    private Long etaSeconds;
+}
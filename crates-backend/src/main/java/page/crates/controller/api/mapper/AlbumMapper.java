@@ -1,11 +1,16 @@
 package page.crates.controller.api.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import page.crates.controller.api.Album;
 
 @Mapper(componentModel = MapperComponentModels.SPRING)
 public interface AlbumMapper {
     Album map(page.crates.entity.Album album);
 
+    // covers are picked from the images when the album is written, see CatalogWriter
+    @Mapping(target = "imageSmallUrl", ignore = true)
+    @Mapping(target = "imageMediumUrl", ignore = true)
+    @Mapping(target = "imageLargeUrl", ignore = true)
     page.crates.entity.Album map(Album album);
 }
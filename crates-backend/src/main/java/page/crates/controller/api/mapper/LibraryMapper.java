@@ -1,9 +1,11 @@
 package page.crates.controller.api.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import page.crates.controller.api.Library;
 
 @Mapper(componentModel = "spring")
 public interface LibraryMapper {
+    @Mapping(target = "syncJob", ignore = true)
     Library map(page.crates.entity.Library library);
 }
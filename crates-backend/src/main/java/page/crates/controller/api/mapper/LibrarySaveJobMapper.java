@@ -0,0 +1,9 @@
+package page.crates.controller.api.mapper;
+
+import org.mapstruct.Mapper;
+import page.crates.controller.api.LibrarySaveJob;
+
+@Mapper(componentModel = "spring")
+public interface LibrarySaveJobMapper {
+    LibrarySaveJob map(page.crates.service.LibrarySaveJob job);
+}
@@ -0,0 +1,9 @@
+package page.crates.controller.api.mapper;
+
+import org.mapstruct.Mapper;
+import page.crates.controller.api.LibrarySyncJob;
+
+@Mapper(componentModel = "spring")
+public interface LibrarySyncJobMapper {
+    LibrarySyncJob map(page.crates.service.LibrarySyncJob job);
+}
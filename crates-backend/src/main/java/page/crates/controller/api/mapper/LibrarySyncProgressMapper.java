@@ -0,0 +1,10 @@
+package page.crates.controller.api.mapper;
+
+import org.mapstruct.Mapper;
+import page.crates.controller.api.LibrarySyncProgress;
+import page.crates.service.LibrarySyncProgressSnapshot;
+
+@Mapper(componentModel = "spring")
+public interface LibrarySyncProgressMapper {
+    LibrarySyncProgress map(LibrarySyncProgressSnapshot snapshot);
+}
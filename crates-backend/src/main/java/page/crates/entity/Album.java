@@ -43,6 +43,12 @@ public class Album {
     @Column(name = "popularity", nullable = false)
     private int popularity;
     private Instant releaseDate;
+    @Column(name = "image_small_url")
+    private String imageSmallUrl;
+    @Column(name = "image_medium_url")
+    private String imageMediumUrl;
+    @Column(name = "image_large_url")
+    private String imageLargeUrl;
     @ManyToMany
     @JoinTable(name = "album_to_artist",
             joinColumns = @JoinColumn(name = "album_id", nullable = false),
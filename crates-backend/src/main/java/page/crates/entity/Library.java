@@ -16,6 +16,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import page.crates.entity.enums.LibraryState;
+import page.crates.entity.enums.LibrarySyncPhase;
 import page.crates.util.JsonToString;
 
 import java.time.Instant;
@@ -41,6 +42,20 @@ public class Library {
     private Instant createdAt;
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
+    @Column(name = "last_added_at")
+    private Instant lastAddedAt;
+    @Column(name = "last_full_sync_at")
+    private Instant lastFullSyncAt;
+    // only ever moved by LibraryRepository.incrementSyncGeneration, so saving a stale entity can't roll it back
+    @Column(name = "sync_generation", nullable = false, updatable = false)
+    private long syncGeneration;
+    @Column(name = "sync_phase")
+    @Enumerated(EnumType.STRING)
+    private LibrarySyncPhase syncPhase;
+    @Column(name = "sync_offset")
+    private Integer syncOffset;
+    @Column(name = "next_refresh_at")
+    private Instant nextRefreshAt;
 
 
     @Override
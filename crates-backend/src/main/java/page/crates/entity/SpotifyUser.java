@@ -1,7 +1,6 @@
 package page.crates.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -75,7 +74,7 @@ public class SpotifyUser {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
-    @ManyToMany(cascade = CascadeType.ALL)
+    @ManyToMany
     @JoinTable(name = "spotify_user_to_image",
             joinColumns = @JoinColumn(name = "spotify_user_id", nullable = false),
             inverseJoinColumns = @JoinColumn(name = "image_id", nullable = false))
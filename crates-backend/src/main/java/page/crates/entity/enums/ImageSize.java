@@ -0,0 +1,37 @@
+package page.crates.entity.enums;
+
+import page.crates.entity.Image;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Size classes of album covers. The best image for a class is the widest one that fits in it,
+ * or the narrowest one if none does; V00_0_17 backfills existing albums with the same rule.
+ */
+public enum ImageSize {
+    SMALL(100),
+    MEDIUM(400),
+    LARGE(Integer.MAX_VALUE);
+
+    private final int maxWidth;
+
+    ImageSize(final int maxWidth) {
+        this.maxWidth = maxWidth;
+    }
+
+    public String pick(final Collection<Image> images) {
+        if (null == images) {
+            return null;
+        }
+        return images.stream()
+                .min(Comparator.<Image, Boolean>comparing(image -> width(image) > maxWidth)
+                        .thenComparing(image -> width(image) > maxWidth ? width(image) : -width(image)))
+                .map(Image::getUrl)
+                .orElse(null);
+    }
+
+    private static int width(final Image image) {
+        return null == image.getWidth() ? 0 : image.getWidth();
+    }
+}
@@ -0,0 +1,8 @@
+package page.crates.entity.enums;
+
+public enum LibrarySyncPhase {
+    DELTA,
+    REMOVAL_CHECK,
+    FULL_FETCH,
+    ARCHIVE
+}
@@ -0,0 +1,13 @@
+package page.crates.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.UUID;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class LibrarySaveJobNotFoundException extends RuntimeException {
+    public LibrarySaveJobNotFoundException(UUID id) {
+        super(String.valueOf(id));
+    }
+}
@@ -0,0 +1,11 @@
+package page.crates.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class LibrarySyncQueueFullException extends RuntimeException {
+    public LibrarySyncQueueFullException(int capacity) {
+        super("library sync queue is full (capacity " + capacity + ")");
+    }
+}
@@ -0,0 +1,11 @@
+package page.crates.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class LibrarySyncSupersededException extends RuntimeException {
+    public LibrarySyncSupersededException(long libraryId, long generation) {
+        super("library " + libraryId + " is no longer at sync generation " + generation);
+    }
+}
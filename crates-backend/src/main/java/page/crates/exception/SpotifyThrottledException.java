@@ -0,0 +1,11 @@
+package page.crates.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SpotifyThrottledException extends RuntimeException {
+    public SpotifyThrottledException(String message) {
+        super(message);
+    }
+}
@@ -4,7 +4,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import page.crates.entity.Album;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface AlbumRepository extends JpaRepository<Album, Long> {
+public interface AlbumRepository extends JpaRepository<Album, Long>, CatalogBatchRepository {
     Album findOneBySpotifyId(String spotifyId);
+
+    List<Album> findBySpotifyIdIn(Collection<String> spotifyIds);
 }
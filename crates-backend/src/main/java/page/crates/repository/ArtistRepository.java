@@ -4,7 +4,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import page.crates.entity.Artist;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ArtistRepository extends JpaRepository<Artist, Long> {
     Artist findOneBySpotifyId(String spotifyId);
+
+    List<Artist> findBySpotifyIdIn(Collection<String> spotifyIds);
 }
@@ -0,0 +1,66 @@
+package page.crates.repository;
+
+import page.crates.entity.Album;
+import page.crates.entity.Artist;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Set-based catalog writes. Each method is a single statement over arrays, whatever the batch size,
+ * and inserts skip rows that already exist, so concurrent writers of the same albums, artists or
+ * genres never fail on a unique key and repeating a write changes nothing.
+ */
+public interface CatalogBatchRepository {
+    /**
+     * Inserts the albums that don't exist yet; existing albums are left as they are.
+     *
+     * @return ids of all given albums keyed by Spotify id, flagged with whether this call created them
+     */
+    Map<String, Upserted> upsertAlbums(Collection<Album> albums);
+
+    /**
+     * Inserts the artists that don't exist yet; existing artists are left as they are.
+     *
+     * @return ids of all given artists keyed by Spotify id, flagged with whether this call created them
+     */
+    Map<String, Upserted> upsertArtists(Collection<Artist> artists);
+
+    /**
+     * @return ids of the stored artists among {@code spotifyIds}, keyed by Spotify id
+     */
+    Map<String, Long> findArtistIds(Collection<String> spotifyIds);
+
+    /**
+     * @return ids of all given genres keyed by name, creating the missing ones
+     */
+    Map<String, Long> upsertGenres(Collection<String> names);
+
+    /**
+     * Inserts {@code (leftIds[i], rightIds[i])} join rows, skipping existing ones.
+     */
+    void link(Link link, long[] leftIds, long[] rightIds);
+
+    record Upserted(Long id, boolean created) {
+    }
+
+    enum Link {
+        ALBUM_TO_ARTIST("album_to_artist", "album_id", "artist_id"),
+        ALBUM_TO_GENRE("album_to_genre", "album_id", "genre_id"),
+        ALBUM_TO_IMAGE("album_to_image", "album_id", "image_id"),
+        ARTIST_TO_GENRE("artist_to_genre", "artist_id", "genre_id"),
+        ARTIST_TO_IMAGE("artist_to_image", "artist_id", "image_id");
+
+        private final String sql;
+
+        Link(final String table, final String left, final String right) {
+            this.sql = "INSERT INTO " + table + " (" + left + ", " + right + ") " +
+                       "SELECT * FROM unnest(?::BIGINT[], ?::BIGINT[]) " +
+                       "ON CONFLICT DO NOTHING";
+        }
+
+        public String getSql() {
+            return sql;
+        }
+    }
+}
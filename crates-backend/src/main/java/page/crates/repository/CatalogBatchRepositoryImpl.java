@@ -0,0 +1,213 @@
+package page.crates.repository;
+
+import jakarta.annotation.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import page.crates.entity.Album;
+import page.crates.entity.Artist;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class CatalogBatchRepositoryImpl implements CatalogBatchRepository {
+    /*
+     * The upserts insert in spotify id order, so concurrent batches take unique-index locks in the
+     * same order and can't deadlock. The trailing select reads the snapshot from before the
+     * insert, so it returns the rows that already existed and the insert returns the new ones.
+     */
+    private static final String UPSERT_ALBUMS =
+            "WITH input AS (" +
+            "    SELECT DISTINCT ON (spotify_id) * " +
+            "    FROM unnest(?::VARCHAR[], ?::VARCHAR[], ?::VARCHAR[], ?::VARCHAR[], ?::INT[], ?::TIMESTAMP[], " +
+            "                ?::VARCHAR[], ?::VARCHAR[], ?::VARCHAR[]) " +
+            "         AS t (spotify_id, upc, href, name, popularity, release_date, " +
+            "               image_small_url, image_medium_url, image_large_url) " +
+            "    ORDER BY spotify_id" +
+            "), inserted AS (" +
+            "    INSERT INTO album (spotify_id, upc, href, name, popularity, release_date, " +
+            "                       image_small_url, image_medium_url, image_large_url) " +
+            "    SELECT * FROM input " +
+            "    ON CONFLICT (spotify_id) DO NOTHING " +
+            "    RETURNING id, spotify_id" +
+            ") " +
+            "SELECT id, spotify_id, TRUE AS created FROM inserted " +
+            "UNION ALL " +
+            "SELECT a.id, a.spotify_id, FALSE FROM album a JOIN input i ON i.spotify_id = a.spotify_id";
+    private static final String UPSERT_ARTISTS =
+            "WITH input AS (" +
+            "    SELECT DISTINCT ON (spotify_id) * " +
+            "    FROM unnest(?::VARCHAR[], ?::VARCHAR[], ?::VARCHAR[], ?::INT[]) " +
+            "         AS t (spotify_id, spotify_uri, name, popularity) " +
+            "    ORDER BY spotify_id" +
+            "), inserted AS (" +
+            "    INSERT INTO artist (spotify_id, spotify_uri, name, popularity) " +
+            "    SELECT spotify_id, spotify_uri, name, popularity FROM input " +
+            "    ON CONFLICT (spotify_id) DO NOTHING " +
+            "    RETURNING id, spotify_id" +
+            ") " +
+            "SELECT id, spotify_id, TRUE AS created FROM inserted " +
+            "UNION ALL " +
+            "SELECT a.id, a.spotify_id, FALSE FROM artist a JOIN input i ON i.spotify_id = a.spotify_id";
+    private static final String UPSERT_GENRES =
+            "WITH input AS (" +
+            "    SELECT DISTINCT name FROM unnest(?::VARCHAR[]) AS t (name) ORDER BY name" +
+            "), inserted AS (" +
+            "    INSERT INTO genre (name) SELECT name FROM input " +
+            "    ON CONFLICT (name) DO NOTHING " +
+            "    RETURNING id, name" +
+            ") " +
+            "SELECT id, name FROM inserted " +
+            "UNION ALL " +
+            "SELECT g.id, g.name FROM genre g JOIN input i ON i.name = g.name";
+    private static final String FIND_ALBUM_IDS =
+            "SELECT id, spotify_id FROM album WHERE spotify_id = ANY (?::VARCHAR[])";
+    private static final String FIND_ARTIST_IDS =
+            "SELECT id, spotify_id FROM artist WHERE spotify_id = ANY (?::VARCHAR[])";
+    private static final String FIND_GENRE_IDS =
+            "SELECT id, name FROM genre WHERE name = ANY (?::VARCHAR[])";
+
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<String, Upserted> upsertAlbums(final Collection<Album> albums) {
+        if (albums.isEmpty()) {
+            return new HashMap<>();
+        }
+        final Map<String, Upserted> upserted = upsert(UPSERT_ALBUMS, (connection, statement) -> {
+            statement.setArray(1, varchars(connection, albums.stream().map(Album::getSpotifyId)));
+            statement.setArray(2, varchars(connection, albums.stream().map(Album::getUpc)));
+            statement.setArray(3, varchars(connection, albums.stream().map(Album::getHref)));
+            statement.setArray(4, varchars(connection, albums.stream().map(Album::getName)));
+            statement.setArray(5, connection.createArrayOf("int4",
+                    albums.stream().map(Album::getPopularity).toArray()));
+            statement.setArray(6, connection.createArrayOf("timestamp", albums.stream()
+                    .map(album -> null == album.getReleaseDate() ? null : Timestamp.from(album.getReleaseDate()))
+                    .toArray()));
+            statement.setArray(7, varchars(connection, albums.stream().map(Album::getImageSmallUrl)));
+            statement.setArray(8, varchars(connection, albums.stream().map(Album::getImageMediumUrl)));
+            statement.setArray(9, varchars(connection, albums.stream().map(Album::getImageLargeUrl)));
+        });
+        return withConcurrentInserts(upserted, albums.stream().map(Album::getSpotifyId), FIND_ALBUM_IDS);
+    }
+
+    @Override
+    public Map<String, Upserted> upsertArtists(final Collection<Artist> artists) {
+        if (artists.isEmpty()) {
+            return new HashMap<>();
+        }
+        final Map<String, Upserted> upserted = upsert(UPSERT_ARTISTS, (connection, statement) -> {
+            statement.setArray(1, varchars(connection, artists.stream().map(Artist::getSpotifyId)));
+            statement.setArray(2, varchars(connection, artists.stream().map(Artist::getSpotifyUri)));
+            statement.setArray(3, varchars(connection, artists.stream().map(Artist::getName)));
+            statement.setArray(4, connection.createArrayOf("int4",
+                    artists.stream().map(Artist::getPopularity).toArray()));
+        });
+        return withConcurrentInserts(upserted, artists.stream().map(Artist::getSpotifyId), FIND_ARTIST_IDS);
+    }
+
+    @Override
+    public Map<String, Long> findArtistIds(final Collection<String> spotifyIds) {
+        return findIds(FIND_ARTIST_IDS, spotifyIds);
+    }
+
+    @Override
+    public Map<String, Long> upsertGenres(final Collection<String> names) {
+        if (names.isEmpty()) {
+            return new HashMap<>();
+        }
+        final Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(UPSERT_GENRES);
+            statement.setArray(1, varchars(connection, names.stream()));
+            return statement;
+        }, resultSet -> {
+            ids.put(resultSet.getString(2), resultSet.getLong(1));
+        });
+        final Set<String> missing = names.stream().filter(name -> !ids.containsKey(name)).collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            ids.putAll(findIds(FIND_GENRE_IDS, missing));
+        }
+        return ids;
+    }
+
+    @Override
+    public void link(final Link link, final long[] leftIds, final long[] rightIds) {
+        if (leftIds.length == 0) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(link.getSql());
+            statement.setArray(1, connection.createArrayOf("int8", boxed(leftIds)));
+            statement.setArray(2, connection.createArrayOf("int8", boxed(rightIds)));
+            return statement;
+        });
+    }
+
+    private Map<String, Upserted> upsert(final String sql, final Binder binder) {
+        final Map<String, Upserted> upserted = new LinkedHashMap<>();
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            binder.bind(connection, statement);
+            return statement;
+        }, resultSet -> {
+            upserted.put(resultSet.getString(2), new Upserted(resultSet.getLong(1), resultSet.getBoolean(3)));
+        });
+        return upserted;
+    }
+
+    /**
+     * A row another transaction committed while our insert was waiting on it is skipped by the
+     * insert but isn't in the snapshot the upsert selected from, so look those up again.
+     */
+    private Map<String, Upserted> withConcurrentInserts(final Map<String, Upserted> upserted,
+                                                        final Stream<String> spotifyIds,
+                                                        final String findSql) {
+        final Set<String> missing = spotifyIds.filter(id -> !upserted.containsKey(id)).collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            findIds(findSql, missing).forEach((spotifyId, id) -> upserted.put(spotifyId, new Upserted(id, false)));
+        }
+        return upserted;
+    }
+
+    private Map<String, Long> findIds(final String sql, final Collection<String> keys) {
+        final Map<String, Long> ids = new HashMap<>();
+        if (keys.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, varchars(connection, keys.stream()));
+            return statement;
+        }, resultSet -> {
+            ids.put(resultSet.getString(2), resultSet.getLong(1));
+        });
+        return ids;
+    }
+
+    private static Array varchars(final Connection connection,
+                                  final Stream<String> values) throws SQLException {
+        return connection.createArrayOf("varchar", values.toArray());
+    }
+
+    private static Long[] boxed(final long[] ids) {
+        final Long[] boxed = new Long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            boxed[i] = ids[i];
+        }
+        return boxed;
+    }
+
+    private interface Binder {
+        void bind(Connection connection, PreparedStatement statement) throws SQLException;
+    }
+}
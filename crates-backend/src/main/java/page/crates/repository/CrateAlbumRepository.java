@@ -6,9 +6,13 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import page.crates.entity.Album;
 import page.crates.entity.Crate;
 import page.crates.entity.CrateAlbum;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CrateAlbumRepository extends JpaRepository<CrateAlbum, Long> {
     @Modifying
@@ -37,4 +41,9 @@ public interface CrateAlbumRepository extends JpaRepository<CrateAlbum, Long> {
            "FROM CrateAlbum a " +
            "WHERE a.crate.id = :crateId")
     long countActiveByCrateId(Long crateId);
+
+    @Query("SELECT DISTINCT a.album " +
+           "FROM CrateAlbum a " +
+           "WHERE a.crate.id IN :crateIds")
+    List<Album> findAlbumsByCrateIds(Collection<Long> crateIds);
 }
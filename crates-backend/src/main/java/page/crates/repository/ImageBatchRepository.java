@@ -0,0 +1,52 @@
+package page.crates.repository;
+
+import page.crates.entity.Image;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Images are shared by URL. Until the compaction job has merged the duplicates stored before that,
+ * lookups resolve a URL to its oldest row, which is the one compaction keeps.
+ */
+public interface ImageBatchRepository {
+    /**
+     * @return ids of all given images keyed by URL, inserting the URLs not stored yet
+     */
+    Map<String, Long> upsertImages(Collection<Image> images);
+
+    /**
+     * @return up to {@code limit} URLs that are stored more than once
+     */
+    List<String> findDuplicatedUrls(int limit);
+
+    /**
+     * Points every join row at the oldest image of each URL and deletes the other images, in one
+     * statement.
+     *
+     * @return number of images deleted
+     */
+    int mergeDuplicates(Collection<String> urls);
+
+    /**
+     * @return whether the unique index on image URLs exists and is valid
+     */
+    boolean hasUniqueUrlIndex();
+
+    /**
+     * Builds the unique index on image URLs without blocking writes, replacing the plain index the
+     * compaction job used. An invalid index left behind by an earlier build that was killed is
+     * dropped first. Fails if a duplicate URL was stored meanwhile; the invalid index is dropped.
+     * Only call this while holding {@link #withCompactionLock}, since it drops other builds' indexes.
+     */
+    void createUniqueUrlIndex();
+
+    /**
+     * Runs {@code work} while holding a database-wide advisory lock, so only one instance compacts
+     * images or builds the index at a time.
+     *
+     * @return false, without running {@code work}, if another instance holds the lock
+     */
+    boolean withCompactionLock(Runnable work);
+}
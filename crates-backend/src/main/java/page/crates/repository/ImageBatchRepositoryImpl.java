@@ -0,0 +1,176 @@
+package page.crates.repository;
+
+import jakarta.annotation.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import page.crates.entity.Image;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class ImageBatchRepositoryImpl implements ImageBatchRepository {
+    /*
+     * ON CONFLICT without a target so the same statement works before and after the unique index
+     * exists; without it, a URL another transaction is inserting at the same moment can still be
+     * stored twice and is merged by the next compaction.
+     */
+    private static final String UPSERT_IMAGES =
+            "WITH input AS (" +
+            "    SELECT DISTINCT ON (url) * " +
+            "    FROM unnest(?::VARCHAR[], ?::INT[], ?::INT[]) AS t (url, width, height) " +
+            "    ORDER BY url" +
+            "), existing AS (" +
+            "    SELECT DISTINCT ON (i.url) i.id, i.url FROM image i JOIN input USING (url) ORDER BY i.url, i.id" +
+            "), inserted AS (" +
+            "    INSERT INTO image (url, width, height) " +
+            "    SELECT url, width, height FROM input WHERE url NOT IN (SELECT url FROM existing) " +
+            "    ON CONFLICT DO NOTHING " +
+            "    RETURNING id, url" +
+            ") " +
+            "SELECT id, url FROM inserted " +
+            "UNION ALL " +
+            "SELECT id, url FROM existing";
+    private static final String FIND_IMAGE_IDS =
+            "SELECT DISTINCT ON (url) id, url FROM image WHERE url = ANY (?::VARCHAR[]) ORDER BY url, id";
+    private static final String FIND_DUPLICATED_URLS =
+            "SELECT url FROM image GROUP BY url HAVING count(*) > 1 LIMIT ?";
+    private static final String MERGE_DUPLICATES =
+            "WITH losers AS (" +
+            "    SELECT id, keeper FROM (" +
+            "        SELECT id, min(id) OVER (PARTITION BY url) AS keeper FROM image WHERE url = ANY (?::VARCHAR[])" +
+            "    ) ranked WHERE id <> keeper" +
+            "), album_moved AS (" +
+            "    INSERT INTO album_to_image (album_id, image_id) " +
+            "    SELECT DISTINCT j.album_id, l.keeper FROM album_to_image j JOIN losers l ON l.id = j.image_id " +
+            "    ON CONFLICT DO NOTHING" +
+            "), album_dropped AS (" +
+            "    DELETE FROM album_to_image j USING losers l WHERE j.image_id = l.id" +
+            "), artist_moved AS (" +
+            "    INSERT INTO artist_to_image (artist_id, image_id) " +
+            "    SELECT DISTINCT j.artist_id, l.keeper FROM artist_to_image j JOIN losers l ON l.id = j.image_id " +
+            "    ON CONFLICT DO NOTHING" +
+            "), artist_dropped AS (" +
+            "    DELETE FROM artist_to_image j USING losers l WHERE j.image_id = l.id" +
+            "), user_moved AS (" +
+            "    INSERT INTO spotify_user_to_image (spotify_user_id, image_id) " +
+            "    SELECT DISTINCT j.spotify_user_id, l.keeper FROM spotify_user_to_image j JOIN losers l ON l.id = j.image_id " +
+            "    ON CONFLICT DO NOTHING" +
+            "), user_dropped AS (" +
+            "    DELETE FROM spotify_user_to_image j USING losers l WHERE j.image_id = l.id" +
+            ") " +
+            "DELETE FROM image i USING losers l WHERE i.id = l.id";
+    private static final String HAS_UNIQUE_URL_INDEX =
+            "SELECT EXISTS (SELECT 1 FROM pg_index x JOIN pg_class c ON c.oid = x.indexrelid " +
+            "               WHERE c.relname = 'uk_image_url' AND x.indisvalid)";
+    private static final String HAS_INVALID_UNIQUE_URL_INDEX =
+            "SELECT EXISTS (SELECT 1 FROM pg_index x JOIN pg_class c ON c.oid = x.indexrelid " +
+            "               WHERE c.relname = 'uk_image_url' AND NOT x.indisvalid)";
+    // arbitrary key shared by every instance; session-level, so a crashed holder releases it
+    private static final long COMPACTION_LOCK = 0x696D616765L;
+
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<String, Long> upsertImages(final Collection<Image> images) {
+        final Map<String, Long> ids = new HashMap<>();
+        if (images.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(UPSERT_IMAGES);
+            statement.setArray(1, connection.createArrayOf("varchar", images.stream().map(Image::getUrl).toArray()));
+            statement.setArray(2, connection.createArrayOf("int4", images.stream().map(Image::getWidth).toArray()));
+            statement.setArray(3, connection.createArrayOf("int4", images.stream().map(Image::getHeight).toArray()));
+            return statement;
+        }, resultSet -> {
+            ids.put(resultSet.getString(2), resultSet.getLong(1));
+        });
+        // rows another transaction committed while our insert waited on the unique index
+        final Set<String> missing = images.stream()
+                .map(Image::getUrl)
+                .filter(url -> !ids.containsKey(url))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            jdbcTemplate.query(connection -> {
+                final PreparedStatement statement = connection.prepareStatement(FIND_IMAGE_IDS);
+                statement.setArray(1, connection.createArrayOf("varchar", missing.toArray()));
+                return statement;
+            }, resultSet -> {
+                ids.put(resultSet.getString(2), resultSet.getLong(1));
+            });
+        }
+        return ids;
+    }
+
+    @Override
+    public List<String> findDuplicatedUrls(final int limit) {
+        return jdbcTemplate.queryForList(FIND_DUPLICATED_URLS, String.class, limit);
+    }
+
+    @Override
+    public int mergeDuplicates(final Collection<String> urls) {
+        if (urls.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(MERGE_DUPLICATES);
+            statement.setArray(1, connection.createArrayOf("varchar", urls.toArray()));
+            return statement;
+        });
+    }
+
+    @Override
+    public boolean hasUniqueUrlIndex() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_UNIQUE_URL_INDEX, Boolean.class));
+    }
+
+    @Override
+    public void createUniqueUrlIndex() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_INVALID_UNIQUE_URL_INDEX, Boolean.class))) {
+            // IF NOT EXISTS would quietly keep it and the index would never become valid
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS uk_image_url");
+        }
+        try {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_image_url ON image (url)");
+        } catch (DataAccessException e) {
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS uk_image_url");
+            throw e;
+        }
+        jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS idx_image_url");
+    }
+
+    /**
+     * Holds one pooled connection for the whole run, since a session-level lock has to be released
+     * on the connection that took it. The work itself runs on other connections.
+     */
+    @Override
+    public boolean withCompactionLock(final Runnable work) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (PreparedStatement lock = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                lock.setLong(1, COMPACTION_LOCK);
+                try (ResultSet resultSet = lock.executeQuery()) {
+                    if (!resultSet.next() || !resultSet.getBoolean(1)) {
+                        return false;
+                    }
+                }
+            }
+            try {
+                work.run();
+            } finally {
+                try (PreparedStatement unlock = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                    unlock.setLong(1, COMPACTION_LOCK);
+                    unlock.execute();
+                }
+            }
+            return true;
+        }));
+    }
+}
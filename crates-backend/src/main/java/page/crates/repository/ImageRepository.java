@@ -5,5 +5,5 @@ import org.springframework.stereotype.Repository;
 import page.crates.entity.Image;
 
 @Repository
-public interface ImageRepository extends JpaRepository<Image, Long> {
+public interface ImageRepository extends JpaRepository<Image, Long>, ImageBatchRepository {
 }
@@ -0,0 +1,40 @@
+package page.crates.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Set-based writes for library sync, issued as JDBC batches so a whole
+ * page of saved albums costs one round trip per statement type.
+ */
+public interface LibraryAlbumBatchRepository {
+    /**
+     * Inserts active library albums for the user, skipping any that already exist.
+     *
+     * @return number of rows inserted
+     */
+    int insertActive(Long spotifyUserId, Map<Long, Instant> addedAtByAlbumId, Instant createdAt);
+
+    /**
+     * Sets added_at and re-activates the given library albums.
+     */
+    void activate(Collection<AddedAt> updates);
+
+    /**
+     * Archives the given library albums in one statement.
+     *
+     * @return number of rows archived
+     */
+    int archive(long[] libraryAlbumIds, Instant archivedAt);
+
+    /**
+     * Archives every active library album of the user whose album is not in {@code albumIds}.
+     *
+     * @return number of rows archived
+     */
+    int archiveActiveExcept(Long spotifyUserId, long[] albumIds, Instant archivedAt);
+
+    record AddedAt(Long libraryAlbumId, Instant addedAt) {
+    }
+}
@@ -0,0 +1,101 @@
+package page.crates.repository;
+
+import jakarta.annotation.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import page.crates.entity.enums.State;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class LibraryAlbumBatchRepositoryImpl implements LibraryAlbumBatchRepository {
+    private static final String INSERT_ACTIVE =
+            "INSERT INTO library_album (album_id, spotify_user_id, state, added_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (album_id, spotify_user_id) DO NOTHING";
+    private static final String ACTIVATE =
+            "UPDATE library_album " +
+            "SET added_at = ?, state = ?, archived_at = NULL " +
+            "WHERE id = ?";
+
+    private static final String ARCHIVE =
+            "UPDATE library_album " +
+            "SET state = 'ARCHIVED', archived_at = ? " +
+            "WHERE id = ANY (?::BIGINT[]) " +
+            "  AND state = 'ACTIVE'";
+    private static final String ARCHIVE_ACTIVE_EXCEPT =
+            "UPDATE library_album " +
+            "SET state = 'ARCHIVED', archived_at = ? " +
+            "WHERE spotify_user_id = ? " +
+            "  AND state = 'ACTIVE' " +
+            "  AND album_id <> ALL (?::BIGINT[])";
+
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertActive(final Long spotifyUserId,
+                            final Map<Long, Instant> addedAtByAlbumId,
+                            final Instant createdAt) {
+        if (addedAtByAlbumId.isEmpty()) {
+            return 0;
+        }
+        final Timestamp created = Timestamp.from(createdAt);
+        final List<Object[]> rows = addedAtByAlbumId.entrySet().stream()
+                .map(entry -> new Object[]{
+                        entry.getKey(),
+                        spotifyUserId,
+                        State.ACTIVE.name(),
+                        Timestamp.from(entry.getValue()),
+                        created})
+                .toList();
+        int inserted = 0;
+        for (int count : jdbcTemplate.batchUpdate(INSERT_ACTIVE, rows)) {
+            inserted += Math.max(count, 0);
+        }
+        return inserted;
+    }
+
+    @Override
+    public void activate(final Collection<AddedAt> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ACTIVATE, updates.stream()
+                .map(update -> new Object[]{
+                        Timestamp.from(update.addedAt()),
+                        State.ACTIVE.name(),
+                        update.libraryAlbumId()})
+                .toList());
+    }
+
+    @Override
+    public int archive(final long[] libraryAlbumIds, final Instant archivedAt) {
+        if (libraryAlbumIds.length == 0) {
+            return 0;
+        }
+        return jdbcTemplate.update(ARCHIVE, Timestamp.from(archivedAt), toArrayLiteral(libraryAlbumIds));
+    }
+
+    @Override
+    public int archiveActiveExcept(final Long spotifyUserId, final long[] albumIds, final Instant archivedAt) {
+        return jdbcTemplate.update(ARCHIVE_ACTIVE_EXCEPT,
+                Timestamp.from(archivedAt), spotifyUserId, toArrayLiteral(albumIds));
+    }
+
+    /**
+     * Renders ids as a postgres array literal, which avoids boxing every id for JDBC's createArrayOf.
+     */
+    private static String toArrayLiteral(final long[] ids) {
+        final StringBuilder literal = new StringBuilder(ids.length * 8 + 2).append('{');
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            literal.append(ids[i]);
+        }
+        return literal.append('}').toString();
+    }
+}
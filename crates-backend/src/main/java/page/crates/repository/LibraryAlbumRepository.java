@@ -8,11 +8,15 @@ import org.springframework.stereotype.Repository;
 import page.crates.entity.Album;
 import page.crates.entity.LibraryAlbum;
 import page.crates.entity.SpotifyUser;
+import page.crates.entity.enums.State;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface LibraryAlbumRepository extends JpaRepository<LibraryAlbum, Long> {
+public interface LibraryAlbumRepository extends JpaRepository<LibraryAlbum, Long>, LibraryAlbumBatchRepository {
     @Query("SELECT l " +
            "FROM LibraryAlbum l " +
            "WHERE l.state = page.crates.entity.enums.State.ACTIVE " +
@@ -20,15 +24,59 @@ public interface LibraryAlbumRepository extends JpaRepository<LibraryAlbum, Long
            "ORDER BY l.addedAt DESC")
     Page<LibraryAlbum> findActiveBySpotifyUser(SpotifyUser spotifyUser, Pageable pageable);
 
+    @Query("SELECT l " +
+           "FROM LibraryAlbum l " +
+           "JOIN FETCH l.album " +
+           "WHERE l.state = page.crates.entity.enums.State.ACTIVE " +
+           "  AND l.spotifyUser = :spotifyUser " +
+           "ORDER BY l.addedAt DESC, l.id DESC")
+    List<LibraryAlbum> findFirstActiveBySpotifyUser(SpotifyUser spotifyUser, Pageable pageable);
+
+    @Query("SELECT l " +
+           "FROM LibraryAlbum l " +
+           "JOIN FETCH l.album " +
+           "WHERE l.state = page.crates.entity.enums.State.ACTIVE " +
+           "  AND l.spotifyUser = :spotifyUser " +
+           "  AND (l.addedAt < :addedAt OR (l.addedAt = :addedAt AND l.id < :id)) " +
+           "ORDER BY l.addedAt DESC, l.id DESC")
+    List<LibraryAlbum> findActiveBySpotifyUserBefore(SpotifyUser spotifyUser, Instant addedAt, Long id, Pageable pageable);
+
+    @Query("SELECT l " +
+           "FROM LibraryAlbum l " +
+           "JOIN FETCH l.album " +
+           "WHERE l.state = page.crates.entity.enums.State.ACTIVE " +
+           "  AND l.spotifyUser = :spotifyUser " +
+           "  AND NOT EXISTS (SELECT c FROM CrateAlbum c WHERE c.album = l.album) " +
+           "ORDER BY l.addedAt DESC, l.id DESC")
+    List<LibraryAlbum> findFirstActiveUncratedBySpotifyUser(SpotifyUser spotifyUser, Pageable pageable);
+
+    @Query("SELECT l " +
+           "FROM LibraryAlbum l " +
+           "JOIN FETCH l.album " +
+           "WHERE l.state = page.crates.entity.enums.State.ACTIVE " +
+           "  AND l.spotifyUser = :spotifyUser " +
+           "  AND NOT EXISTS (SELECT c FROM CrateAlbum c WHERE c.album = l.album) " +
+           "  AND (l.addedAt < :addedAt OR (l.addedAt = :addedAt AND l.id < :id)) " +
+           "ORDER BY l.addedAt DESC, l.id DESC")
+    List<LibraryAlbum> findActiveUncratedBySpotifyUserBefore(SpotifyUser spotifyUser, Instant addedAt, Long id, Pageable pageable);
+
+    // search_document is album + artist names normalized by crates_search_normalize (V00_0_18); the
+    // substring match uses its trigram index and the closest word matches rank first
     @Query(value = "SELECT l.* " +
                    "FROM library_album l " +
-                   "JOIN album a on l.album_id = a.id " +
-                   "JOIN album_to_artist ata on a.id = ata.album_id " +
-                   "JOIN artist a2 on ata.artist_id = a2.id " +
+                   "JOIN album a ON l.album_id = a.id " +
                    "WHERE l.state = 'ACTIVE' " +
                    "  AND l.spotify_user_id = :spotifyUserId " +
-                   "  AND (a.name ILIKE CONCAT('%', :search, '%')" +
-                   "    OR a2.name ILIKE CONCAT('%', :search, '%'))", nativeQuery = true)
+                   "  AND a.search_document LIKE CONCAT('%', crates_search_normalize(:search), '%') " +
+                   "ORDER BY word_similarity(crates_search_normalize(:search), a.search_document) DESC, " +
+                   "         l.added_at DESC, l.id DESC",
+           countQuery = "SELECT count(*) " +
+                        "FROM library_album l " +
+                        "JOIN album a ON l.album_id = a.id " +
+                        "WHERE l.state = 'ACTIVE' " +
+                        "  AND l.spotify_user_id = :spotifyUserId " +
+                        "  AND a.search_document LIKE CONCAT('%', crates_search_normalize(:search), '%')",
+           nativeQuery = true)
     Page<LibraryAlbum> findActiveBySpotifyUserAndSearchTerm(Long spotifyUserId, String search, Pageable pageable);
 
     @Query(value = "SELECT * " +
@@ -43,20 +91,37 @@ public interface LibraryAlbumRepository extends JpaRepository<LibraryAlbum, Long
 
     @Query(value = "SELECT l.* " +
                    "FROM library_album l " +
-                   "JOIN album a on l.album_id = a.id " +
-                   "JOIN album_to_artist ata on a.id = ata.album_id " +
-                   "JOIN artist a2 on ata.artist_id = a2.id " +
+                   "JOIN album a ON l.album_id = a.id " +
                    "WHERE l.state = 'ACTIVE' " +
                    "  AND l.spotify_user_id = :spotifyUserId " +
                    "  AND NOT EXISTS (SELECT * " +
                    "    FROM crate_album c " +
                    "    WHERE c.album_id = l.album_id) " +
-                   "  AND (a.name ILIKE CONCAT('%', :search, '%') " +
-                   "    OR a2.name ILIKE CONCAT('%', :search, '%')) " +
-                   "ORDER BY l.added_at DESC", nativeQuery = true)
+                   "  AND a.search_document LIKE CONCAT('%', crates_search_normalize(:search), '%') " +
+                   "ORDER BY word_similarity(crates_search_normalize(:search), a.search_document) DESC, " +
+                   "         l.added_at DESC, l.id DESC",
+           countQuery = "SELECT count(*) " +
+                        "FROM library_album l " +
+                        "JOIN album a ON l.album_id = a.id " +
+                        "WHERE l.state = 'ACTIVE' " +
+                        "  AND l.spotify_user_id = :spotifyUserId " +
+                        "  AND NOT EXISTS (SELECT * " +
+                        "    FROM crate_album c " +
+                        "    WHERE c.album_id = l.album_id) " +
+                        "  AND a.search_document LIKE CONCAT('%', crates_search_normalize(:search), '%')",
+           nativeQuery = true)
     Page<LibraryAlbum> findActiveUncratedBySpotifyUserAndSearchTerm(Long spotifyUserId, String search, Pageable pageable);
 
     Optional<LibraryAlbum> findOneByAlbumAndSpotifyUser(Album album, SpotifyUser spotifyUser);
+
+    @Query("SELECT l " +
+           "FROM LibraryAlbum l " +
+           "JOIN FETCH l.album a " +
+           "WHERE l.spotifyUser = :spotifyUser " +
+           "  AND a.id IN :albumIds")
+    List<LibraryAlbum> findBySpotifyUserAndAlbumIds(SpotifyUser spotifyUser, Collection<Long> albumIds);
+
+    long countBySpotifyUserAndState(SpotifyUser spotifyUser, State state);
     
     @Query("SELECT l " +
            "FROM LibraryAlbum l " +
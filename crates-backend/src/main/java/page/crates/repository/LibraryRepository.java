@@ -1,12 +1,58 @@
 package page.crates.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import page.crates.entity.Library;
+import page.crates.entity.enums.LibraryState;
+import page.crates.entity.enums.LibrarySyncPhase;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LibraryRepository extends JpaRepository<Library, Long> {
     Optional<Library> findOneBySpotifyUserId(Long userId);
+
+    @Query("SELECT l " +
+           "FROM Library l " +
+           "JOIN FETCH l.spotifyUser " +
+           "WHERE l.state IN :states")
+    List<Library> findByStateIn(Collection<LibraryState> states);
+
+    @Query("SELECT l " +
+           "FROM Library l " +
+           "JOIN FETCH l.spotifyUser u " +
+           "JOIN FETCH u.token " +
+           "WHERE l.state IN :states " +
+           "AND l.updatedAt < :before " +
+           "AND (l.nextRefreshAt IS NULL OR l.nextRefreshAt <= :now) " +
+           "ORDER BY l.updatedAt ASC")
+    List<Library> findStale(Collection<LibraryState> states, Instant before, Instant now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Library l " +
+           "SET l.nextRefreshAt = :until " +
+           "WHERE l.id = :id")
+    int updateNextRefreshAt(Long id, Instant until);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Library l " +
+           "SET l.syncPhase = :phase, l.syncOffset = :offset " +
+           "WHERE l.id = :id AND l.syncGeneration = :generation")
+    int updateSyncCheckpoint(Long id, long generation, LibrarySyncPhase phase, Integer offset);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Library l " +
+           "SET l.syncGeneration = l.syncGeneration + 1 " +
+           "WHERE l.id = :id AND l.syncGeneration = :generation")
+    int incrementSyncGeneration(Long id, long generation);
 }
@@ -24,6 +24,9 @@ public interface UserCrateCollectionRepository extends JpaRepository<UserCrateCo
     // Get all crates in user's collection
     @Query("SELECT ucc FROM UserCrateCollection ucc WHERE ucc.user = :user ORDER BY ucc.createdAt DESC")
     Page<UserCrateCollection> findByUser(SpotifyUser user, Pageable pageable);
+
+    @Query("SELECT ucc.crate.id FROM UserCrateCollection ucc WHERE ucc.user = :user")
+    List<Long> findCrateIdsByUser(SpotifyUser user);
     
     // Search crates in user's collection by name
     @Query("SELECT ucc FROM UserCrateCollection ucc WHERE ucc.user = :user AND ucc.crate.name ILIKE CONCAT('%', :search, '%') ORDER BY ucc.createdAt DESC")
@@ -4,6 +4,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import page.crates.controller.api.SearchType;
 import page.crates.entity.Album;
+import page.crates.spotify.client.SpotifyRequestPriority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface AlbumService {
     Page<Album> search(String search,
@@ -15,4 +20,23 @@ public interface AlbumService {
     Album findOrCreate(String spotifyAlbumId);
 
     Album findOrCreate(Album album);
+
+    List<Album> findAllBySpotifyIds(Collection<String> spotifyAlbumIds);
+
+    /**
+     * Batch form of {@link #findOrCreate(Album)}: looks up all albums at once and creates the
+     * missing ones through {@link CatalogWriter}, hydrating all of their unknown artists together.
+     *
+     * @param priority gateway priority for the artist lookups; library sync passes BACKGROUND
+     * @return albums keyed by Spotify id
+     */
+    Map<String, Album> findOrCreateAll(Collection<Album> albums, SpotifyRequestPriority priority);
+
+    /**
+     * Batch form of {@link #findOrCreate(String)}: unknown albums are fetched with Spotify's
+     * multi-get endpoint. Ids Spotify doesn't know are left out of the result.
+     *
+     * @return albums keyed by Spotify id
+     */
+    Map<String, Album> findOrCreateAllBySpotifyIds(Collection<String> spotifyAlbumIds);
 }
@@ -14,10 +14,19 @@ import page.crates.repository.AlbumRepository;
 import page.crates.service.mapper.SpotifyAlbumMapper;
 import page.crates.spotify.client.Context;
 import page.crates.spotify.client.Spotify;
-import page.crates.spotify.client.SpotifyAuth;
+import page.crates.spotify.client.SpotifyAsync;
+import page.crates.spotify.client.SpotifyCatalogHydrator;
+import page.crates.spotify.client.SpotifyRequestPriority;
+import page.crates.spotify.client.SpotifyServiceTokenProvider;
+import page.crates.util.CompletableFutures;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,19 +34,19 @@ public class AlbumServiceImpl implements AlbumService {
     @Resource
     private Spotify spotify;
     @Resource
-    private SpotifyAuth spotifyAuth;
+    private SpotifyServiceTokenProvider spotifyServiceTokenProvider;
     @Resource
     private SpotifyAlbumMapper spotifyAlbumMapper;
     @Resource
     private AlbumRepository albumRepository;
     @Resource
-    private ArtistService artistService;
+    private CatalogWriter catalogWriter;
     @Resource
-    private ImageService imageService;
+    private LibraryService libraryService;
     @Resource
-    private GenreService genreService;
+    private SpotifyAsync spotifyAsync;
     @Resource
-    private LibraryService libraryService;
+    private SpotifyCatalogHydrator spotifyCatalogHydrator;
 
     @Override
     public Album findOrCreate(String spotifyAlbumId) {
@@ -45,14 +54,12 @@ public class AlbumServiceImpl implements AlbumService {
         if (null != existing) {
             return existing;
         }
-        final String token = spotifyAuth.getServiceToken().getAccessToken();
-        final page.crates.spotify.client.api.Album spotifyAlbum = spotify.getAlbum(Context.forToken(token), spotifyAlbumId);
+        final page.crates.spotify.client.api.Album spotifyAlbum = spotifyCatalogHydrator.getAlbum(
+                spotifyAlbumId, SpotifyRequestPriority.INTERACTIVE);
         if (null == spotifyAlbum) {
             throw new SpotifyAlbumNotFoundException(spotifyAlbumId);
         }
-        final Album album = spotifyAlbumMapper.map(spotifyAlbum);
-        saveSubEntities(album);
-        return albumRepository.save(album);
+        return findOrCreate(spotifyAlbumMapper.map(spotifyAlbum));
     }
 
     @Override
@@ -61,29 +68,54 @@ public class AlbumServiceImpl implements AlbumService {
         if (null != existing) {
             return existing;
         }
-        saveSubEntities(album);
-        return albumRepository.save(album);
+        return findOrCreateAll(List.of(album), SpotifyRequestPriority.INTERACTIVE).get(album.getSpotifyId());
     }
 
-    private void saveSubEntities(Album album) {
-        if (CollectionUtils.isNotEmpty(album.getArtists())) {
-            album.setArtists(
-                    album.getArtists().stream()
-                            .map(artistService::findOrCreate)
-                            .collect(Collectors.toSet()));
+    @Override
+    public List<Album> findAllBySpotifyIds(Collection<String> spotifyAlbumIds) {
+        if (CollectionUtils.isEmpty(spotifyAlbumIds)) {
+            return List.of();
         }
-        if (CollectionUtils.isNotEmpty(album.getImages())) {
-            album.setImages(
-                    album.getImages().stream()
-                            .map(imageService::save)
-                            .collect(Collectors.toSet()));
+        return albumRepository.findBySpotifyIdIn(spotifyAlbumIds);
+    }
+
+    @Override
+    public Map<String, Album> findOrCreateAll(Collection<Album> albums, SpotifyRequestPriority priority) {
+        final Map<String, Album> found = new HashMap<>();
+        if (CollectionUtils.isEmpty(albums)) {
+            return found;
         }
-        if (CollectionUtils.isNotEmpty(album.getGenres())) {
-            album.setGenres(
-                    album.getGenres().stream()
-                            .map(genreService::findOrCreate)
-                            .collect(Collectors.toSet()));
+        albumRepository.findBySpotifyIdIn(albums.stream().map(Album::getSpotifyId).collect(Collectors.toSet()))
+                .forEach(album -> found.put(album.getSpotifyId(), album));
+        final List<Album> missing = albums.stream()
+                .filter(album -> !found.containsKey(album.getSpotifyId()))
+                .toList();
+        if (missing.isEmpty()) {
+            return found;
         }
+        albumRepository.findAllById(catalogWriter.writeAlbums(missing, priority).values())
+                .forEach(album -> found.put(album.getSpotifyId(), album));
+        return found;
+    }
+
+    @Override
+    public Map<String, Album> findOrCreateAllBySpotifyIds(Collection<String> spotifyAlbumIds) {
+        if (CollectionUtils.isEmpty(spotifyAlbumIds)) {
+            return new HashMap<>();
+        }
+        final Map<String, Album> found = new HashMap<>();
+        findAllBySpotifyIds(spotifyAlbumIds).forEach(album -> found.put(album.getSpotifyId(), album));
+        final Set<String> missing = spotifyAlbumIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            found.putAll(findOrCreateAll(
+                    spotifyCatalogHydrator.getAlbums(missing, SpotifyRequestPriority.INTERACTIVE).values().stream()
+                            .map(spotifyAlbumMapper::map)
+                            .toList(),
+                    SpotifyRequestPriority.INTERACTIVE));
+        }
+        return found;
     }
 
     @Override
@@ -94,7 +126,7 @@ public class AlbumServiceImpl implements AlbumService {
             return libraryService.searchLibraryAlbums(search, pageable)
                     .map(libraryAlbum -> libraryAlbum.getAlbum());
         }
-        final String token = spotifyAuth.getServiceToken().getAccessToken();
+        final String token = spotifyServiceTokenProvider.getAccessToken();
         final Context context = Context.forToken(token);
         return spotify.searchAlbums(context, search, pageable)
                 .map(spotifyAlbumMapper::map);
@@ -102,14 +134,16 @@ public class AlbumServiceImpl implements AlbumService {
 
     @Override
     public Page<Album> searchHybrid(final String search, final Pageable pageable) {
-        // Get library results first
-        final Page<Album> libraryResults = search(search, SearchType.LIBRARY, pageable);
-        
         // Always fetch global results to ensure good discovery
         // Fetch at least 20 global results, or more if requested page size is larger
         final int globalFetchSize = Math.max(20, pageable.getPageSize());
         final Pageable globalPageable = PageRequest.of(0, globalFetchSize, pageable.getSort());
-        final Page<Album> globalResults = search(search, SearchType.GLOBAL, globalPageable);
+        // Start the Spotify search first so it runs while the library is queried
+        final CompletableFuture<Page<page.crates.spotify.client.api.Album>> globalSearch = spotifyAsync.searchAlbums(
+                Context.forToken(spotifyServiceTokenProvider.getAccessToken()), search, globalPageable);
+
+        final Page<Album> libraryResults = search(search, SearchType.LIBRARY, pageable);
+        final Page<Album> globalResults = CompletableFutures.join(globalSearch).map(spotifyAlbumMapper::map);
         
         // Combine results - library first, then global
         final List<Album> combinedContent = new ArrayList<>();
@@ -2,6 +2,16 @@ package page.crates.service;
 
 import page.crates.entity.Artist;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface ArtistService {
     Artist findOrCreate(Artist artist);
+
+    /**
+     * Looks up all artists at once and creates the missing ones from a single Spotify multi-get per 50.
+     *
+     * @return artists keyed by Spotify id, without the ones Spotify doesn't return
+     */
+    Map<String, Artist> findOrCreateAll(Collection<Artist> artists);
 }
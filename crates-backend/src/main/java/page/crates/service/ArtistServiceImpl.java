@@ -2,32 +2,27 @@ package page.crates.service;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.stereotype.Service;
-import page.crates.spotify.client.Context;
-import page.crates.spotify.client.Spotify;
 import page.crates.entity.Artist;
 import page.crates.exception.SpotifyArtistNotFoundException;
 import page.crates.repository.ArtistRepository;
-import page.crates.service.mapper.SpotifyArtistMapper;
+import page.crates.spotify.client.SpotifyRequestPriority;
 
 import jakarta.annotation.Resource;
-import page.crates.spotify.client.SpotifyAuth;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class ArtistServiceImpl implements ArtistService {
-    @Resource
-    private Spotify spotify;
-    @Resource
-    private SpotifyAuth spotifyAuth;
     @Resource
     private ArtistRepository artistRepository;
     @Resource
-    private SpotifyArtistMapper spotifyArtistMapper;
-    @Resource
-    private GenreService genreService;
-    @Resource
-    private ImageService imageService;
+    private CatalogWriter catalogWriter;
 
     @Override
     public Artist findOrCreate(Artist artist) {
@@ -35,25 +30,29 @@ public class ArtistServiceImpl implements ArtistService {
         if (null != existing) {
             return existing;
         }
-        final String token = spotifyAuth.getServiceToken().getAccessToken();
-        final Context context = Context.forToken(token);
-        final page.crates.spotify.client.api.Artist spotifyArtist = spotify.getArtist(context, artist.getSpotifyId());
-        if (null == spotifyArtist) {
+        final Artist created = findOrCreateAll(List.of(artist)).get(artist.getSpotifyId());
+        if (null == created) {
             throw new SpotifyArtistNotFoundException(artist.getSpotifyId());
         }
-        final Artist mapped = spotifyArtistMapper.map(spotifyArtist);
-        if (CollectionUtils.isNotEmpty(mapped.getGenres())) {
-            mapped.setGenres(
-                    mapped.getGenres().stream()
-                          .map(genreService::findOrCreate)
-                          .collect(Collectors.toSet()));
+        return created;
+    }
+
+    @Override
+    public Map<String, Artist> findOrCreateAll(Collection<Artist> artists) {
+        final Map<String, Artist> found = new HashMap<>();
+        if (CollectionUtils.isEmpty(artists)) {
+            return found;
         }
-        if (CollectionUtils.isNotEmpty(mapped.getImages())) {
-            mapped.setImages(
-                    mapped.getImages().stream()
-                          .map(imageService::save)
-                          .collect(Collectors.toSet()));
+        final Set<String> spotifyIds = artists.stream()
+                .map(Artist::getSpotifyId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        artistRepository.findBySpotifyIdIn(spotifyIds).forEach(artist -> found.put(artist.getSpotifyId(), artist));
+        final List<String> missing = spotifyIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (missing.isEmpty()) {
+            return found;
         }
-        return artistRepository.save(artist);
+        artistRepository.findAllById(catalogWriter.writeArtists(missing, SpotifyRequestPriority.INTERACTIVE).values())
+                .forEach(artist -> found.put(artist.getSpotifyId(), artist));
+        return found;
     }
 }
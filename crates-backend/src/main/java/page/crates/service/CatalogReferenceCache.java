@@ -0,0 +1,31 @@
+package page.crates.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * In-memory ids of catalog rows that ingestion looks up over and over: every genre, preloaded at
+ * startup, and the most recently used artists by Spotify id. Genres and artists are never updated
+ * in place and nothing deletes them, so an entry stays valid for as long as it is cached.
+ */
+public interface CatalogReferenceCache {
+    /**
+     * @return ids of the cached genres among {@code names}, keyed by name
+     */
+    Map<String, Long> getGenreIds(Collection<String> names);
+
+    /**
+     * Caches genre ids once the current transaction commits, or right away outside of one.
+     */
+    void putGenreIds(Map<String, Long> genreIds);
+
+    /**
+     * @return ids of the cached artists among {@code spotifyIds}, keyed by Spotify id
+     */
+    Map<String, Long> getArtistIds(Collection<String> spotifyIds);
+
+    /**
+     * Caches artist ids once the current transaction commits, or right away outside of one.
+     */
+    void putArtistIds(Map<String, Long> artistIds);
+}
@@ -0,0 +1,92 @@
+package page.crates.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import page.crates.repository.GenreRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class CatalogReferenceCacheImpl implements CatalogReferenceCache {
+    @Resource
+    private GenreRepository genreRepository;
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${crates.catalog.cache.genre.max-size:20000}")
+    private long genreMaxSize;
+    @Value("${crates.catalog.cache.artist.max-size:50000}")
+    private long artistMaxSize;
+
+    private Cache<String, Long> genres;
+    private Cache<String, Long> artists;
+
+    @PostConstruct
+    void start() {
+        genres = build("catalog.genre", genreMaxSize);
+        artists = build("catalog.artist", artistMaxSize);
+    }
+
+    private Cache<String, Long> build(final String name, final long maxSize) {
+        final Cache<String, Long> cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadGenres() {
+        genreRepository.findAll().forEach(genre -> genres.put(genre.getName(), genre.getId()));
+        log.info("preloaded {} genres", genres.size());
+    }
+
+    @Override
+    public Map<String, Long> getGenreIds(final Collection<String> names) {
+        return new HashMap<>(genres.getAllPresent(names));
+    }
+
+    @Override
+    public void putGenreIds(final Map<String, Long> genreIds) {
+        afterCommit(() -> genres.putAll(genreIds));
+    }
+
+    @Override
+    public Map<String, Long> getArtistIds(final Collection<String> spotifyIds) {
+        return new HashMap<>(artists.getAllPresent(spotifyIds));
+    }
+
+    @Override
+    public void putArtistIds(final Map<String, Long> artistIds) {
+        afterCommit(() -> artists.putAll(artistIds));
+    }
+
+    // ids of rows inserted in a transaction that then rolls back must never reach the cache
+    private static void afterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package page.crates.service;
+
+import page.crates.entity.Album;
+import page.crates.spotify.client.SpotifyRequestPriority;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Writes albums and the catalog graph under them (artists, genres, images and their join rows) in a
+ * fixed handful of set-based statements per batch. Writes are idempotent and safe to run
+ * concurrently for overlapping albums: whoever inserts a row first wins and everyone gets its id.
+ */
+public interface CatalogWriter {
+    /**
+     * Inserts the albums that aren't stored yet together with their images, genres and artists;
+     * artists that aren't stored yet are fetched from Spotify first, outside the write transaction.
+     * An artist Spotify doesn't return is logged and left unlinked. Albums that already exist are
+     * left as they are.
+     *
+     * @param priority gateway priority for the artist lookups
+     * @return album ids keyed by Spotify id
+     */
+    Map<String, Long> writeAlbums(Collection<Album> albums, SpotifyRequestPriority priority);
+
+    /**
+     * Inserts the artists that aren't stored yet, fetching them from Spotify.
+     *
+     * @param priority gateway priority for the artist lookups
+     * @return artist ids keyed by Spotify id, without the artists Spotify doesn't return
+     */
+    Map<String, Long> writeArtists(Collection<String> spotifyArtistIds, SpotifyRequestPriority priority);
+}
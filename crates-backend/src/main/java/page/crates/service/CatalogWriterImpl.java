@@ -0,0 +1,268 @@
+package page.crates.service;
+
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import page.crates.entity.Album;
+import page.crates.entity.Artist;
+import page.crates.entity.Genre;
+import page.crates.entity.Image;
+import page.crates.entity.enums.ImageSize;
+import page.crates.repository.AlbumRepository;
+import page.crates.repository.CatalogBatchRepository.Link;
+import page.crates.repository.CatalogBatchRepository.Upserted;
+import page.crates.repository.ImageRepository;
+import page.crates.service.mapper.SpotifyArtistMapper;
+import page.crates.spotify.client.SpotifyCatalogHydrator;
+import page.crates.spotify.client.SpotifyRequestPriority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Unknown artists are fetched from Spotify before the write transaction opens, so a long gateway
+ * wait never holds a connection or the unique-index locks of freshly inserted albums.
+ */
+@Service
+@Slf4j
+public class CatalogWriterImpl implements CatalogWriter {
+    @Resource
+    private AlbumRepository albumRepository;
+    @Resource
+    private ImageRepository imageRepository;
+    @Resource
+    private SpotifyCatalogHydrator spotifyCatalogHydrator;
+    @Resource
+    private SpotifyArtistMapper spotifyArtistMapper;
+    @Resource
+    private CatalogReferenceCache catalogReferenceCache;
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public Map<String, Long> writeAlbums(final Collection<Album> albums, final SpotifyRequestPriority priority) {
+        if (CollectionUtils.isEmpty(albums)) {
+            return new HashMap<>();
+        }
+        final Map<String, Album> unique = new LinkedHashMap<>();
+        albums.forEach(album -> unique.putIfAbsent(album.getSpotifyId(), album));
+        unique.values().forEach(CatalogWriterImpl::pickCovers);
+        final ResolvedArtists artists = resolveArtists(unique.values().stream()
+                .filter(album -> CollectionUtils.isNotEmpty(album.getArtists()))
+                .flatMap(album -> album.getArtists().stream())
+                .map(Artist::getSpotifyId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)), priority);
+        return transactionTemplate.execute(status -> {
+            final Map<String, Upserted> upserted = albumRepository.upsertAlbums(unique.values());
+            // only albums this call inserted get their graph written; existing ones already have it
+            final List<Album> created = unique.values().stream()
+                    .filter(album -> upserted.get(album.getSpotifyId()).created())
+                    .toList();
+            if (!created.isEmpty()) {
+                final Graph graph = new Graph();
+                final Map<String, Long> artistIds = writeArtists(artists, graph);
+                for (final Album album : created) {
+                    final long albumId = upserted.get(album.getSpotifyId()).id();
+                    if (CollectionUtils.isNotEmpty(album.getArtists())) {
+                        album.getArtists().stream()
+                                .map(Artist::getSpotifyId)
+                                .distinct()
+                                .forEach(spotifyId -> {
+                                    final Long artistId = artistIds.get(spotifyId);
+                                    if (null == artistId) {
+                                        log.warn("not linking album {} to artist {} spotify didn't return",
+                                                album.getSpotifyId(), spotifyId);
+                                    } else {
+                                        graph.albumArtists.add(albumId, artistId);
+                                    }
+                                });
+                    }
+                    graph.add(albumId, album.getImages(), album.getGenres(), graph.albumImages, graph.albumGenres);
+                }
+                write(graph);
+            }
+            final Map<String, Long> ids = new HashMap<>();
+            upserted.forEach((spotifyId, row) -> ids.put(spotifyId, row.id()));
+            return ids;
+        });
+    }
+
+    @Override
+    public Map<String, Long> writeArtists(final Collection<String> spotifyArtistIds,
+                                          final SpotifyRequestPriority priority) {
+        final ResolvedArtists artists = resolveArtists(new LinkedHashSet<>(spotifyArtistIds), priority);
+        return transactionTemplate.execute(status -> {
+            final Graph graph = new Graph();
+            final Map<String, Long> ids = writeArtists(artists, graph);
+            write(graph);
+            return ids;
+        });
+    }
+
+    /**
+     * Albums mapped from API input only carry their images; pick their covers the same way
+     * {@link page.crates.service.mapper.SpotifyAlbumMapper} does.
+     */
+    private static void pickCovers(final Album album) {
+        if (null == album.getImageSmallUrl()) {
+            album.setImageSmallUrl(ImageSize.SMALL.pick(album.getImages()));
+        }
+        if (null == album.getImageMediumUrl()) {
+            album.setImageMediumUrl(ImageSize.MEDIUM.pick(album.getImages()));
+        }
+        if (null == album.getImageLargeUrl()) {
+            album.setImageLargeUrl(ImageSize.LARGE.pick(album.getImages()));
+        }
+    }
+
+    /**
+     * Looks up the stored artists and fetches the unknown ones from Spotify. Artists Spotify
+     * doesn't return are left out.
+     */
+    private ResolvedArtists resolveArtists(final Set<String> spotifyIds, final SpotifyRequestPriority priority) {
+        if (spotifyIds.isEmpty()) {
+            return new ResolvedArtists(new HashMap<>(), List.of());
+        }
+        final Map<String, Long> ids = catalogReferenceCache.getArtistIds(spotifyIds);
+        final List<String> uncached = spotifyIds.stream().filter(id -> !ids.containsKey(id)).toList();
+        if (uncached.isEmpty()) {
+            return new ResolvedArtists(ids, List.of());
+        }
+        final Map<String, Long> stored = albumRepository.findArtistIds(uncached);
+        catalogReferenceCache.putArtistIds(stored);
+        ids.putAll(stored);
+        final List<String> missing = uncached.stream().filter(id -> !ids.containsKey(id)).toList();
+        if (missing.isEmpty()) {
+            return new ResolvedArtists(ids, List.of());
+        }
+        final Map<String, page.crates.spotify.client.api.Artist> fetched = spotifyCatalogHydrator.getArtists(missing, priority);
+        final List<Artist> artists = new ArrayList<>(missing.size());
+        for (final String spotifyId : missing) {
+            final page.crates.spotify.client.api.Artist spotifyArtist = fetched.get(spotifyId);
+            if (null == spotifyArtist) {
+                log.warn("spotify returned no artist {}", spotifyId);
+            } else {
+                artists.add(spotifyArtistMapper.map(spotifyArtist));
+            }
+        }
+        return new ResolvedArtists(ids, artists);
+    }
+
+    /**
+     * Inserts the fetched artists, queueing the images and genres of the ones inserted here onto
+     * {@code graph}.
+     *
+     * @return ids of all resolved artists keyed by Spotify id
+     */
+    private Map<String, Long> writeArtists(final ResolvedArtists artists, final Graph graph) {
+        final Map<String, Long> ids = new HashMap<>(artists.ids());
+        if (artists.fetched().isEmpty()) {
+            return ids;
+        }
+        final Map<String, Upserted> upserted = albumRepository.upsertArtists(artists.fetched());
+        final Map<String, Long> written = new HashMap<>();
+        for (final Artist artist : artists.fetched()) {
+            final Upserted row = upserted.get(artist.getSpotifyId());
+            written.put(artist.getSpotifyId(), row.id());
+            if (row.created()) {
+                graph.add(row.id(), artist.getImages(), artist.getGenres(), graph.artistImages, graph.artistGenres);
+            }
+        }
+        catalogReferenceCache.putArtistIds(written);
+        ids.putAll(written);
+        return ids;
+    }
+
+    /**
+     * At most one genre upsert, one image upsert and one insert per join table,
+     * however many albums and artists are in the batch.
+     */
+    private void write(final Graph graph) {
+        final Map<String, Long> genreIds = catalogReferenceCache.getGenreIds(graph.genres);
+        final Set<String> uncachedGenres = graph.genres.stream()
+                .filter(name -> !genreIds.containsKey(name))
+                .collect(Collectors.toSet());
+        if (!uncachedGenres.isEmpty()) {
+            final Map<String, Long> written = albumRepository.upsertGenres(uncachedGenres);
+            catalogReferenceCache.putGenreIds(written);
+            genreIds.putAll(written);
+        }
+        final Map<String, Long> imageIds = imageRepository.upsertImages(graph.images.values());
+        albumRepository.link(Link.ALBUM_TO_ARTIST, graph.albumArtists.left(), graph.albumArtists.right(Long::longValue));
+        albumRepository.link(Link.ALBUM_TO_IMAGE, graph.albumImages.left(), graph.albumImages.right(imageIds::get));
+        albumRepository.link(Link.ARTIST_TO_IMAGE, graph.artistImages.left(), graph.artistImages.right(imageIds::get));
+        albumRepository.link(Link.ALBUM_TO_GENRE, graph.albumGenres.left(), graph.albumGenres.right(genreIds::get));
+        albumRepository.link(Link.ARTIST_TO_GENRE, graph.artistGenres.left(), graph.artistGenres.right(genreIds::get));
+    }
+
+    /**
+     * @param ids     ids of the artists already stored, keyed by Spotify id
+     * @param fetched artists fetched from Spotify that still have to be inserted
+     */
+    private record ResolvedArtists(Map<String, Long> ids, List<Artist> fetched) {
+    }
+
+    /**
+     * The rows still to write for a batch. Images and genres don't have ids yet, so their join
+     * rows point at an image URL or a genre name until the upserts hand out ids.
+     */
+    private static class Graph {
+        private final Map<String, Image> images = new LinkedHashMap<>();
+        private final Set<String> genres = new LinkedHashSet<>();
+        private final Links<Long> albumArtists = new Links<>();
+        private final Links<String> albumImages = new Links<>();
+        private final Links<String> artistImages = new Links<>();
+        private final Links<String> albumGenres = new Links<>();
+        private final Links<String> artistGenres = new Links<>();
+
+        private void add(final long ownerId,
+                         final Set<Image> ownerImages,
+                         final Set<Genre> ownerGenres,
+                         final Links<String> imageLinks,
+                         final Links<String> genreLinks) {
+            if (CollectionUtils.isNotEmpty(ownerImages)) {
+                for (final Image image : ownerImages) {
+                    images.putIfAbsent(image.getUrl(), image);
+                    imageLinks.add(ownerId, image.getUrl());
+                }
+            }
+            if (CollectionUtils.isNotEmpty(ownerGenres)) {
+                ownerGenres.stream()
+                        .map(Genre::getName)
+                        .distinct()
+                        .forEach(name -> {
+                            genres.add(name);
+                            genreLinks.add(ownerId, name);
+                        });
+            }
+        }
+    }
+
+    private static class Links<T> {
+        private final List<Long> owners = new ArrayList<>();
+        private final List<T> targets = new ArrayList<>();
+
+        private void add(final long ownerId, final T target) {
+            owners.add(ownerId);
+            targets.add(target);
+        }
+
+        private long[] left() {
+            return owners.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        private long[] right(final ToLongFunction<T> id) {
+            return targets.stream().mapToLong(id).toArray();
+        }
+    }
+}
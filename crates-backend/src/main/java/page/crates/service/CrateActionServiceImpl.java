@@ -2,6 +2,7 @@ package page.crates.service;
 
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -11,12 +12,14 @@ import page.crates.entity.Album;
 import page.crates.entity.Artist;
 import page.crates.entity.Crate;
 import page.crates.entity.CrateAlbum;
-import page.crates.entity.Image;
 import page.crates.entity.SpotifyUser;
 import page.crates.repository.AlbumRepository;
+import page.crates.spotify.client.SpotifyAsync;
+import page.crates.util.CompletableFutures;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,6 +27,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CrateActionServiceImpl implements CrateActionService {
     
+    private static final int MATCH_SEARCH_CONCURRENCY = 4;
+    
     @Resource
     private LibraryService libraryService;
     @Resource
@@ -36,6 +41,8 @@ public class CrateActionServiceImpl implements CrateActionService {
     private CurrentUserService currentUserService;
     @Resource
     private AlbumRepository albumRepository;
+    @Resource
+    private SpotifyAsync spotifyAsync;
     
     @Override
     public List<SimpleLibraryAlbum> getUserLibrary(int limit) {
@@ -150,10 +157,7 @@ public class CrateActionServiceImpl implements CrateActionService {
                 
         String year = formatReleaseYear(album.getReleaseDate());
         
-        String imageUrl = album.getImages().stream()
-                .findFirst()
-                .map(Image::getUrl)
-                .orElse("");
+        String imageUrl = StringUtils.defaultString(album.getImageMediumUrl());
         
         return SpotifyAlbumResult.builder()
                 .spotifyId(album.getSpotifyId())
@@ -322,19 +326,57 @@ public class CrateActionServiceImpl implements CrateActionService {
     }
     
     private List<AlbumMatchResult> addAlbumsToCreatedCrate(String crateId, List<SimpleAlbumReference> albumRefs) {
-        return albumRefs.stream()
-                .map(albumRef -> matchAndAddAlbum(crateId, albumRef))
-                .collect(Collectors.toList());
+        // The Spotify searches are independent, so run them concurrently; albums are still added in order
+        List<AlbumSearch> searches = CompletableFutures.join(
+                spotifyAsync.mapAsync(albumRefs, MATCH_SEARCH_CONCURRENCY, this::searchForAlbum));
+        prefetchBestMatches(albumRefs, searches);
+        List<AlbumMatchResult> results = new ArrayList<>(albumRefs.size());
+        for (int i = 0; i < albumRefs.size(); i++) {
+            results.add(matchAndAddAlbum(crateId, albumRefs.get(i), searches.get(i)));
+        }
+        return results;
     }
     
-    private AlbumMatchResult matchAndAddAlbum(String crateId, SimpleAlbumReference albumRef) {
+    /**
+     * Creates every matched album that isn't stored yet with batched Spotify lookups, so adding
+     * them to the crate one by one doesn't fetch each album and artist separately.
+     */
+    private void prefetchBestMatches(List<SimpleAlbumReference> albumRefs, List<AlbumSearch> searches) {
+        List<String> spotifyIds = new ArrayList<>();
+        for (int i = 0; i < albumRefs.size(); i++) {
+            AlbumSearch search = searches.get(i);
+            if (search.error() == null && !search.results().isEmpty()) {
+                Album bestMatch = findBestAlbumMatch(albumRefs.get(i), search.results().getContent());
+                if (bestMatch != null) {
+                    spotifyIds.add(bestMatch.getSpotifyId());
+                }
+            }
+        }
+        try {
+            albumService.findOrCreateAllBySpotifyIds(spotifyIds);
+        } catch (Exception e) {
+            // not fatal, each album is still looked up as it is added
+            log.warn("Error prefetching {} matched albums", spotifyIds.size(), e);
+        }
+    }
+    
+    private AlbumSearch searchForAlbum(SimpleAlbumReference albumRef) {
         try {
             // Create search query combining artist and album
             String searchQuery = albumRef.getArtist() + " " + albumRef.getTitle();
             log.debug("Searching for album: '{}'", searchQuery);
-            
-            // Search for albums
-            Page<Album> searchResults = albumService.search(searchQuery, SearchType.GLOBAL, PageRequest.of(0, 5));
+            return new AlbumSearch(albumService.search(searchQuery, SearchType.GLOBAL, PageRequest.of(0, 5)), null);
+        } catch (Exception e) {
+            return new AlbumSearch(null, e);
+        }
+    }
+    
+    private AlbumMatchResult matchAndAddAlbum(String crateId, SimpleAlbumReference albumRef, AlbumSearch search) {
+        try {
+            if (search.error() != null) {
+                throw search.error();
+            }
+            Page<Album> searchResults = search.results();
             
             if (searchResults.isEmpty()) {
                 return AlbumMatchResult.builder()
@@ -452,4 +494,7 @@ public class CrateActionServiceImpl implements CrateActionService {
             return null;
         }
     }
-}
\ No newline at end of file
+    
+    private record AlbumSearch(Page<Album> results, Exception error) {
+    }
+}
@@ -3,20 +3,16 @@ package page.crates.service;
 
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 import page.crates.controller.api.Crate;
 import page.crates.entity.CrateAlbum;
-import page.crates.entity.Image;
 import page.crates.entity.SpotifyUser;
 import page.crates.repository.CrateAlbumRepository;
 import page.crates.repository.CrateRepository;
 
-import java.util.Comparator;
-
 @Component
 @Slf4j
 public class CrateDecoratorImpl implements CrateDecorator {
@@ -39,13 +35,7 @@ public class CrateDecoratorImpl implements CrateDecorator {
         final Page<CrateAlbum> albumPage = crateAlbumRepository.findActiveByCrateId(
                 crate.getId(), PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "createdAt")));
         if (null != albumPage && !albumPage.isEmpty()) {
-            crate.setImageUri(CollectionUtils.emptyIfNull(
-                            albumPage.getContent().get(0).getAlbum().getImages())
-                    .stream()
-                    .sorted(Comparator.comparing(Image::getWidth).reversed())
-                    .map(Image::getUrl)
-                    .findFirst()
-                    .orElse(null));
+            crate.setImageUri(albumPage.getContent().get(0).getAlbum().getImageLargeUrl());
         }
         
         // Set collector count (follower count)
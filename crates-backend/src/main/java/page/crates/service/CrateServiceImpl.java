@@ -16,10 +16,12 @@ import page.crates.entity.enums.CrateState;
 import page.crates.exception.CrateNotFoundException;
 import page.crates.repository.CrateAlbumRepository;
 import page.crates.repository.CrateRepository;
+import page.crates.spotify.client.SpotifyRequestPriority;
 import page.crates.util.SystemTimeFacade;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -81,8 +83,10 @@ public class CrateServiceImpl implements CrateService {
                 .orElseThrow(() -> new CrateNotFoundException(crateId));
         accessService.assertAccess(crate);
         
+        final Map<String, Album> albums = albumService.findOrCreateAll(
+                albumList.albums().stream().map(albumMapper::map).toList(), SpotifyRequestPriority.INTERACTIVE);
         List<Long> addedAlbumIds = albumList.albums().stream().map(incomingAlbum -> {
-            final Album album = albumService.findOrCreate(albumMapper.map(incomingAlbum));
+            final Album album = albums.get(incomingAlbum.getSpotifyId());
             final CrateAlbum crateAlbum = crateAlbumRepository.save(
                     CrateAlbum.builder()
                             .album(album)
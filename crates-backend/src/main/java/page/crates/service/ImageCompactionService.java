@@ -0,0 +1,11 @@
+package page.crates.service;
+
+public interface ImageCompactionService {
+    /**
+     * Merges images stored more than once under the same URL, a batch of URLs per statement, then
+     * puts the unique index on image URLs in place.
+     *
+     * @return number of duplicate images removed, 0 if another instance is compacting
+     */
+    int compact();
+}
@@ -0,0 +1,102 @@
+package page.crates.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import page.crates.repository.ImageRepository;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One-off cleanup of the duplicate images stored before images were shared by URL. Runs in the
+ * background after startup until the unique index on image URLs exists, after which it is a no-op.
+ * Only one instance compacts at a time; the others skip it and check again on their next startup.
+ */
+@Service
+@Slf4j
+public class ImageCompactionServiceImpl implements ImageCompactionService {
+    // a duplicate stored while the index builds fails the build; compact again and retry this often
+    private static final int INDEX_ATTEMPTS = 3;
+
+    @Resource
+    private ImageRepository imageRepository;
+
+    @Value("${crates.image.compaction.enabled:true}")
+    private boolean enabled;
+    @Value("${crates.image.compaction.batch-size:500}")
+    private int batchSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("image-compaction-%d")
+                    .setDaemon(true)
+                    .build());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void compactOnStartup() {
+        if (!enabled || imageRepository.hasUniqueUrlIndex()) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                compact();
+            } catch (RuntimeException e) {
+                log.warn("image compaction stopped, it resumes on the next startup", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public int compact() {
+        final int[] removed = new int[1];
+        if (!imageRepository.withCompactionLock(() -> removed[0] = compactAndIndex())) {
+            log.info("image compaction is running on another instance, skipping it");
+        }
+        return removed[0];
+    }
+
+    private int compactAndIndex() {
+        int removed = 0;
+        for (int attempt = 1; !imageRepository.hasUniqueUrlIndex(); attempt++) {
+            if (attempt > INDEX_ATTEMPTS) {
+                throw new IllegalStateException(
+                        "unique image url index still missing after " + INDEX_ATTEMPTS + " attempts");
+            }
+            removed += mergeAll();
+            try {
+                imageRepository.createUniqueUrlIndex();
+            } catch (DataAccessException e) {
+                if (attempt >= INDEX_ATTEMPTS) {
+                    throw e;
+                }
+                log.info("duplicate image stored while building the unique url index, compacting again");
+            }
+        }
+        log.info("image compaction finished, {} duplicate images removed", removed);
+        return removed;
+    }
+
+    private int mergeAll() {
+        int removed = 0;
+        List<String> urls = imageRepository.findDuplicatedUrls(batchSize);
+        while (!urls.isEmpty() && !Thread.currentThread().isInterrupted()) {
+            removed += imageRepository.mergeDuplicates(urls);
+            log.info("merged duplicates of {} image urls, {} duplicate images removed so far", urls.size(), removed);
+            urls = imageRepository.findDuplicatedUrls(batchSize);
+        }
+        return removed;
+    }
+}
@@ -2,6 +2,12 @@ package page.crates.service;
 
 import page.crates.entity.Image;
 
+import java.util.Collection;
+import java.util.Set;
+
 public interface ImageService {
-    Image save(Image image);
+    /**
+     * Resolves the images to the stored ones with the same URL, storing the URLs not seen before.
+     */
+    Set<Image> findOrCreateAll(Collection<Image> images);
 }
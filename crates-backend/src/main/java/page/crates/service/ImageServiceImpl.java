@@ -1,17 +1,26 @@
 package page.crates.service;
 
+import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.stereotype.Service;
 import page.crates.entity.Image;
 import page.crates.repository.ImageRepository;
 
 import jakarta.annotation.Resource;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 @Service
 public class ImageServiceImpl implements ImageService {
     @Resource
     private ImageRepository imageRepository;
+
     @Override
-    public Image save(Image image) {
-        return imageRepository.save(image);
+    public Set<Image> findOrCreateAll(Collection<Image> images) {
+        if (CollectionUtils.isEmpty(images)) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(imageRepository.findAllById(imageRepository.upsertImages(images).values()));
     }
 }
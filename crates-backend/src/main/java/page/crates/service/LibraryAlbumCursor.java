@@ -0,0 +1,43 @@
+package page.crates.service;
+
+import page.crates.entity.LibraryAlbum;
+import page.crates.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in a library scroll: the (added_at, id) of the last album on the previous page.
+ * Encoded as an opaque URL-safe string for clients.
+ */
+public record LibraryAlbumCursor(Instant addedAt, long id) {
+    private static final char SEPARATOR = '|';
+
+    public static LibraryAlbumCursor after(LibraryAlbum libraryAlbum) {
+        return new LibraryAlbumCursor(libraryAlbum.getAddedAt(), libraryAlbum.getId());
+    }
+
+    /**
+     * @return the decoded cursor, or null for a blank one (the first page).
+     */
+    public static LibraryAlbumCursor decode(String cursor) {
+        if (null == cursor || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            final String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separator = decoded.indexOf(SEPARATOR);
+            return new LibraryAlbumCursor(
+                    Instant.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((addedAt.toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,11 @@
+package page.crates.service;
+
+import page.crates.entity.LibraryAlbum;
+
+import java.util.List;
+
+/**
+ * One page of a library scroll; next is null on the last page.
+ */
+public record LibraryAlbumScroll(List<LibraryAlbum> albums, LibraryAlbumCursor next) {
+}
@@ -5,14 +5,48 @@ import org.springframework.data.domain.Pageable;
 import page.crates.entity.Album;
 import page.crates.entity.LibraryAlbum;
 import page.crates.entity.SpotifyUser;
+import page.crates.repository.LibraryAlbumBatchRepository;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 public interface LibraryAlbumService {
+    long countActive(SpotifyUser spotifyUser);
+
     LibraryAlbum create(Album album, SpotifyUser spotifyUser, Instant addedAt);
 
     LibraryAlbum findByAlbumAndUser(Album album, SpotifyUser spotifyUser);
 
+    List<LibraryAlbum> findByUserAndAlbumIds(SpotifyUser spotifyUser, Collection<Long> albumIds);
+
+    /**
+     * Batch-creates active library albums, keyed by album id; existing rows are left alone.
+     *
+     * @return number of library albums created
+     */
+    int createAll(SpotifyUser spotifyUser, Map<Long, Instant> addedAtByAlbumId);
+
+    /**
+     * Batch-updates added_at and re-activates existing library albums.
+     */
+    void activateAll(Collection<LibraryAlbumBatchRepository.AddedAt> updates);
+
+    /**
+     * Archives the given library albums in a single update.
+     *
+     * @return number of library albums archived
+     */
+    int archiveAll(long[] libraryAlbumIds);
+
+    /**
+     * Archives every active library album of the user whose album id isn't in {@code albumIds}.
+     *
+     * @return number of library albums archived
+     */
+    int archiveAllExcept(SpotifyUser spotifyUser, long[] albumIds);
+
     Page<LibraryAlbum> findByUser(SpotifyUser spotifyUser, Pageable pageable);
 
     void markCrated(Album album, SpotifyUser spotifyUser);
@@ -9,10 +9,14 @@ import page.crates.entity.Album;
 import page.crates.entity.LibraryAlbum;
 import page.crates.entity.SpotifyUser;
 import page.crates.entity.enums.State;
+import page.crates.repository.LibraryAlbumBatchRepository;
 import page.crates.repository.LibraryAlbumRepository;
 import page.crates.util.SystemTimeFacade;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -22,6 +26,11 @@ public class LibraryAlbumServiceImpl implements LibraryAlbumService {
     @Resource
     private SystemTimeFacade systemTimeFacade;
 
+    @Override
+    public long countActive(SpotifyUser spotifyUser) {
+        return libraryAlbumRepository.countBySpotifyUserAndState(spotifyUser, State.ACTIVE);
+    }
+
     @Override
     public LibraryAlbum create(Album album, SpotifyUser spotifyUser, Instant addedAt) {
         final LibraryAlbum libraryAlbum = libraryAlbumRepository.save(
@@ -42,6 +51,44 @@ public class LibraryAlbumServiceImpl implements LibraryAlbumService {
                 .orElse(null);
     }
 
+    @Override
+    public List<LibraryAlbum> findByUserAndAlbumIds(SpotifyUser spotifyUser, Collection<Long> albumIds) {
+        if (albumIds.isEmpty()) {
+            return List.of();
+        }
+        return libraryAlbumRepository.findBySpotifyUserAndAlbumIds(spotifyUser, albumIds);
+    }
+
+    @Override
+    public int createAll(SpotifyUser spotifyUser, Map<Long, Instant> addedAtByAlbumId) {
+        final int created = libraryAlbumRepository.insertActive(
+                spotifyUser.getId(), addedAtByAlbumId, systemTimeFacade.now());
+        if (created > 0) {
+            log.info("created {} library albums for user {}", created, spotifyUser.getSpotifyId());
+        }
+        return created;
+    }
+
+    @Override
+    public void activateAll(Collection<LibraryAlbumBatchRepository.AddedAt> updates) {
+        libraryAlbumRepository.activate(updates);
+    }
+
+    @Override
+    public int archiveAll(long[] libraryAlbumIds) {
+        return libraryAlbumRepository.archive(libraryAlbumIds, systemTimeFacade.now());
+    }
+
+    @Override
+    public int archiveAllExcept(SpotifyUser spotifyUser, long[] albumIds) {
+        final int archived = libraryAlbumRepository.archiveActiveExcept(
+                spotifyUser.getId(), albumIds, systemTimeFacade.now());
+        if (archived > 0) {
+            log.info("archived {} library albums no longer saved by user {}", archived, spotifyUser.getSpotifyId());
+        }
+        return archived;
+    }
+
     @Override
     public Page<LibraryAlbum> findByUser(SpotifyUser spotifyUser, Pageable pageable) {
         return libraryAlbumRepository.findActiveBySpotifyUser(spotifyUser, pageable);
@@ -0,0 +1,13 @@
+package page.crates.service;
+
+/**
+ * Outcome of reconciling one page of saved albums.
+ *
+ * @param created  library albums inserted
+ * @param updated  library albums whose added_at or state changed
+ * @param albumIds ids of every album on the page
+ */
+public record LibraryPageSyncResult(int created,
+                                    int updated,
+                                    long[] albumIds) {
+}
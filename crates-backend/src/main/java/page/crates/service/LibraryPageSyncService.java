@@ -4,12 +4,12 @@ import org.springframework.data.domain.Page;
 import page.crates.entity.Library;
 import page.crates.entity.SpotifyUser;
 import page.crates.spotify.client.Context;
-import page.crates.spotify.client.api.LibraryAlbum;
+import page.crates.spotify.client.api.SavedAlbum;
 
 public interface LibraryPageSyncService {
-    boolean processPage(Page<LibraryAlbum> albumPage, SpotifyUser user, Library library);
+    LibraryPageSyncResult processPage(Page<SavedAlbum> albumPage, SpotifyUser user, Library library);
 
-    void processRemovals(Page<page.crates.entity.LibraryAlbum> libraryAlbumPage,
+    int processRemovals(Page<page.crates.entity.LibraryAlbum> libraryAlbumPage,
                          SpotifyUser user,
                          Context context);
 }
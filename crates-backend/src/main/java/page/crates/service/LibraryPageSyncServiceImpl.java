@@ -6,19 +6,30 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import page.crates.entity.Album;
 import page.crates.entity.Library;
 import page.crates.entity.SpotifyUser;
 import page.crates.entity.enums.LibraryState;
 import page.crates.entity.enums.State;
+import page.crates.repository.LibraryAlbumBatchRepository;
 import page.crates.repository.LibraryRepository;
 import page.crates.service.mapper.SpotifyAlbumMapper;
 import page.crates.spotify.client.Context;
 import page.crates.spotify.client.Spotify;
-import page.crates.spotify.client.api.LibraryAlbum;
+import page.crates.spotify.client.SpotifyRequestPriority;
+import page.crates.spotify.client.api.SavedAlbum;
 import page.crates.util.SystemTimeFacade;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @Slf4j
@@ -35,39 +46,77 @@ public class LibraryPageSyncServiceImpl implements LibraryPageSyncService {
     private SystemTimeFacade systemTimeFacade;
     @Resource
     private LibraryRepository libraryRepository;
+    @Resource
+    private TransactionTemplate transactionTemplate;
 
+    /**
+     * Reconciles a whole page of saved albums at once: one lookup for known albums, one for the
+     * user's existing library rows, then a batched insert for new rows and a batched update for
+     * rows whose added_at changed or that were previously archived. Unknown albums are written to
+     * the catalog before the reconciliation transaction opens, since writing them may wait on
+     * background Spotify lookups.
+     */
     @Override
-    @Transactional
-    public boolean processPage(final Page<LibraryAlbum> albumPage,
-                            final SpotifyUser user,
-                            final Library library) {
-        boolean albumAdded = false;
+    public LibraryPageSyncResult processPage(final Page<SavedAlbum> albumPage,
+                                             final SpotifyUser user,
+                                             final Library library) {
         log.info("processing album page {} of {} for user {}",
                 albumPage.getNumber() + 1, albumPage.getTotalPages(), user.getSpotifyId());
-        for (LibraryAlbum spotifyLibraryAlbum : albumPage) {
-            final Album album = spotifyAlbumMapper.map(spotifyLibraryAlbum.album());
-            final Album persistedAlbum = albumService.findOrCreate(album);
-            final page.crates.entity.LibraryAlbum libraryAlbum = libraryAlbumService.findByAlbumAndUser(
-                    persistedAlbum, user);
-            if (null != libraryAlbum) {
-                libraryAlbum.setAddedAt(spotifyLibraryAlbum.addedAt());
-                libraryAlbumService.save(libraryAlbum);
-            } else {
-                libraryAlbumService.create(persistedAlbum, user, spotifyLibraryAlbum.addedAt());
-                albumAdded = true;
+        final Map<String, SavedAlbum> spotifyAlbums = new LinkedHashMap<>();
+        albumPage.forEach(savedAlbum -> spotifyAlbums.putIfAbsent(savedAlbum.id(), savedAlbum));
+
+        final Map<String, Album> albums = albumService.findAllBySpotifyIds(spotifyAlbums.keySet()).stream()
+                .collect(Collectors.toMap(Album::getSpotifyId, Function.identity()));
+        final List<Album> unknown = spotifyAlbums.entrySet().stream()
+                .filter(entry -> !albums.containsKey(entry.getKey()))
+                .map(entry -> spotifyAlbumMapper.map(entry.getValue()))
+                .toList();
+        albums.putAll(albumService.findOrCreateAll(unknown, SpotifyRequestPriority.BACKGROUND));
+        return transactionTemplate.execute(status -> reconcile(albumPage, spotifyAlbums, albums, user, library));
+    }
+
+    private LibraryPageSyncResult reconcile(final Page<SavedAlbum> albumPage,
+                                            final Map<String, SavedAlbum> spotifyAlbums,
+                                            final Map<String, Album> albums,
+                                            final SpotifyUser user,
+                                            final Library library) {
+        final Map<Long, page.crates.entity.LibraryAlbum> existing = libraryAlbumService.findByUserAndAlbumIds(
+                        user, albums.values().stream().map(Album::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(libraryAlbum -> libraryAlbum.getAlbum().getId(), Function.identity()));
+
+        final Map<Long, Instant> created = new LinkedHashMap<>();
+        final List<LibraryAlbumBatchRepository.AddedAt> updated = new ArrayList<>();
+        spotifyAlbums.forEach((spotifyId, savedAlbum) -> {
+            final Album album = albums.get(spotifyId);
+            final page.crates.entity.LibraryAlbum libraryAlbum = existing.get(album.getId());
+            if (null == libraryAlbum) {
+                created.put(album.getId(), savedAlbum.addedAt());
+            } else if (State.ACTIVE != libraryAlbum.getState()
+                       || !Objects.equals(libraryAlbum.getAddedAt(), savedAlbum.addedAt())) {
+                updated.add(new LibraryAlbumBatchRepository.AddedAt(libraryAlbum.getId(), savedAlbum.addedAt()));
             }
-        }
+        });
+        final int createdCount = libraryAlbumService.createAll(user, created);
+        libraryAlbumService.activateAll(updated);
+        log.debug("album page {} for user {}: {} created, {} updated, {} unchanged",
+                albumPage.getNumber() + 1, user.getSpotifyId(), createdCount, updated.size(),
+                spotifyAlbums.size() - created.size() - updated.size());
+
         if (albumPage.isFirst()) {
             library.setState(LibraryState.IMPORTING_AFTER_FIRST_PAGE);
             library.setUpdatedAt(systemTimeFacade.now());
             libraryRepository.save(library);
         }
-        return albumAdded;
+        return new LibraryPageSyncResult(
+                createdCount,
+                updated.size(),
+                albums.values().stream().mapToLong(Album::getId).toArray());
     }
 
     @Override
     @Transactional
-    public void processRemovals(final Page<page.crates.entity.LibraryAlbum> libraryAlbumPage,
+    public int processRemovals(final Page<page.crates.entity.LibraryAlbum> libraryAlbumPage,
                                 final SpotifyUser user,
                                 final Context context) {
         log.info("checking existing library albums page {} of {} for user {}",
@@ -77,17 +126,17 @@ public class LibraryPageSyncServiceImpl implements LibraryPageSyncService {
                 .map(Album::getSpotifyId)
                 .toList();
         if (CollectionUtils.isEmpty(ids)) {
-            return;
+            return 0;
         }
         List<Boolean> results = spotify.libraryContainsAlbums(context, ids);
-        for (int i = 0; i < results.size(); i++) {
-            if (!results.get(i)) {
-                page.crates.entity.LibraryAlbum removedAlbum = libraryAlbumPage.getContent().get(i);
-                removedAlbum.setState(State.ARCHIVED);
-                removedAlbum.setArchivedAt(systemTimeFacade.now());
-                final page.crates.entity.LibraryAlbum removed = libraryAlbumService.save(removedAlbum);
-                log.info("removed album from library {}", removed);
-            }
+        final long[] removed = IntStream.range(0, results.size())
+                .filter(i -> !results.get(i))
+                .mapToLong(i -> libraryAlbumPage.getContent().get(i).getId())
+                .toArray();
+        if (removed.length > 0) {
+            libraryAlbumService.archiveAll(removed);
+            log.info("removed {} albums from library for user {}", removed.length, user.getSpotifyId());
         }
+        return removed.length;
     }
 }
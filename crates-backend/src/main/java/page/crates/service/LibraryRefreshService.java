@@ -0,0 +1,9 @@
+package page.crates.service;
+
+public interface LibraryRefreshService {
+    /**
+     * Starts background delta syncs for the least recently refreshed libraries, within the
+     * configured concurrency and Spotify request budget.
+     */
+    void refreshStaleLibraries();
+}
@@ -0,0 +1,139 @@
+package page.crates.service;
+
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import page.crates.entity.Library;
+import page.crates.entity.SpotifyUser;
+import page.crates.entity.enums.LibraryState;
+import page.crates.service.enums.LibrarySyncJobState;
+import page.crates.util.SystemTimeFacade;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps libraries fresh without waiting for the user to log in. Each tick picks a small batch of
+ * the stalest libraries so refreshes trickle out over the hour rather than all at once, and stops
+ * submitting once background syncs have spent the hourly Spotify request budget. Libraries whose
+ * refresh failed or can't run are deferred in the database, so they drop out of the stale query
+ * instead of filling every batch.
+ */
+@Service
+@Slf4j
+public class LibraryRefreshServiceImpl implements LibraryRefreshService {
+    private static final Set<LibraryState> REFRESHABLE_STATES =
+            EnumSet.of(LibraryState.IMPORTED, LibraryState.UPDATED, LibraryState.UPDATE_FAILED);
+    private static final Duration BUDGET_WINDOW = Duration.ofHours(1);
+
+    @Resource
+    private LibraryService libraryService;
+    @Resource
+    private LibrarySyncJobService librarySyncJobService;
+    @Resource
+    private LibrarySyncProgressService librarySyncProgressService;
+    @Resource
+    private SystemTimeFacade systemTimeFacade;
+
+    @Value("${crates.library.refresh.enabled:true}")
+    private boolean enabled;
+    @Value("${crates.library.refresh.max-age:6h}")
+    private Duration maxAge;
+    @Value("${crates.library.refresh.batch-size:10}")
+    private int batchSize;
+    @Value("${crates.library.refresh.hourly-request-budget:5000}")
+    private int hourlyRequestBudget;
+    @Value("${crates.library.refresh.failure-backoff:12h}")
+    private Duration failureBackoff;
+
+    // keyed by library id
+    private final Map<Long, LibrarySyncJob> submitted = new ConcurrentHashMap<>();
+    private Instant windowStart = Instant.EPOCH;
+    private int windowSpent;
+
+    @Scheduled(initialDelayString = "${crates.library.refresh.tick:PT5M}",
+               fixedDelayString = "${crates.library.refresh.tick:PT5M}")
+    @Override
+    public synchronized void refreshStaleLibraries() {
+        if (!enabled) {
+            return;
+        }
+        final Instant now = systemTimeFacade.now();
+        if (!now.isBefore(windowStart.plus(BUDGET_WINDOW))) {
+            windowStart = now;
+            windowSpent = 0;
+        }
+        final int inFlight = collectFinished(now);
+        if (windowSpent + inFlight >= hourlyRequestBudget) {
+            log.info("background library refresh budget spent ({} of {} Spotify calls this hour)",
+                    windowSpent + inFlight, hourlyRequestBudget);
+            return;
+        }
+
+        final int slots = Math.min(batchSize, librarySyncJobService.availableBackgroundSlots());
+        if (slots <= 0) {
+            return;
+        }
+        // over-fetch so skipped users don't leave the batch short
+        final List<Library> stale = libraryService.findStale(REFRESHABLE_STATES, now.minus(maxAge), now, slots * 2);
+        int started = 0;
+        for (final Library library : stale) {
+            if (started >= slots) {
+                break;
+            }
+            final SpotifyUser user = library.getSpotifyUser();
+            if (!isRefreshable(user)) {
+                libraryService.deferRefresh(library.getId(), now.plus(failureBackoff));
+                continue;
+            }
+            final LibrarySyncJob job = librarySyncJobService.submitBackground(user);
+            if (null != job) {
+                submitted.put(library.getId(), job);
+                started++;
+            }
+        }
+        if (started > 0) {
+            log.info("started {} background library refreshes", started);
+        }
+    }
+
+    private static boolean isRefreshable(final SpotifyUser user) {
+        return null != user.getToken() && StringUtils.isNotBlank(user.getToken().getRefreshToken());
+    }
+
+    /**
+     * Charges finished background syncs to the budget window and backs off users whose sync
+     * failed, typically because their refresh token has been revoked.
+     *
+     * @return Spotify calls made so far by background syncs still running.
+     */
+    private int collectFinished(final Instant now) {
+        int inFlight = 0;
+        final Iterator<Map.Entry<Long, LibrarySyncJob>> it = submitted.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<Long, LibrarySyncJob> entry = it.next();
+            final LibrarySyncJob job = entry.getValue();
+            final LibrarySyncProgressSnapshot progress = librarySyncProgressService.getProgress(job.getSpotifyUser());
+            final int calls = null == progress ? 0 : progress.spotifyCalls();
+            if (job.isActive()) {
+                inFlight += calls;
+                continue;
+            }
+            windowSpent += calls;
+            if (LibrarySyncJobState.FAILED == job.getState()) {
+                libraryService.deferRefresh(entry.getKey(), now.plus(failureBackoff));
+            }
+            it.remove();
+        }
+        return inFlight;
+    }
+}
@@ -0,0 +1,70 @@
+package page.crates.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import page.crates.entity.SpotifyUser;
+import page.crates.service.enums.LibrarySyncJobState;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Saving a set of albums (a crate, or every crate in a user's collection) into the user's Spotify library.
+ */
+@Getter
+public class LibrarySaveJob {
+    private final UUID id;
+    private final SpotifyUser spotifyUser;
+    private final Long crateId;
+    private final Instant queuedAt;
+    private volatile LibrarySyncJobState state;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile int totalAlbums;
+    private volatile int alreadySavedAlbums;
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger savedAlbums = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger failedAlbums = new AtomicInteger();
+
+    public LibrarySaveJob(final SpotifyUser spotifyUser, final Long crateId, final Instant queuedAt) {
+        this.id = UUID.randomUUID();
+        this.spotifyUser = spotifyUser;
+        this.crateId = crateId;
+        this.queuedAt = queuedAt;
+        this.state = LibrarySyncJobState.QUEUED;
+    }
+
+    public int getSavedAlbums() {
+        return savedAlbums.get();
+    }
+
+    public int getFailedAlbums() {
+        return failedAlbums.get();
+    }
+
+    public boolean isActive() {
+        return LibrarySyncJobState.QUEUED == state || LibrarySyncJobState.RUNNING == state;
+    }
+
+    void start(final Instant now, final int total, final int alreadySaved) {
+        this.startedAt = now;
+        this.totalAlbums = total;
+        this.alreadySavedAlbums = alreadySaved;
+        this.state = LibrarySyncJobState.RUNNING;
+    }
+
+    void chunkSaved(final int albums) {
+        savedAlbums.addAndGet(albums);
+    }
+
+    void chunkFailed(final int albums) {
+        failedAlbums.addAndGet(albums);
+    }
+
+    void finish(final LibrarySyncJobState finalState, final Instant now) {
+        this.finishedAt = now;
+        this.state = finalState;
+    }
+}
@@ -0,0 +1,20 @@
+package page.crates.service;
+
+import java.util.UUID;
+
+public interface LibrarySaveService {
+    /**
+     * Starts saving every album of the crate into the current user's Spotify library.
+     */
+    LibrarySaveJob saveCrate(Long crateId);
+
+    /**
+     * Starts saving every album of every crate in the current user's collection into their Spotify library.
+     */
+    LibrarySaveJob saveCollection();
+
+    /**
+     * @return the current user's save job with the given id.
+     */
+    LibrarySaveJob getJob(UUID id);
+}
@@ -0,0 +1,270 @@
+package page.crates.service;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import feign.FeignException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import page.crates.entity.Album;
+import page.crates.entity.LibraryAlbum;
+import page.crates.entity.SpotifyUser;
+import page.crates.entity.enums.State;
+import page.crates.exception.LibrarySaveJobNotFoundException;
+import page.crates.repository.CrateAlbumRepository;
+import page.crates.repository.LibraryAlbumBatchRepository;
+import page.crates.repository.UserCrateCollectionRepository;
+import page.crates.service.enums.LibrarySyncJobState;
+import page.crates.spotify.client.Context;
+import page.crates.spotify.client.Spotify;
+import page.crates.util.DelegatingUserContextCallable;
+import page.crates.util.DelegatingUserContextRunnable;
+import page.crates.util.SystemTimeFacade;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class LibrarySaveServiceImpl implements LibrarySaveService {
+    // Spotify accepts at most 20 ids per save-albums request
+    private static final int CHUNK_SIZE = 20;
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+
+    @Resource
+    private CrateService crateService;
+    @Resource
+    private CrateAlbumRepository crateAlbumRepository;
+    @Resource
+    private UserCrateCollectionRepository userCrateCollectionRepository;
+    @Resource
+    private LibraryAlbumService libraryAlbumService;
+    @Resource
+    private CurrentUserService currentUserService;
+    @Resource
+    private Spotify spotify;
+    @Resource
+    private SystemTimeFacade systemTimeFacade;
+
+    @Value("${crates.library.save.concurrency:2}")
+    private int concurrency;
+    @Value("${crates.library.save.chunk-concurrency:3}")
+    private int chunkConcurrency;
+    @Value("${crates.library.save.max-attempts:5}")
+    private int maxAttempts;
+
+    private final Map<UUID, LibrarySaveJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private ExecutorService chunkExecutor;
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newFixedThreadPool(
+                concurrency,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("library-save-%d")
+                        .setDaemon(true)
+                        .build());
+        chunkExecutor = Executors.newFixedThreadPool(
+                concurrency * chunkConcurrency,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("library-save-chunk-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+        chunkExecutor.shutdownNow();
+    }
+
+    @Override
+    public LibrarySaveJob saveCrate(final Long crateId) {
+        crateService.getCrate(crateId);
+        return submit(crateId, List.of(crateId));
+    }
+
+    @Override
+    public LibrarySaveJob saveCollection() {
+        final SpotifyUser user = currentUserService.getCurrentUser();
+        return submit(null, userCrateCollectionRepository.findCrateIdsByUser(user));
+    }
+
+    @Override
+    public LibrarySaveJob getJob(final UUID id) {
+        final LibrarySaveJob job = jobs.get(id);
+        if (null == job || !job.getSpotifyUser().getId().equals(currentUserService.getCurrentUser().getId())) {
+            throw new LibrarySaveJobNotFoundException(id);
+        }
+        return job;
+    }
+
+    private LibrarySaveJob submit(final Long crateId, final Collection<Long> crateIds) {
+        final SpotifyUser user = currentUserService.getCurrentUser();
+        final Instant now = systemTimeFacade.now();
+        evictFinished(now);
+
+        // resolve albums on the request thread, the job only needs ids
+        final Map<Long, String> spotifyIdByAlbumId = crateIds.isEmpty()
+                ? Map.of()
+                : crateAlbumRepository.findAlbumsByCrateIds(crateIds).stream()
+                        .collect(Collectors.toMap(Album::getId, Album::getSpotifyId, (a, b) -> a));
+        final Set<Long> alreadySaved = spotifyIdByAlbumId.isEmpty()
+                ? Set.of()
+                : libraryAlbumService.findByUserAndAlbumIds(user, spotifyIdByAlbumId.keySet()).stream()
+                        .filter(libraryAlbum -> State.ACTIVE == libraryAlbum.getState())
+                        .map(libraryAlbum -> libraryAlbum.getAlbum().getId())
+                        .collect(Collectors.toSet());
+        final Map<Long, String> toSave = new HashMap<>(spotifyIdByAlbumId);
+        toSave.keySet().removeAll(alreadySaved);
+
+        final LibrarySaveJob job = new LibrarySaveJob(user, crateId, now);
+        jobs.put(job.getId(), job);
+        executor.execute(new DelegatingUserContextRunnable(
+                () -> run(job, toSave, spotifyIdByAlbumId.size(), alreadySaved.size()), user));
+        log.info("queued save of {} albums to the Spotify library of user {} ({} already saved)",
+                toSave.size(), user.getSpotifyId(), alreadySaved.size());
+        return job;
+    }
+
+    private void run(final LibrarySaveJob job,
+                     final Map<Long, String> toSave,
+                     final int total,
+                     final int alreadySaved) {
+        job.start(systemTimeFacade.now(), total, alreadySaved);
+        final SpotifyUser user = job.getSpotifyUser();
+        final List<Long> saved = new ArrayList<>();
+        try {
+            saveChunks(job, toSave, saved);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("stopped saving albums to the Spotify library of user {} after a chunk failed: {}",
+                    user.getSpotifyId(), e.getCause().getMessage());
+        } catch (RuntimeException e) {
+            log.error("saving albums to the Spotify library of user {} failed", user.getSpotifyId(), e);
+        }
+        job.chunkFailed(toSave.size() - job.getSavedAlbums());
+        try {
+            reconcile(user, saved);
+        } catch (RuntimeException e) {
+            log.error("failed to mark {} saved albums in the library of user {}", saved.size(), user.getSpotifyId(), e);
+        }
+        job.finish(0 == job.getFailedAlbums() ? LibrarySyncJobState.COMPLETED : LibrarySyncJobState.FAILED,
+                systemTimeFacade.now());
+        log.info("saved {} albums to the Spotify library of user {} ({} failed)",
+                saved.size(), user.getSpotifyId(), job.getFailedAlbums());
+    }
+
+    /**
+     * Saves the albums in chunks, up to chunk-concurrency at a time, adding each accepted chunk to
+     * {@code saved}. Stops at the first chunk Spotify won't take and cancels the ones still in flight,
+     * rather than spending the request budget on a job that has already failed.
+     */
+    private void saveChunks(final LibrarySaveJob job,
+                            final Map<Long, String> toSave,
+                            final List<Long> saved) throws InterruptedException, ExecutionException {
+        final Deque<Future<List<Long>>> window = new ArrayDeque<>();
+        try {
+            for (final List<Long> chunk : Lists.partition(new ArrayList<>(toSave.keySet()), CHUNK_SIZE)) {
+                if (window.size() >= chunkConcurrency) {
+                    saved.addAll(window.removeFirst().get());
+                }
+                window.addLast(chunkExecutor.submit(new DelegatingUserContextCallable<>(
+                        () -> saveChunk(job, chunk, toSave), job.getSpotifyUser())));
+            }
+            while (!window.isEmpty()) {
+                saved.addAll(window.removeFirst().get());
+            }
+        } finally {
+            window.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Rate limiting and connection failures are retried by the gateway, so only server errors are
+     * retried here.
+     *
+     * @return the album ids of the chunk once Spotify accepted it.
+     * @throws FeignException if Spotify still rejects the chunk after max-attempts.
+     */
+    private List<Long> saveChunk(final LibrarySaveJob job,
+                                 final List<Long> albumIds,
+                                 final Map<Long, String> spotifyIdByAlbumId) throws InterruptedException {
+        final List<String> spotifyIds = albumIds.stream().map(spotifyIdByAlbumId::get).toList();
+        final SpotifyUser user = job.getSpotifyUser();
+        final Context context = Context.forUser(user.getId(), user.getToken().getAccessToken()).inBackground();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                spotify.addAlbumsToLibrary(context, spotifyIds);
+                job.chunkSaved(albumIds.size());
+                return albumIds;
+            } catch (FeignException e) {
+                if (!isRetryable(e) || attempt >= maxAttempts) {
+                    log.warn("giving up saving {} albums for user {} after {} attempts: {}",
+                            albumIds.size(), job.getSpotifyUser().getSpotifyId(), attempt, e.getMessage());
+                    throw e;
+                }
+                Thread.sleep(retryDelay(attempt).toMillis());
+            }
+        }
+    }
+
+    /**
+     * Marks the saved albums active in the local mirror, so the next delta sync sees them as
+     * already known instead of needing a full resync.
+     */
+    private void reconcile(final SpotifyUser user, final List<Long> savedAlbumIds) {
+        if (savedAlbumIds.isEmpty()) {
+            return;
+        }
+        final Instant now = systemTimeFacade.now();
+        final List<LibraryAlbumBatchRepository.AddedAt> reactivate = new ArrayList<>();
+        final Map<Long, Instant> create = new HashMap<>();
+        savedAlbumIds.forEach(albumId -> create.put(albumId, now));
+        for (final LibraryAlbum existing : libraryAlbumService.findByUserAndAlbumIds(user, savedAlbumIds)) {
+            create.remove(existing.getAlbum().getId());
+            if (State.ACTIVE != existing.getState()) {
+                reactivate.add(new LibraryAlbumBatchRepository.AddedAt(existing.getId(), now));
+            }
+        }
+        if (!reactivate.isEmpty()) {
+            libraryAlbumService.activateAll(reactivate);
+        }
+        if (!create.isEmpty()) {
+            libraryAlbumService.createAll(user, create);
+        }
+    }
+
+    private static boolean isRetryable(final FeignException e) {
+        return e.status() >= 500;
+    }
+
+    private static Duration retryDelay(final int attempt) {
+        return Duration.ofMillis(Math.min(500L << (attempt - 1), 10_000L));
+    }
+
+    private void evictFinished(final Instant now) {
+        jobs.values().removeIf(job -> null != job.getFinishedAt()
+                                      && job.getFinishedAt().isBefore(now.minus(JOB_RETENTION)));
+    }
+}
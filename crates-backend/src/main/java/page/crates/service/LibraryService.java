@@ -7,21 +7,62 @@ import page.crates.controller.api.LibraryAlbumFilter;
 import page.crates.entity.Library;
 import page.crates.entity.LibraryAlbum;
 import page.crates.entity.SpotifyUser;
-import page.crates.spotify.client.api.Album;
+import page.crates.entity.enums.LibraryState;
+import page.crates.entity.enums.LibrarySyncPhase;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface LibraryService {
     Library findOrCreateLibrary(SpotifyUser user);
 
-    Page<Album> getAlbums(Pageable pageable);
+    /**
+     * Pages through the user's active library albums from the local mirror, newest first.
+     *
+     * @param after cursor returned with the previous page, or null for the first page.
+     */
+    LibraryAlbumScroll scrollAlbums(SpotifyUser user, LibraryAlbumCursor after, int limit, LibraryAlbumFilter... filters);
 
     Library getLibrary(SpotifyUser user);
 
+    Optional<Library> findLibrary(SpotifyUser user);
+
     Page<LibraryAlbum> getLibraryAlbums(Pageable pageable);
 
     Library save(Library library);
 
+    /**
+     * Records sync progress on the library without touching its other columns, as long as the
+     * library is still at the sync generation the caller claimed.
+     *
+     * @throws page.crates.exception.LibrarySyncSupersededException if another sync has claimed the
+     *                                                               library since
+     */
+    void saveSyncCheckpoint(Library library, LibrarySyncPhase phase, Integer offset);
+
+    /**
+     * Bumps the library's sync generation if it still matches the one we read, so that only one
+     * sync at a time writes checkpoints for the library.
+     *
+     * @return true if this caller won the library.
+     */
+    boolean claimSync(Library library);
+
+    List<Library> findByStates(Collection<LibraryState> states);
+
+    /**
+     * @return up to limit libraries in the given states not updated since before and not deferred
+     * past now, least recently updated first.
+     */
+    List<Library> findStale(Collection<LibraryState> states, Instant before, Instant now, int limit);
+
+    /**
+     * Keeps the background refresher off the library until the given time.
+     */
+    void deferRefresh(Long libraryId, Instant until);
+
     Page<LibraryAlbum> searchLibraryAlbums(String search, Pageable pageable, LibraryAlbumFilter... filters);
     
     /**
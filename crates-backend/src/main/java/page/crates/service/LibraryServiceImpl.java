@@ -15,25 +15,24 @@ import page.crates.entity.Library;
 import page.crates.entity.LibraryAlbum;
 import page.crates.entity.SpotifyUser;
 import page.crates.entity.enums.LibraryState;
+import page.crates.entity.enums.LibrarySyncPhase;
 import page.crates.exception.LibraryNotFoundException;
+import page.crates.exception.LibrarySyncSupersededException;
 import page.crates.repository.LibraryAlbumRepository;
 import page.crates.repository.LibraryRepository;
-import page.crates.spotify.client.Context;
-import page.crates.spotify.client.Spotify;
-import page.crates.spotify.client.api.Album;
 import page.crates.util.SystemTimeFacade;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class LibraryServiceImpl implements LibraryService {
-    @Resource
-    private Spotify spotify;
     @Resource
     private CurrentUserService currentUserService;
     @Resource
@@ -57,18 +56,38 @@ public class LibraryServiceImpl implements LibraryService {
     }
 
     @Override
-    public Page<Album> getAlbums(Pageable pageable) {
-        final SpotifyUser user = currentUserService.getCurrentUser();
-        final Context context = Context.forToken(user.getToken().getAccessToken());
-        return spotify.getSavedAlbums(context, pageable);
+    public LibraryAlbumScroll scrollAlbums(SpotifyUser user, LibraryAlbumCursor after, int limit, LibraryAlbumFilter... filters) {
+        final boolean excludeCrated = isExcludeCrated(filters);
+        // one extra row tells us whether there is a next page without a count query
+        final Pageable pageable = PageRequest.of(0, limit + 1);
+        final List<LibraryAlbum> albums;
+        if (null == after) {
+            albums = excludeCrated
+                    ? libraryAlbumRepository.findFirstActiveUncratedBySpotifyUser(user, pageable)
+                    : libraryAlbumRepository.findFirstActiveBySpotifyUser(user, pageable);
+        } else {
+            albums = excludeCrated
+                    ? libraryAlbumRepository.findActiveUncratedBySpotifyUserBefore(user, after.addedAt(), after.id(), pageable)
+                    : libraryAlbumRepository.findActiveBySpotifyUserBefore(user, after.addedAt(), after.id(), pageable);
+        }
+        if (albums.size() <= limit) {
+            return new LibraryAlbumScroll(albums, null);
+        }
+        final List<LibraryAlbum> page = albums.subList(0, limit);
+        return new LibraryAlbumScroll(page, LibraryAlbumCursor.after(page.get(limit - 1)));
     }
 
     @Override
     public Library getLibrary(SpotifyUser user) {
-        return libraryRepository.findOneBySpotifyUserId(user.getId())
+        return findLibrary(user)
                 .orElseThrow(() -> new LibraryNotFoundException(user.getId()));
     }
 
+    @Override
+    public Optional<Library> findLibrary(SpotifyUser user) {
+        return libraryRepository.findOneBySpotifyUserId(user.getId());
+    }
+
     @Override
     public Page<LibraryAlbum> getLibraryAlbums(Pageable pageable) {
         final SpotifyUser user = currentUserService.getCurrentUser();
@@ -80,11 +99,43 @@ public class LibraryServiceImpl implements LibraryService {
         return libraryRepository.save(library);
     }
 
+    @Override
+    public void saveSyncCheckpoint(Library library, LibrarySyncPhase phase, Integer offset) {
+        if (libraryRepository.updateSyncCheckpoint(library.getId(), library.getSyncGeneration(), phase, offset) == 0) {
+            throw new LibrarySyncSupersededException(library.getId(), library.getSyncGeneration());
+        }
+        library.setSyncPhase(phase);
+        library.setSyncOffset(offset);
+    }
+
+    @Override
+    public boolean claimSync(Library library) {
+        if (libraryRepository.incrementSyncGeneration(library.getId(), library.getSyncGeneration()) == 0) {
+            return false;
+        }
+        library.setSyncGeneration(library.getSyncGeneration() + 1);
+        return true;
+    }
+
+    @Override
+    public List<Library> findByStates(Collection<LibraryState> states) {
+        return libraryRepository.findByStateIn(states);
+    }
+
+    @Override
+    public List<Library> findStale(Collection<LibraryState> states, Instant before, Instant now, int limit) {
+        return libraryRepository.findStale(states, before, now, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public void deferRefresh(Long libraryId, Instant until) {
+        libraryRepository.updateNextRefreshAt(libraryId, until);
+    }
+
     @Override
     public Page<LibraryAlbum> searchLibraryAlbums(String search, Pageable pageable, LibraryAlbumFilter... filters) {
         final SpotifyUser user = currentUserService.getCurrentUser();
-        if (ArrayUtils.isNotEmpty(filters) &&
-            Arrays.stream(filters).anyMatch(filter -> LibraryAlbumFilter.EXCLUDE_CRATED == filter)) {
+        if (isExcludeCrated(filters)) {
             if (StringUtils.isBlank(search)) {
                 return libraryAlbumRepository.findActiveUncratedBySpotifyUser(user.getId(), pageable);
             }
@@ -97,6 +148,11 @@ public class LibraryServiceImpl implements LibraryService {
         return libraryAlbumRepository.findActiveBySpotifyUser(user, pageable);
     }
     
+    private static boolean isExcludeCrated(LibraryAlbumFilter... filters) {
+        return ArrayUtils.isNotEmpty(filters) &&
+               Arrays.stream(filters).anyMatch(filter -> LibraryAlbumFilter.EXCLUDE_CRATED == filter);
+    }
+
     @Override
     public List<SimpleLibraryAlbum> getRecentLibraryAlbumsForAI(String userId, int limit) {
         // Get recent albums for the user
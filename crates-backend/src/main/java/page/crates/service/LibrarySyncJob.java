@@ -0,0 +1,65 @@
+package page.crates.service;
+
+import lombok.Getter;
+import org.apache.commons.lang3.ArrayUtils;
+import page.crates.entity.SpotifyUser;
+import page.crates.service.enums.LibrarySyncJobState;
+import page.crates.service.enums.LibrarySyncOption;
+
+import java.time.Instant;
+
+/**
+ * A queued or running library synchronization for a single user.
+ * Jobs are ordered so that first syncs run ahead of refreshes,
+ * and otherwise in the order they were submitted.
+ */
+@Getter
+public class LibrarySyncJob implements Comparable<LibrarySyncJob> {
+    private final long sequence;
+    private final SpotifyUser spotifyUser;
+    private final LibrarySyncOption[] options;
+    private final Instant queuedAt;
+    private final boolean background;
+    private volatile LibrarySyncJobState state;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    public LibrarySyncJob(final long sequence,
+                          final SpotifyUser spotifyUser,
+                          final LibrarySyncOption[] options,
+                          final Instant queuedAt,
+                          final boolean background) {
+        this.sequence = sequence;
+        this.spotifyUser = spotifyUser;
+        this.options = null == options ? new LibrarySyncOption[0] : options.clone();
+        this.queuedAt = queuedAt;
+        this.background = background;
+        this.state = LibrarySyncJobState.QUEUED;
+    }
+
+    public boolean isFirstSync() {
+        return ArrayUtils.contains(options, LibrarySyncOption.FIRST_SYNC);
+    }
+
+    public boolean isActive() {
+        return LibrarySyncJobState.QUEUED == state || LibrarySyncJobState.RUNNING == state;
+    }
+
+    void start(final Instant now) {
+        this.startedAt = now;
+        this.state = LibrarySyncJobState.RUNNING;
+    }
+
+    void finish(final LibrarySyncJobState finalState, final Instant now) {
+        this.finishedAt = now;
+        this.state = finalState;
+    }
+
+    @Override
+    public int compareTo(final LibrarySyncJob other) {
+        if (isFirstSync() != other.isFirstSync()) {
+            return isFirstSync() ? -1 : 1;
+        }
+        return Long.compare(sequence, other.sequence);
+    }
+}
@@ -0,0 +1,41 @@
+package page.crates.service;
+
+import page.crates.entity.Library;
+import page.crates.entity.SpotifyUser;
+import page.crates.service.enums.LibrarySyncOption;
+
+public interface LibrarySyncJobService {
+    /**
+     * Queue a library sync for the given user. If the user already has a
+     * queued or running sync, that job is returned instead of a new one.
+     *
+     * @throws page.crates.exception.LibrarySyncQueueFullException if the queue is at capacity
+     */
+    LibrarySyncJob submit(SpotifyUser user, LibrarySyncOption... options);
+
+    /**
+     * Start a background refresh for the given user on the background lane, which has its own
+     * concurrency cap so scheduled refreshes never hold up user-initiated syncs.
+     *
+     * @return the started job, or null if the user already has a sync in flight or the lane is full.
+     */
+    LibrarySyncJob submitBackground(SpotifyUser user);
+
+    /**
+     * Stale-while-revalidate for reads served from the local library mirror: if the library has not
+     * been refreshed within the configured staleness window, start a background delta sync.
+     *
+     * @return true if a sync is now in flight for the user.
+     */
+    boolean revalidate(SpotifyUser user, Library library);
+
+    /**
+     * @return number of background refreshes that can start right now.
+     */
+    int availableBackgroundSlots();
+
+    /**
+     * @return the user's current or most recent sync job, or null if none has run since startup.
+     */
+    LibrarySyncJob findJob(SpotifyUser user);
+}
@@ -0,0 +1,290 @@
+package page.crates.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import page.crates.entity.Library;
+import page.crates.entity.SpotifyUser;
+import page.crates.entity.enums.LibraryState;
+import page.crates.exception.LibrarySyncQueueFullException;
+import page.crates.service.enums.LibrarySyncJobState;
+import page.crates.service.enums.LibrarySyncOption;
+import page.crates.util.DelegatingUserContextRunnable;
+import page.crates.util.SystemTimeFacade;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class LibrarySyncJobServiceImpl implements LibrarySyncJobService {
+    private static final Set<LibraryState> STABLE_STATES =
+            EnumSet.of(LibraryState.IMPORTED, LibraryState.UPDATED, LibraryState.UPDATE_FAILED);
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+
+    @Resource
+    private LibrarySyncService librarySyncService;
+    @Resource
+    private SystemTimeFacade systemTimeFacade;
+    @Resource
+    private LibraryService libraryService;
+
+    @Value("${crates.library.sync.concurrency:4}")
+    private int concurrency;
+    @Value("${crates.library.sync.queue-capacity:100}")
+    private int queueCapacity;
+    @Value("${crates.library.sync.recover-on-startup:true}")
+    private boolean recoverOnStartup;
+    @Value("${crates.library.refresh.concurrency:2}")
+    private int backgroundConcurrency;
+    @Value("${crates.library.mirror.stale-after:15m}")
+    private Duration staleAfter;
+
+    private final Map<Long, LibrarySyncJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger backgroundRunning = new AtomicInteger();
+    private ThreadPoolExecutor executor;
+    private ExecutorService backgroundExecutor;
+
+    @PostConstruct
+    void start() {
+        executor = new ThreadPoolExecutor(
+                concurrency,
+                concurrency,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("library-sync-%d")
+                        .setDaemon(true)
+                        .build());
+        backgroundExecutor = Executors.newFixedThreadPool(
+                backgroundConcurrency,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("library-refresh-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+        backgroundExecutor.shutdownNow();
+    }
+
+    @Override
+    public LibrarySyncJob submit(final SpotifyUser user, final LibrarySyncOption... options) {
+        final Instant now = systemTimeFacade.now();
+        evictFinished(now);
+        final LibrarySyncJob created = new LibrarySyncJob(sequence.incrementAndGet(), user, options, now, false);
+        final LibrarySyncJob job = jobs.compute(user.getId(), (userId, existing) -> {
+            if (null != existing && existing.isActive()) {
+                return existing;
+            }
+            if (!reserve(queued, queueCapacity)) {
+                log.warn("library sync queue full, rejecting sync for user {}", user.getSpotifyId());
+                throw new LibrarySyncQueueFullException(queueCapacity);
+            }
+            return created;
+        });
+        if (job != created) {
+            log.info("library sync already {} for user {}, joining existing job", job.getState(), user.getSpotifyId());
+            return job;
+        }
+        try {
+            new DelegatingUserContextRunnable(() -> librarySyncService.markSyncInProgress(options), user).run();
+        } catch (RuntimeException e) {
+            jobs.remove(user.getId(), job);
+            queued.decrementAndGet();
+            throw e;
+        }
+        executor.execute(new QueuedSync(job));
+        log.info("queued library sync for user {} (first sync: {}, queued: {})",
+                user.getSpotifyId(), job.isFirstSync(), queued.get());
+        return job;
+    }
+
+    @Override
+    public LibrarySyncJob submitBackground(final SpotifyUser user) {
+        final Instant now = systemTimeFacade.now();
+        evictFinished(now);
+        final LibrarySyncJob created = new LibrarySyncJob(sequence.incrementAndGet(), user, null, now, true);
+        final LibrarySyncJob job = jobs.compute(user.getId(), (userId, existing) -> {
+            if (null != existing && existing.isActive()) {
+                return existing;
+            }
+            return reserve(backgroundRunning, backgroundConcurrency) ? created : existing;
+        });
+        if (job != created) {
+            return null;
+        }
+        try {
+            new DelegatingUserContextRunnable(() -> librarySyncService.markSyncInProgress(), user).run();
+        } catch (RuntimeException e) {
+            jobs.remove(user.getId(), job);
+            backgroundRunning.decrementAndGet();
+            throw e;
+        }
+        backgroundExecutor.execute(() -> run(job));
+        log.info("started background library refresh for user {}", user.getSpotifyId());
+        return job;
+    }
+
+    @Override
+    public boolean revalidate(final SpotifyUser user, final Library library) {
+        final LibrarySyncJob existing = jobs.get(user.getId());
+        if (null != existing && existing.isActive()) {
+            return true;
+        }
+        if (!STABLE_STATES.contains(library.getState())
+            || library.getUpdatedAt().isAfter(systemTimeFacade.now().minus(staleAfter))) {
+            return false;
+        }
+        return null != submitBackground(user);
+    }
+
+    @Override
+    public int availableBackgroundSlots() {
+        return backgroundConcurrency - backgroundRunning.get();
+    }
+
+    /**
+     * Libraries still marked as importing or updating at startup were interrupted by a restart;
+     * queue them again so they resume from their last checkpoint. Every instance runs this sweep,
+     * so each library is fenced on its sync generation first and only the winner resumes it. A
+     * library that is only in progress because another live instance is syncing it gets resumed
+     * too; the claim makes that sync's next checkpoint fail, so it stops and leaves the library
+     * to the resumed one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedSyncs() {
+        if (!recoverOnStartup) {
+            return;
+        }
+        final List<Library> interrupted = libraryService.findByStates(List.of(
+                LibraryState.IMPORTING, LibraryState.IMPORTING_AFTER_FIRST_PAGE, LibraryState.UPDATING));
+        log.info("found {} interrupted library syncs", interrupted.size());
+        int recovered = 0;
+        for (Library library : interrupted) {
+            if (queued.get() >= queueCapacity) {
+                log.warn("sync queue full, {} interrupted library syncs left for the next login or sync request",
+                        interrupted.size() - interrupted.indexOf(library));
+                break;
+            }
+            if (!libraryService.claimSync(library)) {
+                log.info("interrupted library sync for user {} was claimed by another instance",
+                        library.getSpotifyUser().getSpotifyId());
+                continue;
+            }
+            final boolean importing = LibraryState.UPDATING != library.getState();
+            try {
+                if (importing) {
+                    submit(library.getSpotifyUser(), LibrarySyncOption.FIRST_SYNC);
+                } else {
+                    submit(library.getSpotifyUser());
+                }
+                recovered++;
+            } catch (LibrarySyncQueueFullException e) {
+                log.warn("sync queue full, {} interrupted library syncs left for the next login or sync request",
+                        interrupted.size() - interrupted.indexOf(library));
+                break;
+            }
+        }
+        log.info("recovered {} interrupted library syncs", recovered);
+    }
+
+    @Override
+    public LibrarySyncJob findJob(final SpotifyUser user) {
+        return jobs.get(user.getId());
+    }
+
+    private void run(final LibrarySyncJob job) {
+        if (!job.isBackground()) {
+            queued.decrementAndGet();
+        }
+        job.start(systemTimeFacade.now());
+        try {
+            new DelegatingUserContextRunnable(() -> {
+                final Library library = librarySyncService.synchronize(job.getOptions());
+                job.finish(isFailed(library.getState()) ? LibrarySyncJobState.FAILED : LibrarySyncJobState.COMPLETED,
+                        systemTimeFacade.now());
+            }, job.getSpotifyUser()).run();
+        } catch (RuntimeException e) {
+            log.error("library sync job failed for user {} -- {}: {}",
+                    job.getSpotifyUser().getSpotifyId(), e.getClass().getName(), e.getMessage(), e);
+            job.finish(LibrarySyncJobState.FAILED, systemTimeFacade.now());
+        } finally {
+            if (job.isBackground()) {
+                backgroundRunning.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Takes one of {@code limit} slots counted by {@code slots}, unless they're all taken.
+     */
+    private static boolean reserve(final AtomicInteger slots, final int limit) {
+        while (true) {
+            final int taken = slots.get();
+            if (taken >= limit) {
+                return false;
+            }
+            if (slots.compareAndSet(taken, taken + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Finished jobs are kept for a while so clients can read how their sync ended.
+     */
+    private void evictFinished(final Instant now) {
+        jobs.values().removeIf(job -> null != job.getFinishedAt()
+                                      && job.getFinishedAt().isBefore(now.minus(JOB_RETENTION)));
+    }
+
+    private static boolean isFailed(final LibraryState state) {
+        return LibraryState.IMPORT_FAILED == state || LibraryState.UPDATE_FAILED == state;
+    }
+
+    /**
+     * Executor task wrapper; comparable so the executor's priority queue
+     * orders work by the job's priority.
+     */
+    private final class QueuedSync implements Runnable, Comparable<QueuedSync> {
+        private final LibrarySyncJob job;
+
+        private QueuedSync(final LibrarySyncJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            LibrarySyncJobServiceImpl.this.run(job);
+        }
+
+        @Override
+        public int compareTo(final QueuedSync other) {
+            return job.compareTo(other.job);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package page.crates.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import page.crates.entity.enums.LibrarySyncPhase;
+import page.crates.spotify.client.SpotifyRetryTracker;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live counters for one library sync. Every update is mirrored into the
+ * application-wide Micrometer meters, so the same numbers show up both in
+ * the progress endpoint and on the actuator. Updated from the sync thread
+ * and the page fetchers, so everything here is thread-safe.
+ */
+public class LibrarySyncProgress {
+    private final Instant startedAt;
+    private final Meters meters;
+    private final AtomicInteger processedAlbums = new AtomicInteger();
+    private final AtomicInteger pagesFetched = new AtomicInteger();
+    private final AtomicInteger albumsInserted = new AtomicInteger();
+    private final AtomicInteger albumsUpdated = new AtomicInteger();
+    private final AtomicInteger albumsArchived = new AtomicInteger();
+    private final AtomicInteger spotifyCalls = new AtomicInteger();
+    private final AtomicInteger spotifyRetries = new AtomicInteger();
+    private volatile int resumedAlbums;
+    private volatile LibrarySyncPhase phase;
+    private volatile Integer totalAlbums;
+    private volatile Instant finishedAt;
+
+    LibrarySyncProgress(final Instant startedAt, final Meters meters) {
+        this.startedAt = startedAt;
+        this.meters = meters;
+    }
+
+    public void setPhase(final LibrarySyncPhase phase) {
+        this.phase = phase;
+    }
+
+    public void setTotalAlbums(final long totalAlbums) {
+        this.totalAlbums = (int) totalAlbums;
+    }
+
+    /**
+     * Resumed syncs start partway through the library. Albums committed before the resume count
+     * towards percent complete but not towards the rate, since this sync didn't process them.
+     */
+    public void resumeAt(final int processedAlbums) {
+        this.resumedAlbums = processedAlbums;
+        this.processedAlbums.set(processedAlbums);
+    }
+
+    /**
+     * Runs a call against spotify's library endpoints, counting and timing it as a fetch.
+     */
+    public <T> T fetch(final Callable<T> call) throws Exception {
+        spotifyCalls.incrementAndGet();
+        meters.spotifyCalls.increment();
+        return meters.fetchTimer.recordCallable(() -> SpotifyRetryTracker.track(this::retried, call));
+    }
+
+    public void pageFetched() {
+        pagesFetched.incrementAndGet();
+        meters.pages.increment();
+    }
+
+    /**
+     * Runs a page reconciliation, timing it and counting its results.
+     */
+    public LibraryPageSyncResult persist(final int albumsOnPage, final Callable<LibraryPageSyncResult> persist)
+            throws Exception {
+        final LibraryPageSyncResult result = meters.persistTimer.recordCallable(
+                () -> SpotifyRetryTracker.track(this::retried, persist));
+        processedAlbums.addAndGet(albumsOnPage);
+        albumsInserted.addAndGet(result.created());
+        albumsUpdated.addAndGet(result.updated());
+        meters.inserted.increment(result.created());
+        meters.updated.increment(result.updated());
+        return result;
+    }
+
+    /**
+     * Runs a removal pass, timing it and counting the albums it archived.
+     */
+    public int removal(final Callable<Integer> removal) throws Exception {
+        final int archived = meters.removalTimer.recordCallable(removal);
+        albumsArchived.addAndGet(archived);
+        meters.archived.increment(archived);
+        return archived;
+    }
+
+    private void retried() {
+        spotifyRetries.incrementAndGet();
+        meters.spotifyRetries.increment();
+    }
+
+    void finish(final Instant now) {
+        this.finishedAt = now;
+    }
+
+    public boolean isRunning() {
+        return null == finishedAt;
+    }
+
+    boolean finishedBefore(final Instant cutoff) {
+        final Instant finished = finishedAt;
+        return null != finished && finished.isBefore(cutoff);
+    }
+
+    public LibrarySyncProgressSnapshot snapshot(final Instant now) {
+        final Integer total = totalAlbums;
+        final int processed = processedAlbums.get();
+        final Instant end = null == finishedAt ? now : finishedAt;
+        final double elapsedSeconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+        Double percent = null;
+        Double rate = null;
+        Long eta = null;
+        if (null != total) {
+            percent = total == 0 ? 100.0 : Math.min(100.0, processed * 100.0 / total);
+            rate = Math.max(processed - resumedAlbums, 0) / elapsedSeconds;
+            if (null == finishedAt && rate > 0) {
+                eta = (long) Math.ceil(Math.max(total - processed, 0) / rate);
+            }
+        }
+        return new LibrarySyncProgressSnapshot(
+                phase,
+                isRunning(),
+                startedAt,
+                finishedAt,
+                total,
+                processed,
+                pagesFetched.get(),
+                albumsInserted.get(),
+                albumsUpdated.get(),
+                albumsArchived.get(),
+                spotifyCalls.get(),
+                spotifyRetries.get(),
+                percent,
+                rate,
+                eta);
+    }
+
+    /**
+     * The application-wide meters every sync reports into.
+     */
+    static final class Meters {
+        private final Counter pages;
+        private final Counter inserted;
+        private final Counter updated;
+        private final Counter archived;
+        private final Counter spotifyCalls;
+        private final Counter spotifyRetries;
+        private final Timer fetchTimer;
+        private final Timer persistTimer;
+        private final Timer removalTimer;
+
+        Meters(final MeterRegistry registry) {
+            pages = registry.counter("crates.library.sync.pages");
+            inserted = registry.counter("crates.library.sync.albums", "result", "inserted");
+            updated = registry.counter("crates.library.sync.albums", "result", "updated");
+            archived = registry.counter("crates.library.sync.albums", "result", "archived");
+            spotifyCalls = registry.counter("crates.library.sync.spotify.calls");
+            spotifyRetries = registry.counter("crates.library.sync.spotify.retries");
+            fetchTimer = registry.timer("crates.library.sync.phase", "phase", "fetch");
+            persistTimer = registry.timer("crates.library.sync.phase", "phase", "persist");
+            removalTimer = registry.timer("crates.library.sync.phase", "phase", "removal");
+        }
+    }
+}
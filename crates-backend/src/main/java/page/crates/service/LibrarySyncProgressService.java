@@ -0,0 +1,18 @@
+package page.crates.service;
+
+import page.crates.entity.SpotifyUser;
+
+public interface LibrarySyncProgressService {
+    /**
+     * Starts tracking a new sync for the user, replacing any previous one.
+     */
+    LibrarySyncProgress start(SpotifyUser user);
+
+    void finish(LibrarySyncProgress progress);
+
+    /**
+     * @return progress of the user's current or most recent sync, or null if none has run since startup
+     * or the most recent one finished more than an hour ago.
+     */
+    LibrarySyncProgressSnapshot getProgress(SpotifyUser user);
+}
@@ -0,0 +1,60 @@
+package page.crates.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Service;
+import page.crates.entity.SpotifyUser;
+import page.crates.util.SystemTimeFacade;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class LibrarySyncProgressServiceImpl implements LibrarySyncProgressService {
+    // same as the sync jobs, so a finished job's progress is there for as long as the job is
+    private static final Duration PROGRESS_RETENTION = Duration.ofHours(1);
+
+    @Resource
+    private MeterRegistry meterRegistry;
+    @Resource
+    private SystemTimeFacade systemTimeFacade;
+
+    private final Map<Long, LibrarySyncProgress> progressByUser = new ConcurrentHashMap<>();
+    private LibrarySyncProgress.Meters meters;
+
+    @PostConstruct
+    void registerMeters() {
+        meters = new LibrarySyncProgress.Meters(meterRegistry);
+        meterRegistry.gauge("crates.library.sync.running", progressByUser,
+                progress -> progress.values().stream().filter(LibrarySyncProgress::isRunning).count());
+    }
+
+    @Override
+    public LibrarySyncProgress start(final SpotifyUser user) {
+        final Instant now = systemTimeFacade.now();
+        evictFinished(now);
+        final LibrarySyncProgress progress = new LibrarySyncProgress(now, meters);
+        progressByUser.put(user.getId(), progress);
+        return progress;
+    }
+
+    @Override
+    public void finish(final LibrarySyncProgress progress) {
+        progress.finish(systemTimeFacade.now());
+    }
+
+    @Override
+    public LibrarySyncProgressSnapshot getProgress(final SpotifyUser user) {
+        final Instant now = systemTimeFacade.now();
+        evictFinished(now);
+        final LibrarySyncProgress progress = progressByUser.get(user.getId());
+        return null == progress ? null : progress.snapshot(now);
+    }
+
+    private void evictFinished(final Instant now) {
+        progressByUser.values().removeIf(progress -> progress.finishedBefore(now.minus(PROGRESS_RETENTION)));
+    }
+}
@@ -0,0 +1,26 @@
+package page.crates.service;
+
+import page.crates.entity.enums.LibrarySyncPhase;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time view of a sync's progress. Percent, rate and ETA are null
+ * until the sync knows how many albums it has to get through.
+ */
+public record LibrarySyncProgressSnapshot(LibrarySyncPhase phase,
+                                          boolean running,
+                                          Instant startedAt,
+                                          Instant finishedAt,
+                                          Integer totalAlbums,
+                                          int processedAlbums,
+                                          int pagesFetched,
+                                          int albumsInserted,
+                                          int albumsUpdated,
+                                          int albumsArchived,
+                                          int spotifyCalls,
+                                          int spotifyRetries,
+                                          Double percentComplete,
+                                          Double albumsPerSecond,
+                                          Long etaSeconds) {
+}
@@ -1,9 +1,14 @@
 package page.crates.service;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -12,17 +17,32 @@ import org.springframework.transaction.annotation.Transactional;
 import page.crates.entity.Library;
 import page.crates.entity.SpotifyUser;
 import page.crates.entity.enums.LibraryState;
+import page.crates.entity.enums.LibrarySyncPhase;
+import page.crates.exception.LibrarySyncSupersededException;
 import page.crates.service.enums.LibrarySyncOption;
 import page.crates.spotify.client.Context;
 import page.crates.spotify.client.Spotify;
-import page.crates.spotify.client.api.LibraryAlbum;
+import page.crates.spotify.client.api.SavedAlbum;
+import page.crates.util.DelegatingUserContextCallable;
+import page.crates.util.LongIdSet;
 import page.crates.util.SystemTimeFacade;
 
-import java.util.Arrays;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Service
 @Slf4j
 public class LibrarySyncServiceImpl implements LibrarySyncService {
+    /** Spotify's maximum page size for saved albums. */
+    private static final int DELTA_PAGE_SIZE = 50;
+    private static final int FULL_PAGE_SIZE = 25;
+
     @Resource
     private CurrentUserService currentUserService;
     @Resource
@@ -35,6 +55,32 @@ public class LibrarySyncServiceImpl implements LibrarySyncService {
     private SystemTimeFacade systemTimeFacade;
     @Resource
     private LibraryPageSyncService libraryPageSyncService;
+    @Resource
+    private LibrarySyncProgressService librarySyncProgressService;
+
+    @Value("${crates.library.sync.full-sync-interval:7d}")
+    private Duration fullSyncInterval;
+    @Value("${crates.library.sync.fetch-concurrency:4}")
+    private int fetchConcurrency;
+    @Value("${crates.library.sync.concurrency:4}")
+    private int syncConcurrency;
+
+    private ExecutorService pageFetcher;
+
+    @PostConstruct
+    void start() {
+        pageFetcher = Executors.newFixedThreadPool(
+                fetchConcurrency * syncConcurrency,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("library-page-fetch-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    @PreDestroy
+    void stop() {
+        pageFetcher.shutdownNow();
+    }
 
     private LibraryState getFailedState(LibrarySyncOption[] options) {
         if (null == options || options.length == 0) {
@@ -79,36 +125,266 @@ public class LibrarySyncServiceImpl implements LibrarySyncService {
     public Library synchronize(LibrarySyncOption... options) {
         final SpotifyUser user = currentUserService.getCurrentUser();
         Library library = libraryService.findOrCreateLibrary(user);
-        final Context context = Context.forToken(user.getToken().getAccessToken());
+        final Context context = Context.forUser(user.getId(), user.getToken().getAccessToken()).inBackground();
+        final LibrarySyncProgress progress = librarySyncProgressService.start(user);
+        final SyncResult result;
         try {
-            // first remove stuff that's getting nuked.
-            if (ArrayUtils.isEmpty(options) || !Arrays.asList(options).contains(LibrarySyncOption.FIRST_SYNC)) {
-                Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
-                Page<page.crates.entity.LibraryAlbum> libraryAlbumPage;
-                do {
-                    libraryAlbumPage = libraryAlbumService.findByUser(user, pageable);
-                    libraryPageSyncService.processRemovals(libraryAlbumPage, user, context);
-                    pageable = pageable.next();
-                } while (libraryAlbumPage.hasNext());
+            // fences off any other sync of this library: from here on, its checkpoint writes fail
+            if (!libraryService.claimSync(library)) {
+                throw new LibrarySyncSupersededException(library.getId(), library.getSyncGeneration());
+            }
+            if (isDeltaEligible(library, options)) {
+                enterPhase(library, progress, LibrarySyncPhase.DELTA);
+                final SyncResult delta = synchronizeDelta(context, user, library, progress);
+                long activeCount = libraryAlbumService.countActive(user);
+                if (delta.total() != activeCount) {
+                    // something was removed, spot check the mirror against spotify before resorting to a full walk.
+                    log.info("spotify reports {} saved albums but {} are active for user {}, checking for removals",
+                            delta.total(), activeCount, user.getSpotifyId());
+                    enterPhase(library, progress, LibrarySyncPhase.REMOVAL_CHECK);
+                    checkRemovals(context, user, progress);
+                    activeCount = libraryAlbumService.countActive(user);
+                }
+                if (delta.total() == activeCount) {
+                    result = delta;
+                } else {
+                    log.info("spotify reports {} saved albums but {} are active for user {}, falling back to full sync",
+                            delta.total(), activeCount, user.getSpotifyId());
+                    result = synchronizeFull(context, user, library, progress);
+                }
+            } else {
+                result = synchronizeFull(context, user, library, progress);
             }
-            // then do the slow part
-            Pageable pageable = PageRequest.of(0, 25);
-            Page<LibraryAlbum> albumPage;
-            do {
-                albumPage = spotify.getSavedLibraryAlbums(context, pageable);
-                libraryPageSyncService.processPage(albumPage, user, library);
-                pageable = pageable.next();
-            } while (albumPage.hasNext());
+            libraryService.saveSyncCheckpoint(library, null, null);
+        } catch (LibrarySyncSupersededException e) {
+            // whoever claimed the library after us owns its state now
+            log.warn("abandoning library sync for user {}: {}", user.getSpotifyId(), e.getMessage());
+            librarySyncProgressService.finish(progress);
+            return library;
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             log.error("failed to synchronize library for user {} -- {}: {}",
                       user.getSpotifyId(), e.getClass().getName(), e.getMessage(), e);
             library.setState(getFailedState(options));
             library = libraryService.save(library);
+            librarySyncProgressService.finish(progress);
             return library;
         }
+        final Instant now = systemTimeFacade.now();
+        if (null != result.newestAddedAt()
+            && (null == library.getLastAddedAt() || result.newestAddedAt().isAfter(library.getLastAddedAt()))) {
+            library.setLastAddedAt(result.newestAddedAt());
+        }
+        if (result.full()) {
+            library.setLastFullSyncAt(now);
+        }
         library.setState(getSuccessState(options));
-        library.setUpdatedAt(systemTimeFacade.now());
+        library.setNextRefreshAt(null);
+        library.setUpdatedAt(now);
         library = libraryService.save(library);
+        librarySyncProgressService.finish(progress);
+        log.info("synchronized library for user {}: {}", user.getSpotifyId(), progress.snapshot(now));
         return library;
     }
+
+    private void enterPhase(final Library library, final LibrarySyncProgress progress, final LibrarySyncPhase phase) {
+        progress.setPhase(phase);
+        libraryService.saveSyncCheckpoint(library, phase, null);
+    }
+
+    /**
+     * Refreshes can page from the newest saved album until they reach the high-water mark,
+     * as long as we've walked the whole library recently enough to trust the mirror.
+     */
+    private boolean isDeltaEligible(final Library library, final LibrarySyncOption[] options) {
+        if (ArrayUtils.contains(options, LibrarySyncOption.FIRST_SYNC)
+            || ArrayUtils.contains(options, LibrarySyncOption.FULL_SYNC)
+            || isResumable(library)) {
+            return false;
+        }
+        if (null == library.getLastAddedAt() || null == library.getLastFullSyncAt()) {
+            return false;
+        }
+        return library.getLastFullSyncAt().plus(fullSyncInterval).isAfter(systemTimeFacade.now());
+    }
+
+    /**
+     * A full walk that failed or was interrupted leaves its last committed offset behind.
+     * One that stopped before committing its first page has nothing to resume and starts a fresh walk.
+     */
+    private static boolean isResumable(final Library library) {
+        return LibrarySyncPhase.FULL_FETCH == library.getSyncPhase()
+               && null != library.getSyncOffset()
+               && library.getSyncOffset() > 0;
+    }
+
+    /**
+     * Spotify returns saved albums newest first, so only pull pages until we hit an album
+     * we already know about.
+     */
+    private SyncResult synchronizeDelta(final Context context,
+                                        final SpotifyUser user,
+                                        final Library library,
+                                        final LibrarySyncProgress progress) throws Exception {
+        final Instant highWaterMark = library.getLastAddedAt();
+        Instant newestAddedAt = null;
+        Pageable pageable = PageRequest.of(0, DELTA_PAGE_SIZE);
+        Page<SavedAlbum> albumPage;
+        boolean reachedKnownAlbums;
+        do {
+            final Pageable current = pageable;
+            albumPage = progress.fetch(() -> spotify.getSavedLibraryAlbums(context, current));
+            progress.pageFetched();
+            final List<SavedAlbum> added = albumPage.stream()
+                    .filter(savedAlbum -> savedAlbum.addedAt().isAfter(highWaterMark))
+                    .toList();
+            reachedKnownAlbums = added.size() < albumPage.getNumberOfElements();
+            if (!added.isEmpty()) {
+                final Page<SavedAlbum> addedPage = new PageImpl<>(added, current, albumPage.getTotalElements());
+                progress.persist(added.size(), () -> libraryPageSyncService.processPage(addedPage, user, library));
+            }
+            newestAddedAt = newest(newestAddedAt, albumPage);
+            pageable = pageable.next();
+        } while (!reachedKnownAlbums && albumPage.hasNext());
+        log.info("delta sync for user {} read {} page(s)", user.getSpotifyId(), pageable.getPageNumber());
+        return new SyncResult(albumPage.getTotalElements(), newestAddedAt, false);
+    }
+
+    /**
+     * Asks spotify whether each active library album is still saved, 20 at a time.
+     * Only used when a delta sync's totals don't line up; full syncs detect removals
+     * from the set of albums they've seen.
+     */
+    private void checkRemovals(final Context context,
+                               final SpotifyUser user,
+                               final LibrarySyncProgress progress) throws Exception {
+        Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Page<page.crates.entity.LibraryAlbum> libraryAlbumPage;
+        do {
+            final Page<page.crates.entity.LibraryAlbum> current = libraryAlbumService.findByUser(user, pageable);
+            if (current.hasContent()) {
+                progress.fetch(() -> progress.removal(
+                        () -> libraryPageSyncService.processRemovals(current, user, context)));
+            }
+            libraryAlbumPage = current;
+            pageable = pageable.next();
+        } while (libraryAlbumPage.hasNext());
+    }
+
+    /**
+     * Walks the whole spotify library, then archives every active library album we didn't see.
+     * If a previous walk left a checkpoint, picks up from its last committed offset instead.
+     */
+    private SyncResult synchronizeFull(final Context context,
+                                       final SpotifyUser user,
+                                       final Library library,
+                                       final LibrarySyncProgress progress) throws Exception {
+        final boolean resumed = isResumable(library);
+        final int startOffset = resumed ? library.getSyncOffset() : 0;
+        if (resumed) {
+            log.info("resuming sync of user {} at offset {}", user.getSpotifyId(), startOffset);
+        }
+        progress.setPhase(LibrarySyncPhase.FULL_FETCH);
+        progress.resumeAt(startOffset);
+        libraryService.saveSyncCheckpoint(library, LibrarySyncPhase.FULL_FETCH, startOffset);
+
+        final LongIdSet seenAlbumIds = new LongIdSet();
+        final SyncResult result = importPages(
+                context, user, library, progress, seenAlbumIds, startOffset / FULL_PAGE_SIZE);
+        enterPhase(library, progress, LibrarySyncPhase.ARCHIVE);
+        if (resumed) {
+            // we never saw the pages before the checkpoint, so we can't tell what was removed.
+            // the next delta sync will notice the totals don't match. those pages also hold the newest
+            // albums, so keep the stored high-water mark rather than one taken from the partial walk.
+            log.info("skipping removal detection for resumed sync of user {}", user.getSpotifyId());
+            return new SyncResult(result.total(), library.getLastAddedAt(), true);
+        }
+        if (seenAlbumIds.size() < result.total()) {
+            // the library changed underneath us mid-walk and we may have skipped albums; archiving
+            // now could drop albums that are still saved, so leave removals to the next sync.
+            log.warn("saw {} of {} saved albums for user {}, skipping removal detection",
+                    seenAlbumIds.size(), result.total(), user.getSpotifyId());
+        } else {
+            progress.removal(() -> libraryAlbumService.archiveAllExcept(user, seenAlbumIds.toArray()));
+        }
+        return result;
+    }
+
+    /**
+     * Walks the saved-album list from {@code startPage}. The first page is fetched and persisted on its
+     * own so the library flips to IMPORTING_AFTER_FIRST_PAGE as early as possible; once it tells us the
+     * total, the remaining pages are fetched ahead in parallel (up to fetch-concurrency per sync) and
+     * handed to the writer in page order. A checkpoint is saved after every persisted page.
+     */
+    private SyncResult importPages(final Context context,
+                                   final SpotifyUser user,
+                                   final Library library,
+                                   final LibrarySyncProgress progress,
+                                   final LongIdSet seenAlbumIds,
+                                   final int startPage) throws Exception {
+        Page<SavedAlbum> albumPage = fetchPage(context, PageRequest.of(startPage, FULL_PAGE_SIZE), progress);
+        progress.setTotalAlbums(albumPage.getTotalElements());
+        persistPage(albumPage, user, library, progress, seenAlbumIds);
+        Instant newestAddedAt = newest(null, albumPage);
+
+        final int totalPages = albumPage.getTotalPages();
+        final Deque<Future<Page<SavedAlbum>>> inFlight = new ArrayDeque<>();
+        int nextPage = startPage + 1;
+        try {
+            while (nextPage < totalPages || !inFlight.isEmpty()) {
+                while (nextPage < totalPages && inFlight.size() < fetchConcurrency) {
+                    final Pageable pageable = PageRequest.of(nextPage++, FULL_PAGE_SIZE);
+                    inFlight.add(pageFetcher.submit(new DelegatingUserContextCallable<>(
+                            () -> fetchPage(context, pageable, progress), user)));
+                }
+                albumPage = inFlight.remove().get();
+                persistPage(albumPage, user, library, progress, seenAlbumIds);
+                newestAddedAt = newest(newestAddedAt, albumPage);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        // the library may have grown while we were importing; pick up any stragglers.
+        while (albumPage.hasNext()) {
+            albumPage = fetchPage(context, albumPage.nextPageable(), progress);
+            progress.setTotalAlbums(albumPage.getTotalElements());
+            persistPage(albumPage, user, library, progress, seenAlbumIds);
+            newestAddedAt = newest(newestAddedAt, albumPage);
+        }
+        return new SyncResult(albumPage.getTotalElements(), newestAddedAt, true);
+    }
+
+    private Page<SavedAlbum> fetchPage(final Context context,
+                                         final Pageable pageable,
+                                         final LibrarySyncProgress progress) throws Exception {
+        final Page<SavedAlbum> albumPage = progress.fetch(() -> spotify.getSavedLibraryAlbums(context, pageable));
+        progress.pageFetched();
+        return albumPage;
+    }
+
+    private void persistPage(final Page<SavedAlbum> albumPage,
+                             final SpotifyUser user,
+                             final Library library,
+                             final LibrarySyncProgress progress,
+                             final LongIdSet seenAlbumIds) throws Exception {
+        seenAlbumIds.addAll(progress.persist(albumPage.getNumberOfElements(),
+                () -> libraryPageSyncService.processPage(albumPage, user, library)).albumIds());
+        libraryService.saveSyncCheckpoint(library, LibrarySyncPhase.FULL_FETCH,
+                (albumPage.getNumber() + 1) * albumPage.getSize());
+    }
+
+    private static Instant newest(final Instant current, final Page<SavedAlbum> albumPage) {
+        Instant newest = current;
+        for (SavedAlbum savedAlbum : albumPage) {
+            if (null != savedAlbum.addedAt() && (null == newest || savedAlbum.addedAt().isAfter(newest))) {
+                newest = savedAlbum.addedAt();
+            }
+        }
+        return newest;
+    }
+
+    private record SyncResult(long total, Instant newestAddedAt, boolean full) {
+    }
 }
@@ -0,0 +1,13 @@
+package page.crates.service;
+
+import page.crates.entity.SpotifyUser;
+
+/**
+ * Decides whether a user's Spotify session is still usable without asking Spotify when it can.
+ */
+public interface TokenValidityService {
+    /**
+     * @return false only when Spotify has rejected the user's token and it could not be refreshed.
+     */
+    boolean isSessionUsable(SpotifyUser user);
+}
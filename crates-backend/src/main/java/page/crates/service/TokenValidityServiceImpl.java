@@ -0,0 +1,87 @@
+package page.crates.service;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import page.crates.entity.SpotifyUser;
+import page.crates.spotify.client.Context;
+import page.crates.spotify.client.Spotify;
+import page.crates.util.SystemTimeFacade;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A session is usable when the user token service can hand out a token, which refreshes it first
+ * if the stored expiration has passed, and Spotify accepted that token or issued it within
+ * {@code trust-for}. Spotify is only probed when neither is known, for example on the first
+ * request after a restart.
+ */
+@Service
+@Slf4j
+public class TokenValidityServiceImpl implements TokenValidityService {
+    @Resource
+    private UserTokenService userTokenService;
+    @Resource
+    private Spotify spotify;
+    @Resource
+    private SystemTimeFacade systemTimeFacade;
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${crates.session.trust-for:15m}")
+    private Duration trustFor;
+
+    private Counter trusted;
+    private Counter probed;
+    private Counter rejected;
+
+    @PostConstruct
+    void start() {
+        trusted = meterRegistry.counter("crates.session.validity", "outcome", "trusted");
+        probed = meterRegistry.counter("crates.session.validity", "outcome", "probed");
+        rejected = meterRegistry.counter("crates.session.validity", "outcome", "rejected");
+    }
+
+    @Override
+    public boolean isSessionUsable(final SpotifyUser user) {
+        final String accessToken;
+        try {
+            accessToken = userTokenService.getAccessToken(user.getId());
+        } catch (FeignException e) {
+            return unlessRejected(e, user);
+        }
+        final Instant validatedAt = userTokenService.getLastValidatedAt(user.getId());
+        if (null != validatedAt && validatedAt.plus(trustFor).isAfter(systemTimeFacade.now())) {
+            trusted.increment();
+            return true;
+        }
+        probed.increment();
+        try {
+            // a 401 here has already been through one refresh and retry
+            spotify.getCurrentUser(Context.forUser(user.getId(), accessToken));
+            return true;
+        } catch (FeignException e) {
+            return unlessRejected(e, user);
+        }
+    }
+
+    /**
+     * Only an auth failure ends the session; a flaky Spotify shouldn't log anyone out.
+     */
+    private boolean unlessRejected(final FeignException e, final SpotifyUser user) {
+        if (e.status() == HttpStatus.UNAUTHORIZED.value() || e.status() == HttpStatus.BAD_REQUEST.value()) {
+            log.info("spotify rejected the session of user {}: {}", user.getSpotifyId(), e.status());
+            rejected.increment();
+            return false;
+        }
+        log.warn("could not validate the session of user {}: {}", user.getSpotifyId(), e.getMessage());
+        return true;
+    }
+}
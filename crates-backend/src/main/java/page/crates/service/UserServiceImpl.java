@@ -41,6 +41,10 @@ public class UserServiceImpl implements UserService {
     private SystemTimeFacade systemTimeFacade;
     @Resource
     private HandleService handleService;
+    @Resource
+    private UserTokenService userTokenService;
+    @Resource
+    private ImageService imageService;
 
     private SpotifyUserCreation createOrUpdateUser(Token token) {
         final Context context = Context.forToken(token.getAccessToken());
@@ -55,9 +59,11 @@ public class UserServiceImpl implements UserService {
             found.setUpdatedAt(systemTimeFacade.now());
             final SpotifyUser updated = spotifyUserRepository.save(found);
             tokenRepository.delete(oldToken);
+            userTokenService.evict(updated.getId());
             return new SpotifyUserCreation(updated, false);
         }
         user.setToken(token);
+        user.setImages(imageService.findOrCreateAll(user.getImages()));
         user.setCreatedAt(systemTimeFacade.now());
         user.setUpdatedAt(systemTimeFacade.now());
         // Auto-generate handle from spotifyId for new users
@@ -1,5 +1,42 @@
 package page.crates.service;
 
+import java.time.Instant;
+
+/**
+ * Keeps each user's Spotify access token fresh. Tokens are refreshed shortly before they expire,
+ * and concurrent refreshes for the same user share a single exchange.
+ */
 public interface UserTokenService {
+    /**
+     * Refreshes the current user's token and updates the user context with it.
+     */
     void refreshToken();
+
+    /**
+     * @return a valid access token for the user, waiting for a refresh only when the known token
+     * has expired.
+     */
+    String getAccessToken(Long userId);
+
+    /**
+     * Called after Spotify rejected {@code rejectedToken}. If the user's token has already been
+     * replaced, returns the replacement; otherwise refreshes it.
+     */
+    String refreshAccessToken(Long userId, String rejectedToken);
+
+    /**
+     * Records that Spotify just accepted {@code accessToken} for the user.
+     */
+    void markValid(Long userId, String accessToken);
+
+    /**
+     * @return when the user's current token was last accepted by Spotify or issued by a refresh,
+     * or null if that isn't known in this process.
+     */
+    Instant getLastValidatedAt(Long userId);
+
+    /**
+     * Forgets the cached token for the user, e.g. after a new login replaced it.
+     */
+    void evict(Long userId);
 }
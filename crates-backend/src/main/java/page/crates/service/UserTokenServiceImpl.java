@@ -1,16 +1,44 @@
 package page.crates.service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import page.crates.entity.SpotifyUser;
 import page.crates.entity.Token;
+import page.crates.exception.UserNotFoundException;
+import page.crates.repository.SpotifyUserRepository;
 import page.crates.repository.TokenRepository;
 import page.crates.security.UserContextHolder;
 import page.crates.spotify.client.SpotifyAuth;
 import page.crates.spotify.client.TokenResponse;
+import page.crates.util.CompletableFutures;
 import page.crates.util.SystemTimeFacade;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caches each user's token in memory, the same way the service token is cached: inside the
+ * refresh-ahead window callers keep the current token while one background exchange replaces it,
+ * and only an expired token makes callers wait, all of them on the same exchange. Spotify calls
+ * made with a user context read the token from here, so a refresh reaches work that started
+ * with the old one. Tokens of users who haven't been active for a while drop out of the cache
+ * (see {@code spotify.user-token.cache.*}) and are read from the database again on their next call.
+ */
 @Service
 @Slf4j
 public class UserTokenServiceImpl implements UserTokenService {
@@ -21,17 +49,194 @@ public class UserTokenServiceImpl implements UserTokenService {
     @Resource
     private TokenRepository tokenRepository;
     @Resource
+    private SpotifyUserRepository spotifyUserRepository;
+    @Resource
     private CurrentUserService currentUserService;
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${spotify.user-token.refresh-ahead:5m}")
+    private Duration refreshAhead;
+    @Value("${spotify.user-token.expiry-margin:30s}")
+    private Duration expiryMargin;
+    @Value("${spotify.user-token.refresh-threads:2}")
+    private int refreshThreads;
+    @Value("${spotify.user-token.cache.max-size:10000}")
+    private long cacheMaxSize;
+    @Value("${spotify.user-token.cache.idle:2h}")
+    private Duration cacheIdle;
+
+    private Cache<Long, UserToken> tokens;
+    private final Map<Long, CompletableFuture<UserToken>> inFlight = new ConcurrentHashMap<>();
+    private ExecutorService refresher;
+
+    @PostConstruct
+    void start() {
+        tokens = CacheBuilder.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterAccess(cacheIdle)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, tokens, "spotify.user-token");
+        refresher = Executors.newFixedThreadPool(
+                refreshThreads,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("user-token-refresh-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+    }
 
     @Override
     public void refreshToken() {
         final SpotifyUser spotifyUser = currentUserService.getCurrentUser();
-        final TokenResponse tokenResponse = spotifyAuth.refreshToken(spotifyUser.getToken().getRefreshToken());
         final Token token = spotifyUser.getToken();
-        token.setAccessToken(tokenResponse.getAccessToken());
-        token.setExpiration(systemTimeFacade.now().plusSeconds(tokenResponse.getExpiresIn()));
-        final Token saved = tokenRepository.save(token);
-        spotifyUser.setToken(saved);
+        final String accessToken = refreshAccessToken(spotifyUser.getId(), token.getAccessToken());
+        final UserToken refreshed = tokens.getIfPresent(spotifyUser.getId());
+        token.setAccessToken(accessToken);
+        if (null != refreshed) {
+            token.setExpiration(refreshed.expiration());
+            token.setRefreshToken(refreshed.refreshToken());
+        }
         UserContextHolder.setUserContext(spotifyUser);
     }
+
+    @Override
+    public String getAccessToken(final Long userId) {
+        final Instant now = systemTimeFacade.now();
+        final UserToken current = current(userId);
+        if (now.isBefore(current.expiresAt())) {
+            if (!now.isBefore(current.refreshAt())) {
+                refresh(userId, current, true);
+            }
+            return current.accessToken();
+        }
+        return CompletableFutures.join(refresh(userId, current, false)).accessToken();
+    }
+
+    @Override
+    public String refreshAccessToken(final Long userId, final String rejectedToken) {
+        final UserToken current = current(userId);
+        if (!current.accessToken().equals(rejectedToken)) {
+            return current.accessToken();
+        }
+        return CompletableFutures.join(refresh(userId, current, false)).accessToken();
+    }
+
+    @Override
+    public void markValid(final Long userId, final String accessToken) {
+        final Instant now = systemTimeFacade.now();
+        tokens.asMap().computeIfPresent(userId, (id, current) ->
+                current.accessToken().equals(accessToken) ? current.withValidatedAt(now) : current);
+    }
+
+    @Override
+    public Instant getLastValidatedAt(final Long userId) {
+        final UserToken current = tokens.getIfPresent(userId);
+        return null == current ? null : current.validatedAt();
+    }
+
+    @Override
+    public void evict(final Long userId) {
+        tokens.invalidate(userId);
+    }
+
+    /**
+     * The cached token, read from the database on a miss. The read happens outside the cache so it
+     * never holds a lock other users' lookups need; if two callers miss together, the first to store wins.
+     */
+    private UserToken current(final Long userId) {
+        final UserToken cached = tokens.getIfPresent(userId);
+        if (null != cached) {
+            return cached;
+        }
+        final UserToken loaded = load(userId);
+        final UserToken raced = tokens.asMap().putIfAbsent(userId, loaded);
+        return null == raced ? loaded : raced;
+    }
+
+    private UserToken load(final Long userId) {
+        final SpotifyUser user = spotifyUserRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+        final Token token = user.getToken();
+        return toUserToken(token.getId(), token.getAccessToken(), token.getRefreshToken(), token.getExpiration(), null);
+    }
+
+    /**
+     * Starts an exchange for the user unless one is already running, and returns whichever is in flight.
+     * The caller read {@code stale} before claiming, so another exchange may have replaced it in
+     * between; the claimed exchange checks the cache again before it spends the refresh token.
+     */
+    private CompletableFuture<UserToken> refresh(final Long userId, final UserToken stale, final boolean background) {
+        final CompletableFuture<UserToken> exchange = new CompletableFuture<>();
+        final CompletableFuture<UserToken> existing = inFlight.putIfAbsent(userId, exchange);
+        if (null != existing) {
+            return existing;
+        }
+        if (background) {
+            refresher.execute(() -> exchange(userId, stale, exchange));
+        } else {
+            exchange(userId, stale, exchange);
+        }
+        return exchange;
+    }
+
+    private void exchange(final Long userId, final UserToken stale, final CompletableFuture<UserToken> exchange) {
+        try {
+            final UserToken latest = current(userId);
+            if (!latest.accessToken().equals(stale.accessToken())) {
+                exchange.complete(latest);
+                return;
+            }
+            final TokenResponse response = spotifyAuth.refreshToken(stale.refreshToken());
+            final Instant expiration = systemTimeFacade.now().plusSeconds(response.getExpiresIn());
+            // spotify may rotate the refresh token; keep the old one when it doesn't
+            final String refreshToken = StringUtils.defaultIfBlank(response.getRefreshToken(), stale.refreshToken());
+            tokenRepository.findById(stale.tokenId()).ifPresent(token -> {
+                token.setAccessToken(response.getAccessToken());
+                token.setRefreshToken(refreshToken);
+                token.setExpiration(expiration);
+                tokenRepository.save(token);
+            });
+            // a token spotify just issued is as good as a validated one
+            final UserToken refreshed = toUserToken(
+                    stale.tokenId(), response.getAccessToken(), refreshToken, expiration, systemTimeFacade.now());
+            // a login may have replaced the token, or evicted it, while we were exchanging; that one wins
+            tokens.asMap().computeIfPresent(userId, (id, current) ->
+                    current.tokenId().equals(refreshed.tokenId()) ? refreshed : current);
+            log.debug("refreshed spotify token for user {}, valid until {}", userId, expiration);
+            exchange.complete(refreshed);
+        } catch (RuntimeException e) {
+            log.warn("spotify token refresh failed for user {}", userId, e);
+            exchange.completeExceptionally(e);
+        } finally {
+            inFlight.remove(userId, exchange);
+        }
+    }
+
+    private UserToken toUserToken(final Long tokenId,
+                                  final String accessToken,
+                                  final String refreshToken,
+                                  final Instant expiration,
+                                  final Instant validatedAt) {
+        final Instant expiresAt = expiration.minus(expiryMargin);
+        return new UserToken(
+                tokenId, accessToken, refreshToken, expiration, expiresAt.minus(refreshAhead), expiresAt, validatedAt);
+    }
+
+    private record UserToken(Long tokenId,
+                             String accessToken,
+                             String refreshToken,
+                             Instant expiration,
+                             Instant refreshAt,
+                             Instant expiresAt,
+                             Instant validatedAt) {
+        UserToken withValidatedAt(final Instant validatedAt) {
+            return new UserToken(tokenId, accessToken, refreshToken, expiration, refreshAt, expiresAt, validatedAt);
+        }
+    }
 }
@@ -0,0 +1,8 @@
+package page.crates.service.enums;
+
+public enum LibrarySyncJobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
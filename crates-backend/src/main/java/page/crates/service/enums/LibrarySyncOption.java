@@ -1,5 +1,6 @@
 package page.crates.service.enums;
 
 public enum LibrarySyncOption {
-    FIRST_SYNC
+    FIRST_SYNC,
+    FULL_SYNC
 }
@@ -5,7 +5,11 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.springframework.stereotype.Component;
 import page.crates.spotify.client.api.Album;
+import page.crates.spotify.client.api.SavedAlbum;
+import page.crates.entity.Artist;
 import page.crates.entity.Genre;
+import page.crates.entity.Image;
+import page.crates.entity.enums.ImageSize;
 
 import jakarta.annotation.Resource;
 import java.time.Instant;
@@ -26,11 +30,15 @@ public class SpotifyAlbumMapper {
         if (null == album) {
             return null;
         }
+        final Set<Image> images = imageSetMapper.map(album.getImages());
         return page.crates.entity.Album.builder()
                 .spotifyId(album.getId())
                 .name(album.getName())
                 .href(album.getHref())
-                .images(imageSetMapper.map(album.getImages()))
+                .images(images)
+                .imageSmallUrl(ImageSize.SMALL.pick(images))
+                .imageMediumUrl(ImageSize.MEDIUM.pick(images))
+                .imageLargeUrl(ImageSize.LARGE.pick(images))
                 .artists(spotifyArtistSetMapper.map(album.getArtists()))
                 .upc(mapUpc(album))
                 .genres(mapGenres(album.getGenres()))
@@ -38,6 +46,32 @@ public class SpotifyAlbumMapper {
                 .build();
     }
 
+    /**
+     * Maps a streamed saved album. Artists carry only their spotify id; the album service
+     * resolves them to stored artists before saving.
+     */
+    public page.crates.entity.Album map(SavedAlbum album) {
+        if (null == album) {
+            return null;
+        }
+        final Set<Image> images = imageSetMapper.map(album.images());
+        return page.crates.entity.Album.builder()
+                .spotifyId(album.id())
+                .name(album.name())
+                .href(album.href())
+                .images(images)
+                .imageSmallUrl(ImageSize.SMALL.pick(images))
+                .imageMediumUrl(ImageSize.MEDIUM.pick(images))
+                .imageLargeUrl(ImageSize.LARGE.pick(images))
+                .artists(album.artistIds().stream()
+                        .map(id -> Artist.builder().spotifyId(id).build())
+                        .collect(Collectors.toSet()))
+                .upc(album.upc())
+                .genres(mapGenres(album.genres()))
+                .releaseDate(mapReleaseDate(album.releaseDate(), album.releaseDatePrecision()))
+                .build();
+    }
+
     private Set<Genre> mapGenres(List<String> genres) {
         if (CollectionUtils.isEmpty(genres)) {
             return Set.of();
@@ -1,8 +1,32 @@
 package page.crates.spotify.client;
 
-public record Context(String token) {
+/**
+ * @param userId the user whose token this is, or null for the service token. Calls made with a user
+ *               context use that user's current token rather than the one captured here.
+ */
+public record Context(String token, SpotifyRequestPriority priority, Long userId) {
 
     public static Context forToken(String token) {
-        return new Context(token);
+        return new Context(token, SpotifyRequestPriority.INTERACTIVE, null);
+    }
+
+    /**
+     * Context for sync and other batch traffic, which yields to interactive requests when the
+     * Spotify request budget is tight.
+     */
+    public static Context forBackground(String token) {
+        return new Context(token, SpotifyRequestPriority.BACKGROUND, null);
+    }
+
+    public static Context forUser(Long userId, String token) {
+        return new Context(token, SpotifyRequestPriority.INTERACTIVE, userId);
+    }
+
+    public Context inBackground() {
+        return new Context(token, SpotifyRequestPriority.BACKGROUND, userId);
+    }
+
+    public Context withToken(String token) {
+        return new Context(token, priority, userId);
     }
 }
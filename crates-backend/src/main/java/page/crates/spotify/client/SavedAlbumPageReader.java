@@ -0,0 +1,168 @@
+package page.crates.spotify.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import page.crates.spotify.client.api.Image;
+import page.crates.spotify.client.api.SavedAlbum;
+import page.crates.spotify.client.api.SavedAlbumPage;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a {@code /me/albums} page with Jackson's streaming parser, keeping only the fields library
+ * sync persists. Everything else, notably each album's tracks, is skipped token by token without
+ * building a tree or binding objects.
+ */
+public class SavedAlbumPageReader {
+    private final JsonFactory jsonFactory;
+
+    public SavedAlbumPageReader(final JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public SavedAlbumPage read(final Reader reader) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(reader)) {
+            if (JsonToken.START_OBJECT != parser.nextToken()) {
+                throw new IOException("expected a saved album page object");
+            }
+            final List<SavedAlbum> items = new ArrayList<>();
+            int total = 0;
+            while (JsonToken.FIELD_NAME == parser.nextToken()) {
+                final String field = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if ("items".equals(field) && JsonToken.START_ARRAY == value) {
+                    while (JsonToken.START_OBJECT == parser.nextToken()) {
+                        final SavedAlbum item = readItem(parser);
+                        // an item without an album has nothing for library sync to store
+                        if (null != item) {
+                            items.add(item);
+                        }
+                    }
+                } else if ("total".equals(field) && value.isNumeric()) {
+                    total = parser.getIntValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new SavedAlbumPage(items, total);
+        }
+    }
+
+    private static SavedAlbum readItem(final JsonParser parser) throws IOException {
+        Instant addedAt = null;
+        SavedAlbum album = null;
+        while (JsonToken.FIELD_NAME == parser.nextToken()) {
+            final String field = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+            if ("added_at".equals(field) && JsonToken.VALUE_STRING == value) {
+                addedAt = Instant.parse(parser.getText());
+            } else if ("album".equals(field) && JsonToken.START_OBJECT == value) {
+                album = readAlbum(parser, addedAt);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        // added_at comes before the album in Spotify's responses, but JSON doesn't promise it
+        return null == album || null != album.addedAt() ? album : album.withAddedAt(addedAt);
+    }
+
+    private static SavedAlbum readAlbum(final JsonParser parser, final Instant addedAt) throws IOException {
+        String id = null;
+        String name = null;
+        String href = null;
+        String upc = null;
+        String releaseDate = null;
+        String releaseDatePrecision = null;
+        List<Image> images = List.of();
+        List<String> artistIds = List.of();
+        List<String> genres = List.of();
+        while (JsonToken.FIELD_NAME == parser.nextToken()) {
+            final String field = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+            if (JsonToken.VALUE_NULL == value) {
+                continue;
+            }
+            switch (field) {
+                case "id" -> id = parser.getText();
+                case "name" -> name = parser.getText();
+                case "href" -> href = parser.getText();
+                case "release_date" -> releaseDate = parser.getText();
+                case "release_date_precision" -> releaseDatePrecision = parser.getText();
+                case "external_ids" -> upc = readUpc(parser);
+                case "images" -> images = readImages(parser);
+                case "artists" -> artistIds = readIds(parser);
+                case "genres" -> genres = readStrings(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new SavedAlbum(id, name, href, upc, releaseDate, releaseDatePrecision, images, artistIds, genres, addedAt);
+    }
+
+    private static String readUpc(final JsonParser parser) throws IOException {
+        String upc = null;
+        while (JsonToken.FIELD_NAME == parser.nextToken()) {
+            final String field = parser.getCurrentName();
+            if (JsonToken.VALUE_STRING == parser.nextToken() && "upc".equals(field)) {
+                upc = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return upc;
+    }
+
+    private static List<Image> readImages(final JsonParser parser) throws IOException {
+        final List<Image> images = new ArrayList<>(3);
+        while (JsonToken.START_OBJECT == parser.nextToken()) {
+            final Image image = new Image();
+            while (JsonToken.FIELD_NAME == parser.nextToken()) {
+                final String field = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if ("url".equals(field) && JsonToken.VALUE_STRING == value) {
+                    image.setUrl(parser.getText());
+                } else if ("width".equals(field) && value.isNumeric()) {
+                    image.setWidth(parser.getIntValue());
+                } else if ("height".equals(field) && value.isNumeric()) {
+                    image.setHeight(parser.getIntValue());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            images.add(image);
+        }
+        return images;
+    }
+
+    private static List<String> readIds(final JsonParser parser) throws IOException {
+        final List<String> ids = new ArrayList<>(2);
+        while (JsonToken.START_OBJECT == parser.nextToken()) {
+            while (JsonToken.FIELD_NAME == parser.nextToken()) {
+                final String field = parser.getCurrentName();
+                if (JsonToken.VALUE_STRING == parser.nextToken() && "id".equals(field)) {
+                    ids.add(parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static List<String> readStrings(final JsonParser parser) throws IOException {
+        final List<String> strings = new ArrayList<>();
+        JsonToken token;
+        while (JsonToken.END_ARRAY != (token = parser.nextToken())) {
+            if (JsonToken.VALUE_STRING == token) {
+                strings.add(parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return strings;
+    }
+}
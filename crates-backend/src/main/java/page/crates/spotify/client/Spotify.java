@@ -5,8 +5,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import page.crates.spotify.client.api.Album;
 import page.crates.spotify.client.api.Artist;
-import page.crates.spotify.client.api.LibraryAlbum;
 import page.crates.spotify.client.api.Playlist;
+import page.crates.spotify.client.api.SavedAlbum;
 import page.crates.spotify.client.api.Track;
 import page.crates.spotify.client.api.User;
 
@@ -29,15 +29,28 @@ public interface Spotify {
 
     Album getAlbum(Context context, String id);
 
+    /**
+     * Multi-get of up to 20 albums; ids Spotify doesn't know come back as null entries.
+     */
+    List<Album> getAlbums(Context context, List<String> ids);
+
     Artist getArtist(Context context, String id);
 
+    /**
+     * Multi-get of up to 50 artists; ids Spotify doesn't know come back as null entries.
+     */
+    List<Artist> getArtists(Context context, List<String> ids);
+
     User getCurrentUser(Context context);
 
     Playlist getPlaylist(Context context, String id);
 
     Page<Album> getSavedAlbums(Context context, Pageable pageable);
 
-    Page<LibraryAlbum> getSavedLibraryAlbums(Context context, Pageable pageable);
+    /**
+     * Saved albums with only the fields library sync persists; see {@link SavedAlbum}.
+     */
+    Page<SavedAlbum> getSavedLibraryAlbums(Context context, Pageable pageable);
 
     Track getTrack(Context context, String id);
 
@@ -0,0 +1,42 @@
+package page.crates.spotify.client;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import page.crates.spotify.client.api.Album;
+import page.crates.spotify.client.api.Artist;
+import page.crates.spotify.client.api.SavedAlbum;
+import page.crates.spotify.client.api.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of {@link Spotify}. Calls run on a shared pool with the caller's user
+ * context, through the same gateway, retry and token refresh as the blocking interface.
+ */
+public interface SpotifyAsync {
+    CompletableFuture<Void> addAlbumsToLibrary(Context context, List<String> ids);
+
+    CompletableFuture<Album> getAlbum(Context context, String id);
+
+    CompletableFuture<Artist> getArtist(Context context, String id);
+
+    CompletableFuture<User> getCurrentUser(Context context);
+
+    CompletableFuture<Page<SavedAlbum>> getSavedLibraryAlbums(Context context, Pageable pageable);
+
+    CompletableFuture<Page<Album>> searchAlbums(Context context, String query, Pageable pageable);
+
+    CompletableFuture<List<Boolean>> libraryContainsAlbums(Context context, List<String> ids);
+
+    /**
+     * Applies the function to every input with at most {@code limit} calls in flight. The function
+     * runs on the async pool, so it should make blocking {@link Spotify} calls rather than wait on
+     * other futures from this interface.
+     *
+     * @return the results in input order; completes exceptionally with the first failure.
+     */
+    <I, T> CompletableFuture<List<T>> mapAsync(Collection<I> inputs, int limit, Function<I, T> function);
+}
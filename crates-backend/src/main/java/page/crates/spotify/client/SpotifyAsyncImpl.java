@@ -0,0 +1,135 @@
+package page.crates.spotify.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import page.crates.security.UserContextHolder;
+import page.crates.spotify.client.api.Album;
+import page.crates.spotify.client.api.Artist;
+import page.crates.spotify.client.api.SavedAlbum;
+import page.crates.spotify.client.api.User;
+import page.crates.util.DelegatingUserContextRunnable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Component
+public class SpotifyAsyncImpl implements SpotifyAsync {
+    @Resource
+    private Spotify spotify;
+
+    @Value("${spotify.async.threads:16}")
+    private int threads;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newFixedThreadPool(
+                threads,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("spotify-async-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public CompletableFuture<Void> addAlbumsToLibrary(Context context, List<String> ids) {
+        return supply(() -> {
+            spotify.addAlbumsToLibrary(context, ids);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Album> getAlbum(Context context, String id) {
+        return supply(() -> spotify.getAlbum(context, id));
+    }
+
+    @Override
+    public CompletableFuture<Artist> getArtist(Context context, String id) {
+        return supply(() -> spotify.getArtist(context, id));
+    }
+
+    @Override
+    public CompletableFuture<User> getCurrentUser(Context context) {
+        return supply(() -> spotify.getCurrentUser(context));
+    }
+
+    @Override
+    public CompletableFuture<Page<SavedAlbum>> getSavedLibraryAlbums(Context context, Pageable pageable) {
+        return supply(() -> spotify.getSavedLibraryAlbums(context, pageable));
+    }
+
+    @Override
+    public CompletableFuture<Page<Album>> searchAlbums(Context context, String query, Pageable pageable) {
+        return supply(() -> spotify.searchAlbums(context, query, pageable));
+    }
+
+    @Override
+    public CompletableFuture<List<Boolean>> libraryContainsAlbums(Context context, List<String> ids) {
+        return supply(() -> spotify.libraryContainsAlbums(context, ids));
+    }
+
+    @Override
+    public <I, T> CompletableFuture<List<T>> mapAsync(final Collection<I> inputs,
+                                                       final int limit,
+                                                       final Function<I, T> function) {
+        final List<I> items = new ArrayList<>(inputs);
+        if (items.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        @SuppressWarnings("unchecked") final T[] results = (T[]) new Object[items.size()];
+        final AtomicInteger next = new AtomicInteger();
+        final CompletableFuture<List<T>> all = new CompletableFuture<>();
+        // each worker takes the next unclaimed input until none are left or one has failed
+        final CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(Math.max(1, limit), items.size())];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = supply(() -> {
+                for (int index = next.getAndIncrement();
+                     index < items.size() && !all.isDone();
+                     index = next.getAndIncrement()) {
+                    results[index] = function.apply(items.get(index));
+                }
+                return null;
+            }).whenComplete((ignored, e) -> {
+                if (null != e) {
+                    all.completeExceptionally(e);
+                }
+            });
+        }
+        CompletableFuture.allOf(workers).thenRun(() -> all.complete(Arrays.asList(results)));
+        return all;
+    }
+
+    private <T> CompletableFuture<T> supply(final Supplier<T> supplier) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(new DelegatingUserContextRunnable(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable e) {
+                // an Error would otherwise end the task and leave the future pending forever
+                future.completeExceptionally(e);
+            }
+        }, UserContextHolder.getUserContext()));
+        return future;
+    }
+}
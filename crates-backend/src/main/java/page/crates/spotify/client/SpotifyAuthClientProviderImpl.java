@@ -5,6 +5,7 @@ import feign.Feign;
 import feign.Logger;
 import feign.form.FormEncoder;
 import feign.slf4j.Slf4jLogger;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.openfeign.support.SpringMvcContract;
 import org.springframework.stereotype.Component;
@@ -23,9 +24,11 @@ public class SpotifyAuthClientProviderImpl implements SpotifyAuthClientProvider
     @Value("${spotify.accounts.uri}")
     private String accountsUri;
 
-    @Override
-    public SpotifyAuthClient get() {
-        return Feign.builder()
+    private SpotifyAuthClient client;
+
+    @PostConstruct
+    void start() {
+        client = Feign.builder()
                 .requestInterceptor(new BasicAuthHeaderInterceptor(clientId, clientSecret))
                 .requestInterceptor(new ContentTypeInterceptor())
                 .logger(new Slf4jLogger(SpotifyAuthClient.class))
@@ -36,4 +39,9 @@ public class SpotifyAuthClientProviderImpl implements SpotifyAuthClientProvider
                 .target(SpotifyAuthClient.class, accountsUri);
     }
 
+    @Override
+    public SpotifyAuthClient get() {
+        return client;
+    }
+
 }
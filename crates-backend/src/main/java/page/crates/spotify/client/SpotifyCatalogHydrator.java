@@ -0,0 +1,41 @@
+package page.crates.spotify.client;
+
+import page.crates.spotify.client.api.Album;
+import page.crates.spotify.client.api.Artist;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Fetches full album and artist objects with Spotify's multi-get endpoints instead of one call per id.
+ * Results are keyed by Spotify id; ids Spotify doesn't know are left out.
+ * Concurrent lookups of the same id share one load, and ids Spotify doesn't know are remembered
+ * for a while (see {@code spotify.hydrator.missing.*}) instead of being asked for again.
+ * Requests go through the gateway at the caller's priority, so library sync passes
+ * {@link SpotifyRequestPriority#BACKGROUND} and yields to interactive lookups.
+ */
+public interface SpotifyCatalogHydrator {
+    /**
+     * Fetches the albums in as few requests as the multi-get limit allows.
+     */
+    Map<String, Album> getAlbums(Collection<String> ids, SpotifyRequestPriority priority);
+
+    /**
+     * Fetches the artists in as few requests as the multi-get limit allows.
+     */
+    Map<String, Artist> getArtists(Collection<String> ids, SpotifyRequestPriority priority);
+
+    /**
+     * Single lookup that is held for a short window and batched with lookups from other threads.
+     *
+     * @return the album, or null if Spotify doesn't know it.
+     */
+    Album getAlbum(String id, SpotifyRequestPriority priority);
+
+    /**
+     * Single lookup that is held for a short window and batched with lookups from other threads.
+     *
+     * @return the artist, or null if Spotify doesn't know it.
+     */
+    Artist getArtist(String id, SpotifyRequestPriority priority);
+}
@@ -0,0 +1,272 @@
+package page.crates.spotify.client;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import page.crates.spotify.client.api.Album;
+import page.crates.spotify.client.api.Artist;
+import page.crates.util.CompletableFutures;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@Component
+public class SpotifyCatalogHydratorImpl implements SpotifyCatalogHydrator {
+    // Spotify's multi-get limits
+    private static final int ALBUMS_PER_REQUEST = 20;
+    private static final int ARTISTS_PER_REQUEST = 50;
+
+    @Resource
+    private Spotify spotify;
+    @Resource
+    private SpotifyServiceTokenProvider spotifyServiceTokenProvider;
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${spotify.hydrator.window:25ms}")
+    private Duration window;
+    @Value("${spotify.hydrator.threads:4}")
+    private int threads;
+    @Value("${spotify.hydrator.missing.max-size:10000}")
+    private long missingMaxSize;
+    @Value("${spotify.hydrator.missing.ttl:10m}")
+    private Duration missingTtl;
+
+    private ScheduledExecutorService scheduler;
+    private Batcher<Album> albums;
+    private Batcher<Artist> artists;
+
+    @PostConstruct
+    void start() {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                threads,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("spotify-hydrator-%d")
+                        .setDaemon(true)
+                        .build());
+        executor.setRemoveOnCancelPolicy(true);
+        scheduler = executor;
+        albums = new Batcher<>("album", ALBUMS_PER_REQUEST, spotify::getAlbums, Album::getId);
+        artists = new Batcher<>("artist", ARTISTS_PER_REQUEST, spotify::getArtists, Artist::getId);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public Map<String, Album> getAlbums(final Collection<String> ids, final SpotifyRequestPriority priority) {
+        return albums.fetchAll(ids, priority);
+    }
+
+    @Override
+    public Map<String, Artist> getArtists(final Collection<String> ids, final SpotifyRequestPriority priority) {
+        return artists.fetchAll(ids, priority);
+    }
+
+    @Override
+    public Album getAlbum(final String id, final SpotifyRequestPriority priority) {
+        return CompletableFutures.join(albums.enqueue(id, priority));
+    }
+
+    @Override
+    public Artist getArtist(final String id, final SpotifyRequestPriority priority) {
+        return CompletableFutures.join(artists.enqueue(id, priority));
+    }
+
+    /**
+     * Loads each id at most once at a time per priority: a caller asking for an id that another thread
+     * is already loading, whether still queued or in a request, waits for that load instead of starting
+     * its own, as long as that load is at least as urgent as the caller. An interactive caller never
+     * waits on a background load, which may sit behind the background lane for a long time.
+     * Ids Spotify reported as missing are remembered for a while so they aren't asked for again.
+     * Single lookups are batched per priority, so background lookups never hold up an interactive one.
+     */
+    private final class Batcher<T> {
+        private final int chunkSize;
+        private final BiFunction<Context, List<String>, List<T>> fetch;
+        private final Function<T, String> idOf;
+        private final Map<SpotifyRequestPriority, Map<String, CompletableFuture<T>>> inFlight =
+                new EnumMap<>(SpotifyRequestPriority.class);
+        private final Cache<String, Boolean> missing;
+        private final Counter joinedInFlight;
+        private final Counter knownMissing;
+        private final Map<SpotifyRequestPriority, Map<String, CompletableFuture<T>>> pending =
+                new EnumMap<>(SpotifyRequestPriority.class);
+        private final Map<SpotifyRequestPriority, ScheduledFuture<?>> scheduledFlushes =
+                new EnumMap<>(SpotifyRequestPriority.class);
+
+        private Batcher(final String type,
+                        final int chunkSize,
+                        final BiFunction<Context, List<String>, List<T>> fetch,
+                        final Function<T, String> idOf) {
+            this.chunkSize = chunkSize;
+            this.fetch = fetch;
+            this.idOf = idOf;
+            for (final SpotifyRequestPriority priority : SpotifyRequestPriority.values()) {
+                inFlight.put(priority, new ConcurrentHashMap<>());
+            }
+            this.missing = CacheBuilder.newBuilder()
+                    .maximumSize(missingMaxSize)
+                    .expireAfterWrite(missingTtl)
+                    .build();
+            this.joinedInFlight = meterRegistry.counter("spotify.hydrator.deduplicated", "type", type, "reason", "in-flight");
+            this.knownMissing = meterRegistry.counter("spotify.hydrator.deduplicated", "type", type, "reason", "known-missing");
+        }
+
+        private Map<String, T> fetchAll(final Collection<String> ids, final SpotifyRequestPriority priority) {
+            final Map<String, T> fetched = new HashMap<>();
+            if (ids.isEmpty()) {
+                return fetched;
+            }
+            final Map<String, CompletableFuture<T>> claimed = new LinkedHashMap<>();
+            final Map<String, CompletableFuture<T>> joined = new HashMap<>();
+            for (final String id : new LinkedHashSet<>(ids)) {
+                if (null != missing.getIfPresent(id)) {
+                    knownMissing.increment();
+                    continue;
+                }
+                final CompletableFuture<T> future = new CompletableFuture<>();
+                final CompletableFuture<T> existing = claim(id, priority, future);
+                if (null == existing) {
+                    claimed.put(id, future);
+                } else {
+                    joinedInFlight.increment();
+                    joined.put(id, existing);
+                }
+            }
+            // load our own ids before waiting on anyone else's, so two callers can't wait on each other
+            complete(claimed, priority);
+            claimed.forEach((id, future) -> collect(fetched, id, future));
+            joined.forEach((id, future) -> collect(fetched, id, future));
+            return fetched;
+        }
+
+        /**
+         * @return the load of {@code id} to join, or null if {@code future} now owns it at {@code priority}
+         */
+        private CompletableFuture<T> claim(final String id,
+                                           final SpotifyRequestPriority priority,
+                                           final CompletableFuture<T> future) {
+            // priorities are declared most urgent first
+            for (final SpotifyRequestPriority urgent : SpotifyRequestPriority.values()) {
+                if (urgent == priority) {
+                    break;
+                }
+                final CompletableFuture<T> existing = inFlight.get(urgent).get(id);
+                if (null != existing) {
+                    return existing;
+                }
+            }
+            return inFlight.get(priority).putIfAbsent(id, future);
+        }
+
+        private void collect(final Map<String, T> fetched, final String id, final CompletableFuture<T> future) {
+            final T item = CompletableFutures.join(future);
+            if (null != item) {
+                fetched.put(id, item);
+            }
+        }
+
+        private CompletableFuture<T> enqueue(final String id, final SpotifyRequestPriority priority) {
+            if (null != missing.getIfPresent(id)) {
+                knownMissing.increment();
+                return CompletableFuture.completedFuture(null);
+            }
+            synchronized (this) {
+                final CompletableFuture<T> future = new CompletableFuture<>();
+                final CompletableFuture<T> existing = claim(id, priority, future);
+                if (null != existing) {
+                    joinedInFlight.increment();
+                    return existing;
+                }
+                final Map<String, CompletableFuture<T>> queue =
+                        pending.computeIfAbsent(priority, key -> new LinkedHashMap<>());
+                queue.put(id, future);
+                if (queue.size() >= chunkSize) {
+                    final Map<String, CompletableFuture<T>> batch = drain(priority);
+                    scheduler.execute(() -> complete(batch, priority));
+                } else if (!scheduledFlushes.containsKey(priority)) {
+                    scheduledFlushes.put(priority, scheduler.schedule(
+                            () -> complete(drainScheduled(priority), priority),
+                            window.toMillis(),
+                            TimeUnit.MILLISECONDS));
+                }
+                return future;
+            }
+        }
+
+        private synchronized Map<String, CompletableFuture<T>> drainScheduled(final SpotifyRequestPriority priority) {
+            scheduledFlushes.remove(priority);
+            return drain(priority);
+        }
+
+        private Map<String, CompletableFuture<T>> drain(final SpotifyRequestPriority priority) {
+            final ScheduledFuture<?> scheduledFlush = scheduledFlushes.remove(priority);
+            if (null != scheduledFlush) {
+                scheduledFlush.cancel(false);
+            }
+            final Map<String, CompletableFuture<T>> batch = pending.remove(priority);
+            return null == batch ? new LinkedHashMap<>() : batch;
+        }
+
+        private void complete(final Map<String, CompletableFuture<T>> batch, final SpotifyRequestPriority priority) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                final Map<String, T> fetched = load(batch.keySet(), priority);
+                batch.forEach((id, future) -> {
+                    final T item = fetched.get(id);
+                    if (null == item) {
+                        missing.put(id, Boolean.TRUE);
+                    }
+                    future.complete(item);
+                });
+            } catch (RuntimeException e) {
+                batch.values().forEach(future -> future.completeExceptionally(e));
+            } finally {
+                batch.forEach(inFlight.get(priority)::remove);
+            }
+        }
+
+        private Map<String, T> load(final Collection<String> ids, final SpotifyRequestPriority priority) {
+            final Map<String, T> fetched = new HashMap<>();
+            final String token = spotifyServiceTokenProvider.getAccessToken();
+            final Context context = SpotifyRequestPriority.BACKGROUND == priority
+                    ? Context.forBackground(token)
+                    : Context.forToken(token);
+            for (final List<String> chunk : Lists.partition(new ArrayList<>(ids), chunkSize)) {
+                fetch.apply(context, chunk).stream()
+                        .filter(Objects::nonNull)
+                        .forEach(item -> fetched.put(idOf.apply(item), item));
+            }
+            return fetched;
+        }
+    }
+}
@@ -13,7 +13,10 @@ import page.crates.spotify.client.api.LibraryAlbum;
 import page.crates.spotify.client.api.Page;
 import page.crates.spotify.client.api.Playlist;
 import page.crates.spotify.client.api.PlaylistFollowRequest;
+import page.crates.spotify.client.api.SavedAlbumPage;
 import page.crates.spotify.client.api.SearchResult;
+import page.crates.spotify.client.api.SeveralAlbums;
+import page.crates.spotify.client.api.SeveralArtists;
 import page.crates.spotify.client.api.Track;
 import page.crates.spotify.client.api.User;
 
@@ -36,9 +39,15 @@ public interface SpotifyClient {
     @RequestMapping(value = "/albums/{id}", method = RequestMethod.GET)
     Album getAlbum(@PathVariable("id") String id);
 
+    @RequestMapping(value = "/albums", method = RequestMethod.GET)
+    SeveralAlbums getAlbums(@RequestParam("ids") String ids);
+
     @RequestMapping(value = "/artists/{id}", method = RequestMethod.GET)
     Artist getArtist(@PathVariable("id") String id);
 
+    @RequestMapping(value = "/artists", method = RequestMethod.GET)
+    SeveralArtists getArtists(@RequestParam("ids") String ids);
+
     @RequestMapping(value = "/me", method = RequestMethod.GET)
     User getCurrentUser();
 
@@ -61,6 +70,13 @@ public interface SpotifyClient {
     Page<LibraryAlbum> getSavedAlbums(@RequestParam("offset") int offset,
                                       @RequestParam("limit") int limit);
 
+    /**
+     * Same endpoint as {@link #getSavedAlbums(int, int)}, streamed into compact records by the decoder.
+     */
+    @RequestMapping(value = "/me/albums", method = RequestMethod.GET)
+    SavedAlbumPage getSavedAlbumPage(@RequestParam("offset") int offset,
+                                     @RequestParam("limit") int limit);
+
     @RequestMapping(value = "/me/tracks", method = RequestMethod.GET)
     Page<Album> getSavedTracks(@RequestParam("offset") int offset,
                                @RequestParam("limit") int limit);
@@ -2,28 +2,92 @@ package page.crates.spotify.client;
 
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import feign.Feign;
+import feign.Request;
 import feign.Retryer;
+import feign.hc5.ApacheHttp5Client;
 import feign.jackson.JacksonEncoder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.openfeign.support.SpringMvcContract;
 import org.springframework.stereotype.Component;
-import page.crates.spotify.client.interceptor.BearerTokenHeaderInterceptor;
+import page.crates.spotify.client.interceptor.ContextBearerTokenInterceptor;
 
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Builds the Spotify client once, on a pooled keep-alive transport. Each call made through a client
+ * handed out by {@link #get(Context)} carries that context's bearer token.
+ */
 @Component
 public class SpotifyClientProviderImpl implements SpotifyClientProvider {
     @Value("${spotify.api.base.uri}")
     private String baseUri;
+    @Value("${spotify.client.max-connections:64}")
+    private int maxConnections;
+    @Value("${spotify.client.connect-timeout:5s}")
+    private Duration connectTimeout;
+    @Value("${spotify.client.read-timeout:15s}")
+    private Duration readTimeout;
+    @Value("${spotify.client.idle-timeout:30s}")
+    private Duration idleTimeout;
 
-    @Override
-    public SpotifyClient get(final Context context) {
-        return Feign.builder()
-                .retryer(new Retryer.Default(100, 10000, 10))
-                .requestInterceptor(new BearerTokenHeaderInterceptor(context.token()))
+    private CloseableHttpClient httpClient;
+    private SpotifyClient client;
+
+    @PostConstruct
+    void start() {
+        httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnections)
+                        .build())
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout.toMillis()))
+                .disableAutomaticRetries()
+                .build();
+        client = Feign.builder()
+                .client(new ApacheHttp5Client(httpClient))
+                .options(new Request.Options(
+                        connectTimeout.toMillis(), TimeUnit.MILLISECONDS,
+                        readTimeout.toMillis(), TimeUnit.MILLISECONDS,
+                        true))
+                // rate limiting and its retries are handled by SpotifyGateway
+                .retryer(Retryer.NEVER_RETRY)
+                .requestInterceptor(new ContextBearerTokenInterceptor())
                 .encoder(new JacksonEncoder(List.of(new JavaTimeModule())))
                 .decoder(new SpotifyJacksonDecoder(List.of(new JavaTimeModule())))
                 .contract(new SpringMvcContract())
                 .target(SpotifyClient.class, baseUri);
     }
+
+    @PreDestroy
+    void stop() throws IOException {
+        httpClient.close();
+    }
+
+    @Override
+    public SpotifyClient get(final Context context) {
+        return (SpotifyClient) Proxy.newProxyInstance(
+                SpotifyClient.class.getClassLoader(),
+                new Class<?>[]{SpotifyClient.class},
+                (proxy, method, args) -> {
+                    final Context previous = ContextBearerTokenInterceptor.bind(context);
+                    try {
+                        return method.invoke(client, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        ContextBearerTokenInterceptor.bind(previous);
+                    }
+                });
+    }
 }
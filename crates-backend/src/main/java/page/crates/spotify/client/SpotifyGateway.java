@@ -0,0 +1,15 @@
+package page.crates.spotify.client;
+
+import java.util.function.Supplier;
+
+/**
+ * Every Spotify API call goes through the gateway, which spends from a request budget shared by
+ * all users and threads and backs off everyone when Spotify answers 429.
+ */
+public interface SpotifyGateway {
+    /**
+     * Waits for the budget to allow a request of the given priority, then makes the call,
+     * retrying it after Spotify's Retry-After when it is rate limited.
+     */
+    <T> T execute(SpotifyRequestPriority priority, Supplier<T> call);
+}
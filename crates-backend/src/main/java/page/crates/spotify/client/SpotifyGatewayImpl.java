@@ -0,0 +1,193 @@
+package page.crates.spotify.client;
+
+import feign.FeignException;
+import feign.RetryableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import page.crates.exception.SpotifyThrottledException;
+import page.crates.util.SystemTimeFacade;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Token bucket shared by every Spotify call. Interactive requests take tokens ahead of background
+ * ones: a background caller only proceeds while no interactive caller is waiting. A 429 pauses
+ * the whole bucket for Retry-After plus jitter, since Spotify's limit applies to the app rather
+ * than to a single user.
+ */
+@Component
+@Slf4j
+public class SpotifyGatewayImpl implements SpotifyGateway {
+    @Resource
+    private MeterRegistry meterRegistry;
+    @Resource
+    private SystemTimeFacade systemTimeFacade;
+
+    @Value("${spotify.gateway.requests-per-second:10}")
+    private double requestsPerSecond;
+    @Value("${spotify.gateway.burst:20}")
+    private int burst;
+    @Value("${spotify.gateway.max-retries:3}")
+    private int maxRetries;
+    @Value("${spotify.gateway.interactive-max-wait:10s}")
+    private Duration interactiveMaxWait;
+    @Value("${spotify.gateway.default-retry-after:1s}")
+    private Duration defaultRetryAfter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Map<SpotifyRequestPriority, AtomicInteger> waiting = new EnumMap<>(SpotifyRequestPriority.class);
+    private final Map<SpotifyRequestPriority, Counter> requests = new EnumMap<>(SpotifyRequestPriority.class);
+    private final Map<SpotifyRequestPriority, Counter> rejected = new EnumMap<>(SpotifyRequestPriority.class);
+    private final Map<SpotifyRequestPriority, Timer> waits = new EnumMap<>(SpotifyRequestPriority.class);
+    private Counter throttled;
+    private long nanosPerToken;
+    private double tokens;
+    private long refilledAt;
+    private long pausedUntil;
+
+    @PostConstruct
+    void start() {
+        nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        tokens = burst;
+        refilledAt = systemTimeFacade.nanoTime();
+        pausedUntil = refilledAt;
+        for (final SpotifyRequestPriority priority : SpotifyRequestPriority.values()) {
+            final Tags tags = Tags.of("priority", priority.name().toLowerCase(Locale.ROOT));
+            waiting.put(priority, meterRegistry.gauge("spotify.gateway.queue", tags, new AtomicInteger()));
+            requests.put(priority, meterRegistry.counter("spotify.gateway.requests", tags));
+            rejected.put(priority, meterRegistry.counter("spotify.gateway.rejected", tags));
+            waits.put(priority, meterRegistry.timer("spotify.gateway.wait", tags));
+        }
+        throttled = meterRegistry.counter("spotify.gateway.throttled");
+    }
+
+    @Override
+    public <T> T execute(final SpotifyRequestPriority priority, final Supplier<T> call) {
+        for (int attempt = 0; ; attempt++) {
+            acquire(priority);
+            try {
+                return call.get();
+            } catch (FeignException e) {
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                if (e.status() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                    throttled.increment();
+                    final Duration pause = retryAfter(e, attempt);
+                    log.warn("spotify rate limited, pausing all requests for {}", pause);
+                    pause(pause);
+                } else if (e instanceof RetryableException && e.status() < 0) {
+                    // connection-level failure with no response; Feign's own retryer is off
+                    backoff(attempt);
+                } else {
+                    throw e;
+                }
+                SpotifyRetryTracker.retried();
+            }
+        }
+    }
+
+    private void acquire(final SpotifyRequestPriority priority) {
+        final long start = systemTimeFacade.nanoTime();
+        final long deadline = SpotifyRequestPriority.INTERACTIVE == priority
+                ? start + interactiveMaxWait.toNanos()
+                : Long.MAX_VALUE;
+        final AtomicInteger queue = waiting.get(priority);
+        queue.incrementAndGet();
+        lock.lock();
+        try {
+            while (true) {
+                final long now = systemTimeFacade.nanoTime();
+                refill(now);
+                final long wait;
+                if (now - pausedUntil < 0) {
+                    wait = pausedUntil - now;
+                } else if (SpotifyRequestPriority.BACKGROUND == priority
+                           && waiting.get(SpotifyRequestPriority.INTERACTIVE).get() > 0) {
+                    wait = nanosPerToken;
+                } else if (tokens >= 1) {
+                    tokens -= 1;
+                    requests.get(priority).increment();
+                    waits.get(priority).record(now - start, TimeUnit.NANOSECONDS);
+                    return;
+                } else {
+                    wait = (long) ((1 - tokens) * nanosPerToken);
+                }
+                if (deadline - now <= 0) {
+                    rejected.get(priority).increment();
+                    throw new SpotifyThrottledException("timed out waiting for Spotify request budget");
+                }
+                available.awaitNanos(Math.min(wait, deadline - now));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SpotifyThrottledException("interrupted waiting for Spotify request budget");
+        } finally {
+            lock.unlock();
+            queue.decrementAndGet();
+        }
+    }
+
+    private void backoff(final int attempt) {
+        final long base = defaultRetryAfter.toMillis() << attempt;
+        try {
+            Thread.sleep(base + ThreadLocalRandom.current().nextLong(base / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SpotifyThrottledException("interrupted retrying Spotify request");
+        }
+    }
+
+    private void refill(final long now) {
+        tokens = Math.min(burst, tokens + (double) (now - refilledAt) / nanosPerToken);
+        refilledAt = now;
+    }
+
+    private void pause(final Duration pause) {
+        lock.lock();
+        try {
+            final long until = systemTimeFacade.nanoTime() + pause.toNanos();
+            if (until - pausedUntil > 0) {
+                pausedUntil = until;
+            }
+            // resume at the steady rate rather than with a full burst
+            tokens = 0;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Spotify's Retry-After when present, otherwise exponential backoff; either way with up to
+     * half again of random jitter so paused callers don't all come back on the same tick.
+     */
+    private Duration retryAfter(final FeignException e, final int attempt) {
+        final Collection<String> header = e.responseHeaders().getOrDefault("Retry-After", List.of());
+        final long base = header.isEmpty()
+                ? defaultRetryAfter.toMillis() << attempt
+                : TimeUnit.SECONDS.toMillis(Math.max(1, NumberUtils.toLong(header.iterator().next(), 1)));
+        return Duration.ofMillis(base + ThreadLocalRandom.current().nextLong(base / 2 + 1));
+    }
+}
@@ -9,7 +9,6 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
-import page.crates.service.CurrentUserService;
 import page.crates.service.UserTokenService;
 import page.crates.spotify.client.api.Album;
 import page.crates.spotify.client.api.Artist;
@@ -17,10 +16,13 @@ import page.crates.spotify.client.api.FollowRequest;
 import page.crates.spotify.client.api.LibraryAlbum;
 import page.crates.spotify.client.api.Playlist;
 import page.crates.spotify.client.api.PlaylistFollowRequest;
+import page.crates.spotify.client.api.SavedAlbum;
+import page.crates.spotify.client.api.SavedAlbumPage;
 import page.crates.spotify.client.api.Track;
 import page.crates.spotify.client.api.User;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -33,7 +35,11 @@ public class SpotifyImpl implements Spotify {
     @Resource
     private UserTokenService userTokenService;
     @Resource
-    private CurrentUserService currentUserService;
+    private SpotifyServiceTokenProvider spotifyServiceTokenProvider;
+    @Resource
+    private SpotifyGateway spotifyGateway;
+    @Resource
+    private SpotifyMetadataCache spotifyMetadataCache;
 
 
     @Override
@@ -47,27 +53,46 @@ public class SpotifyImpl implements Spotify {
     }
 
     public void doWithRetry(Consumer<Context> consumer, Context context) {
-        try {
-            consumer.accept(context);
-        } catch (FeignException e) {
-            if (e.status() == HttpStatus.UNAUTHORIZED.value()) {
-                consumer.accept(refreshContext());
-            }
-            throw e;
-        }
+        executeWithRetry(ctx -> {
+            consumer.accept(ctx);
+            return null;
+        }, context);
     }
 
+    /**
+     * User contexts pick up the user's current token when the call is made, so work queued behind
+     * the gateway or running for a long time never sends a token that was already replaced.
+     */
     public <T> T executeWithRetry(Function<Context, T> function, Context context) {
+        final AtomicReference<Context> sent = new AtomicReference<>(context);
         try {
-            return function.apply(context);
+            final T result = spotifyGateway.execute(
+                    context.priority(), () -> function.apply(sent.updateAndGet(this::withCurrentToken)));
+            markValid(sent.get());
+            return result;
         } catch (FeignException e) {
             if (e.status() == HttpStatus.UNAUTHORIZED.value()) {
-                return function.apply(refreshContext());
+                final Context refreshed = refreshContext(sent.get());
+                final T result = spotifyGateway.execute(context.priority(), () -> function.apply(refreshed));
+                markValid(refreshed);
+                return result;
             }
             throw e;
         }
     }
 
+    private void markValid(final Context context) {
+        if (null != context.userId()) {
+            userTokenService.markValid(context.userId(), context.token());
+        }
+    }
+
+    private Context withCurrentToken(final Context context) {
+        return null == context.userId()
+                ? context
+                : context.withToken(userTokenService.getAccessToken(context.userId()));
+    }
+
     @Override
     public void followArtists(Context context, List<String> ids) {
         doWithRetry(ctx -> getClient(ctx).followEntity("artist", new FollowRequest(ids)), context);
@@ -85,12 +110,24 @@ public class SpotifyImpl implements Spotify {
 
     @Override
     public Album getAlbum(Context context, String id) {
-        return executeWithRetry((ctx) -> getClient(ctx).getAlbum(id), context);
+        return spotifyMetadataCache.getAlbum(id, () -> executeWithRetry((ctx) -> getClient(ctx).getAlbum(id), context));
+    }
+
+    @Override
+    public List<Album> getAlbums(Context context, List<String> ids) {
+        return spotifyMetadataCache.getAlbums(ids, missing -> executeWithRetry(
+                (ctx) -> getClient(ctx).getAlbums(String.join(",", missing)).getAlbums(), context));
+    }
+
+    @Override
+    public List<Artist> getArtists(Context context, List<String> ids) {
+        return spotifyMetadataCache.getArtists(ids, missing -> executeWithRetry(
+                (ctx) -> getClient(ctx).getArtists(String.join(",", missing)).getArtists(), context));
     }
 
     @Override
     public Artist getArtist(Context context, String id) {
-        return executeWithRetry((ctx) -> getClient(context).getArtist(id), context);
+        return spotifyMetadataCache.getArtist(id, () -> executeWithRetry((ctx) -> getClient(ctx).getArtist(id), context));
     }
 
 
@@ -128,16 +165,16 @@ public class SpotifyImpl implements Spotify {
     }
 
     @Override
-    public Page<LibraryAlbum> getSavedLibraryAlbums(Context context, Pageable pageable) {
+    public Page<SavedAlbum> getSavedLibraryAlbums(Context context, Pageable pageable) {
         return executeWithRetry((ctx) -> {
-            final page.crates.spotify.client.api.Page<LibraryAlbum> albumPage = getClient(ctx)
-                    .getSavedAlbums(
+            final SavedAlbumPage albumPage = getClient(ctx)
+                    .getSavedAlbumPage(
                             pageable.getPageSize() * pageable.getPageNumber(),
                             pageable.getPageSize());
             return new PageImpl<>(
-                    albumPage.getItems(),
+                    albumPage.items(),
                     pageable,
-                    albumPage.getTotal());
+                    albumPage.total());
         }, context);
     }
 
@@ -153,20 +190,23 @@ public class SpotifyImpl implements Spotify {
                 context);
     }
 
-    private Context refreshContext() {
-        userTokenService.refreshToken();
-        return Context.forToken(currentUserService.getCurrentUser().getToken().getAccessToken());
+    private Context refreshContext(final Context context) {
+        if (null != context.userId()) {
+            return context.withToken(userTokenService.refreshAccessToken(context.userId(), context.token()));
+        }
+        spotifyServiceTokenProvider.invalidate(context.token());
+        return context.withToken(spotifyServiceTokenProvider.getAccessToken());
     }
 
     @Override
     public Page<Album> searchAlbums(final Context context,
                                     final String query,
                                     final Pageable pageable) {
-        return executeWithRetry((ctx) -> {
+        return spotifyMetadataCache.searchAlbums(query, pageable, () -> executeWithRetry((ctx) -> {
             final page.crates.spotify.client.api.Page<Album> albumPage = getClient(ctx)
                     .search(query, "album", pageable.getPageSize() * pageable.getPageNumber(), pageable.getPageSize())
                     .getAlbums();
             return new PageImpl<>(albumPage.getItems(), pageable, albumPage.getTotal());
-        }, context);
+        }, context));
     }
 }
@@ -1,21 +1,45 @@
 package page.crates.spotify.client;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.Response;
+import feign.Util;
 import feign.jackson.JacksonDecoder;
+import page.crates.spotify.client.api.SavedAlbumPage;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Type;
 
+/**
+ * Binds responses with Jackson, except saved album pages, which library sync reads in bulk and which
+ * go through {@link SavedAlbumPageReader} instead.
+ */
 public class SpotifyJacksonDecoder extends JacksonDecoder {
+    private final SavedAlbumPageReader savedAlbumPageReader;
 
     public SpotifyJacksonDecoder(Iterable<Module> modules) {
-        super(modules);
+        this(new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .registerModules(modules));
+    }
+
+    public SpotifyJacksonDecoder(ObjectMapper mapper) {
+        super(mapper);
+        this.savedAlbumPageReader = new SavedAlbumPageReader(mapper.getFactory());
     }
 
     @Override
     public Object decode(Response response, Type type) throws IOException {
-        // TODO: some kind of response to 429s
-        return super.decode(response, type);
+        if (SavedAlbumPage.class != type) {
+            return super.decode(response, type);
+        }
+        if (response.status() == 404 || response.status() == 204 || null == response.body()) {
+            return Util.emptyValueOf(type);
+        }
+        try (Reader reader = response.body().asReader(response.charset())) {
+            return savedAlbumPageReader.read(reader);
+        }
     }
 }
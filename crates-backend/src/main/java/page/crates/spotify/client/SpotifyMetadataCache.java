@@ -0,0 +1,36 @@
+package page.crates.spotify.client;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import page.crates.spotify.client.api.Album;
+import page.crates.spotify.client.api.Artist;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of catalog metadata, which changes rarely enough to share across users for a
+ * while. Each method returns the cached value or calls the loader and caches what it returns;
+ * nulls are never cached.
+ */
+public interface SpotifyMetadataCache {
+    Album getAlbum(String id, Supplier<Album> loader);
+
+    /**
+     * Serves the cached albums and loads only the rest, in the order of {@code ids}.
+     */
+    List<Album> getAlbums(List<String> ids, Function<List<String>, List<Album>> loader);
+
+    Artist getArtist(String id, Supplier<Artist> loader);
+
+    /**
+     * Serves the cached artists and loads only the rest, in the order of {@code ids}.
+     */
+    List<Artist> getArtists(List<String> ids, Function<List<String>, List<Artist>> loader);
+
+    /**
+     * Searches are keyed by the normalized query (trimmed, lower-cased, whitespace collapsed) and page.
+     */
+    Page<Album> searchAlbums(String query, Pageable pageable, Supplier<Page<Album>> loader);
+}
@@ -0,0 +1,130 @@
+package page.crates.spotify.client;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import page.crates.spotify.client.api.Album;
+import page.crates.spotify.client.api.Artist;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+@Component
+public class SpotifyMetadataCacheImpl implements SpotifyMetadataCache {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    @Value("${spotify.cache.album.max-size:20000}")
+    private long albumMaxSize;
+    @Value("${spotify.cache.album.ttl:6h}")
+    private Duration albumTtl;
+    @Value("${spotify.cache.artist.max-size:20000}")
+    private long artistMaxSize;
+    @Value("${spotify.cache.artist.ttl:6h}")
+    private Duration artistTtl;
+    @Value("${spotify.cache.search.max-size:2000}")
+    private long searchMaxSize;
+    @Value("${spotify.cache.search.ttl:15m}")
+    private Duration searchTtl;
+
+    private Cache<String, Album> albums;
+    private Cache<String, Artist> artists;
+    private Cache<SearchKey, Page<Album>> searches;
+
+    @PostConstruct
+    void start() {
+        albums = build("spotify.album", albumMaxSize, albumTtl);
+        artists = build("spotify.artist", artistMaxSize, artistTtl);
+        searches = build("spotify.search", searchMaxSize, searchTtl);
+    }
+
+    private <K, V> Cache<K, V> build(final String name, final long maxSize, final Duration ttl) {
+        final Cache<K, V> cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+
+    @Override
+    public Album getAlbum(final String id, final Supplier<Album> loader) {
+        return get(albums, id, loader);
+    }
+
+    @Override
+    public List<Album> getAlbums(final List<String> ids, final Function<List<String>, List<Album>> loader) {
+        return getAll(albums, ids, loader, Album::getId);
+    }
+
+    @Override
+    public Artist getArtist(final String id, final Supplier<Artist> loader) {
+        return get(artists, id, loader);
+    }
+
+    @Override
+    public List<Artist> getArtists(final List<String> ids, final Function<List<String>, List<Artist>> loader) {
+        return getAll(artists, ids, loader, Artist::getId);
+    }
+
+    @Override
+    public Page<Album> searchAlbums(final String query, final Pageable pageable, final Supplier<Page<Album>> loader) {
+        final SearchKey key = new SearchKey(
+                WHITESPACE.matcher(query.trim()).replaceAll(" ").toLowerCase(Locale.ROOT),
+                pageable.getPageNumber(),
+                pageable.getPageSize());
+        return get(searches, key, loader);
+    }
+
+    private static <K, V> V get(final Cache<K, V> cache, final K key, final Supplier<V> loader) {
+        final V cached = cache.getIfPresent(key);
+        if (null != cached) {
+            return cached;
+        }
+        final V loaded = loader.get();
+        if (null != loaded) {
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    private static <V> List<V> getAll(final Cache<String, V> cache,
+                                      final List<String> ids,
+                                      final Function<List<String>, List<V>> loader,
+                                      final Function<V, String> idOf) {
+        final Map<String, V> found = new HashMap<>(cache.getAllPresent(ids));
+        final List<String> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            loader.apply(missing).stream()
+                    .filter(Objects::nonNull)
+                    .forEach(value -> {
+                        cache.put(idOf.apply(value), value);
+                        found.put(idOf.apply(value), value);
+                    });
+        }
+        final List<V> result = new ArrayList<>(ids.size());
+        ids.forEach(id -> result.add(found.get(id)));
+        return result;
+    }
+
+    private record SearchKey(String query, int page, int size) {
+    }
+}
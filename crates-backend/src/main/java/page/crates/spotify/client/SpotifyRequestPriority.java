@@ -0,0 +1,6 @@
+package page.crates.spotify.client;
+
+public enum SpotifyRequestPriority {
+    INTERACTIVE,
+    BACKGROUND
+}
@@ -0,0 +1,38 @@
+package page.crates.spotify.client;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Lets a caller count the retries {@link SpotifyGateway} makes on its behalf. The gateway retries
+ * on the calling thread, so a listener registered around a call sees exactly that call's retries.
+ */
+public final class SpotifyRetryTracker {
+    private static final ThreadLocal<Runnable> LISTENER = new ThreadLocal<>();
+
+    private SpotifyRetryTracker() {
+    }
+
+    /**
+     * Runs the call, invoking {@code onRetry} each time the gateway retries a Spotify request made by it.
+     */
+    public static <T> T track(final Runnable onRetry, final Callable<T> call) throws Exception {
+        final Runnable previous = LISTENER.get();
+        LISTENER.set(onRetry);
+        try {
+            return call.call();
+        } finally {
+            if (null == previous) {
+                LISTENER.remove();
+            } else {
+                LISTENER.set(previous);
+            }
+        }
+    }
+
+    static void retried() {
+        final Runnable listener = LISTENER.get();
+        if (null != listener) {
+            listener.run();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package page.crates.spotify.client;
+
+/**
+ * Hands out the client-credentials token used for calls made on behalf of the app rather than a user.
+ */
+public interface SpotifyServiceTokenProvider {
+    /**
+     * @return a valid service access token, exchanging for a new one only when the cached token is
+     * missing or about to expire.
+     */
+    String getAccessToken();
+
+    /**
+     * Drops the cached token if it is still {@code rejectedToken}, so the next
+     * {@link #getAccessToken()} exchanges a new one. A token that has been replaced already is kept.
+     */
+    void invalidate(String rejectedToken);
+}
@@ -0,0 +1,125 @@
+package page.crates.spotify.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import page.crates.util.CompletableFutures;
+import page.crates.util.SystemTimeFacade;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Caches the service token until shortly before it expires. Once inside the refresh-ahead window,
+ * callers keep getting the cached token while a single background exchange replaces it; only a
+ * missing or expired token makes callers wait, and then all of them wait on the same exchange.
+ */
+@Component
+@Slf4j
+public class SpotifyServiceTokenProviderImpl implements SpotifyServiceTokenProvider {
+    @Resource
+    private SpotifyAuth spotifyAuth;
+    @Resource
+    private SystemTimeFacade systemTimeFacade;
+
+    @Value("${spotify.service-token.refresh-ahead:5m}")
+    private Duration refreshAhead;
+    @Value("${spotify.service-token.expiry-margin:30s}")
+    private Duration expiryMargin;
+
+    private final AtomicReference<CompletableFuture<ServiceToken>> inFlight = new AtomicReference<>();
+    private final AtomicReference<ServiceToken> token = new AtomicReference<>();
+    private ExecutorService refresher;
+
+    @PostConstruct
+    void start() {
+        refresher = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder()
+                        .setNameFormat("spotify-service-token")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+    }
+
+    @Override
+    public String getAccessToken() {
+        final ServiceToken current = token.get();
+        final Instant now = systemTimeFacade.now();
+        if (null != current && now.isBefore(current.expiresAt())) {
+            if (!now.isBefore(current.refreshAt())) {
+                refresh(true);
+            }
+            return current.accessToken();
+        }
+        return CompletableFutures.join(refresh(false)).accessToken();
+    }
+
+    /**
+     * Joins the exchange in flight, or claims the refresh and only then checks whether it is still
+     * needed: a caller that read the token just before another exchange finished would otherwise
+     * start a second one.
+     */
+    private CompletableFuture<ServiceToken> refresh(final boolean background) {
+        while (true) {
+            final CompletableFuture<ServiceToken> existing = inFlight.get();
+            if (null != existing) {
+                return existing;
+            }
+            final CompletableFuture<ServiceToken> exchange = new CompletableFuture<>();
+            if (!inFlight.compareAndSet(null, exchange)) {
+                continue;
+            }
+            final ServiceToken current = token.get();
+            if (null != current && systemTimeFacade.now().isBefore(current.refreshAt())) {
+                exchange.complete(current);
+                inFlight.compareAndSet(exchange, null);
+            } else if (background) {
+                refresher.execute(() -> exchange(exchange));
+            } else {
+                exchange(exchange);
+            }
+            return exchange;
+        }
+    }
+
+    @Override
+    public void invalidate(final String rejectedToken) {
+        final ServiceToken current = token.get();
+        if (null != current && current.accessToken().equals(rejectedToken) && token.compareAndSet(current, null)) {
+            log.info("spotify rejected the cached service token, exchanging a new one on next use");
+        }
+    }
+
+    private void exchange(final CompletableFuture<ServiceToken> exchange) {
+        try {
+            final TokenResponse response = spotifyAuth.getServiceToken();
+            final Instant issuedAt = systemTimeFacade.now();
+            final Instant expiresAt = issuedAt.plusSeconds(response.getExpiresIn()).minus(expiryMargin);
+            final ServiceToken refreshed = new ServiceToken(
+                    response.getAccessToken(), expiresAt.minus(refreshAhead), expiresAt);
+            token.set(refreshed);
+            log.debug("refreshed spotify service token, valid until {}", expiresAt);
+            exchange.complete(refreshed);
+        } catch (RuntimeException e) {
+            log.warn("spotify service token exchange failed", e);
+            exchange.completeExceptionally(e);
+        } finally {
+            inFlight.compareAndSet(exchange, null);
+        }
+    }
+
+    private record ServiceToken(String accessToken, Instant refreshAt, Instant expiresAt) {
+    }
+}
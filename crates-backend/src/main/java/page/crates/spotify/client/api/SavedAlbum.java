@@ -0,0 +1,24 @@
+package page.crates.spotify.client.api;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The part of a saved-album item that library sync persists. Read straight off the response by
+ * {@link page.crates.spotify.client.SavedAlbumPageReader}; tracks, markets and copyrights are never materialized.
+ */
+public record SavedAlbum(String id,
+                         String name,
+                         String href,
+                         String upc,
+                         String releaseDate,
+                         String releaseDatePrecision,
+                         List<Image> images,
+                         List<String> artistIds,
+                         List<String> genres,
+                         Instant addedAt) implements Serializable {
+    public SavedAlbum withAddedAt(final Instant addedAt) {
+        return new SavedAlbum(id, name, href, upc, releaseDate, releaseDatePrecision, images, artistIds, genres, addedAt);
+    }
+}
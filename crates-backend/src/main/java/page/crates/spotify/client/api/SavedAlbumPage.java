@@ -0,0 +1,7 @@
+package page.crates.spotify.client.api;
+
+import java.io.Serializable;
+import java.util.List;
+
+public record SavedAlbumPage(List<SavedAlbum> items, int total) implements Serializable {
+}
@@ -0,0 +1,24 @@
+package page.crates.spotify.client.api;
+
+import page.crates.util.JsonToString;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class SeveralAlbums implements Serializable {
+    private static final long serialVersionUID = 5193409276624510742L;
+    private List<Album> albums;
+
+    public List<Album> getAlbums() {
+        return albums;
+    }
+
+    public void setAlbums(List<Album> albums) {
+        this.albums = albums;
+    }
+
+    @Override
+    public String toString() {
+        return JsonToString.write(this);
+    }
+}
@@ -0,0 +1,24 @@
+package page.crates.spotify.client.api;
+
+import page.crates.util.JsonToString;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class SeveralArtists implements Serializable {
+    private static final long serialVersionUID = -4817050336018227465L;
+    private List<Artist> artists;
+
+    public List<Artist> getArtists() {
+        return artists;
+    }
+
+    public void setArtists(List<Artist> artists) {
+        this.artists = artists;
+    }
+
+    @Override
+    public String toString() {
+        return JsonToString.write(this);
+    }
+}
@@ -0,0 +1,34 @@
+package page.crates.spotify.client.interceptor;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import page.crates.spotify.client.Context;
+
+/**
+ * Adds the bearer token of the context bound to the calling thread, so a single shared client
+ * can serve every user.
+ */
+public class ContextBearerTokenInterceptor implements RequestInterceptor {
+    private static final ThreadLocal<Context> CONTEXT = new ThreadLocal<>();
+
+    /**
+     * @return the previously bound context, to restore once the call returns.
+     */
+    public static Context bind(final Context context) {
+        final Context previous = CONTEXT.get();
+        if (null == context) {
+            CONTEXT.remove();
+        } else {
+            CONTEXT.set(context);
+        }
+        return previous;
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        final Context context = CONTEXT.get();
+        if (null != context) {
+            template.header("Authorization", "Bearer " + context.token());
+        }
+    }
+}
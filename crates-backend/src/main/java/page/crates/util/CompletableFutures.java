@@ -0,0 +1,24 @@
+package page.crates.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public final class CompletableFutures {
+    private CompletableFutures() {
+    }
+
+    /**
+     * Waits for the future and rethrows a runtime failure as itself rather than wrapped in a
+     * {@link CompletionException}, so exception handlers and {@code @ResponseStatus} mappings still apply.
+     */
+    public static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
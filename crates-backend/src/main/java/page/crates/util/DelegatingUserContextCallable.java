@@ -0,0 +1,27 @@
+package page.crates.util;
+
+import page.crates.entity.SpotifyUser;
+import page.crates.security.UserContextHolder;
+
+import java.util.concurrent.Callable;
+
+public final class DelegatingUserContextCallable<T> implements Callable<T> {
+    private final Callable<T> delegate;
+    private final SpotifyUser delegateContext;
+
+    public DelegatingUserContextCallable(final Callable<T> delegate, final SpotifyUser delegateContext) {
+        this.delegate = delegate;
+        this.delegateContext = delegateContext;
+    }
+
+    @Override
+    public T call() throws Exception {
+        final SpotifyUser originalContext = UserContextHolder.getUserContext();
+        try {
+            UserContextHolder.setUserContext(delegateContext);
+            return delegate.call();
+        } finally {
+            UserContextHolder.setUserContext(originalContext);
+        }
+    }
+}
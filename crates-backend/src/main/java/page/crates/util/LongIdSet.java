@@ -0,0 +1,69 @@
+package page.crates.util;
+
+import java.util.Arrays;
+
+/**
+ * Append-only set of ids backed by a primitive array. Values are sorted and
+ * de-duplicated lazily, so adding is cheap and a library of tens of thousands
+ * of albums costs a few hundred KB instead of a boxed HashSet. Not thread-safe.
+ */
+public final class LongIdSet {
+    private long[] values;
+    private int size;
+    private boolean compacted = true;
+
+    public LongIdSet() {
+        this(64);
+    }
+
+    public LongIdSet(final int initialCapacity) {
+        this.values = new long[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(final long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[size++] = value;
+        compacted = false;
+    }
+
+    public void addAll(final long[] toAdd) {
+        for (long value : toAdd) {
+            add(value);
+        }
+    }
+
+    public boolean contains(final long value) {
+        compact();
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    public int size() {
+        compact();
+        return size;
+    }
+
+    /**
+     * @return the distinct values in ascending order.
+     */
+    public long[] toArray() {
+        compact();
+        return Arrays.copyOf(values, size);
+    }
+
+    private void compact() {
+        if (compacted) {
+            return;
+        }
+        Arrays.sort(values, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || values[i] != values[distinct - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+        size = distinct;
+        compacted = true;
+    }
+}
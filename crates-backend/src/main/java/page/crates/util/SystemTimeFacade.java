@@ -4,4 +4,9 @@ import java.time.Instant;
 
 public interface SystemTimeFacade {
     Instant now();
+
+    /**
+     * Monotonic nanoseconds for measuring elapsed time, as {@link System#nanoTime()}.
+     */
+    long nanoTime();
 }
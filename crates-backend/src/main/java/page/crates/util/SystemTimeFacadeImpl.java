@@ -10,4 +10,9 @@ public class SystemTimeFacadeImpl implements SystemTimeFacade {
     public Instant now() {
         return Instant.now();
     }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
 }
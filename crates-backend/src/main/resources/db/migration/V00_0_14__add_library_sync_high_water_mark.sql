@@ -0,0 +1,6 @@
+-- Track the newest saved-album timestamp we've mirrored so refreshes can stop paging early
+ALTER TABLE library ADD COLUMN last_added_at TIMESTAMP NULL;
+ALTER TABLE library ADD COLUMN last_full_sync_at TIMESTAMP NULL;
+
+COMMENT ON COLUMN library.last_added_at IS 'Newest Spotify added_at seen by a successful sync; delta syncs stop paging once they reach it.';
+COMMENT ON COLUMN library.last_full_sync_at IS 'When the whole Spotify library was last walked; delta syncs fall back to a full walk once this gets old.';
@@ -0,0 +1,11 @@
+-- Persist sync progress so an interrupted or failed full sync can pick up where it stopped
+ALTER TABLE library ADD COLUMN sync_generation BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE library ADD COLUMN sync_phase VARCHAR(64) NULL;
+ALTER TABLE library ADD COLUMN sync_offset INT NULL;
+
+-- Used by the startup sweep that picks up syncs left running by a restart
+CREATE INDEX idx_library_state ON library (state);
+
+COMMENT ON COLUMN library.sync_generation IS 'Compare-and-set incremented by every sync as it starts, resumed or not; checkpoints are only written while it still holds the generation it claimed.';
+COMMENT ON COLUMN library.sync_phase IS 'Phase of the sync in progress, null when no sync is running or resumable.';
+COMMENT ON COLUMN library.sync_offset IS 'Number of saved albums of the current full walk that are committed; a resumed walk continues from this offset.';
@@ -0,0 +1,3 @@
+-- Serves library scrolling from the local mirror: newest first, keyset on (added_at, id)
+CREATE INDEX idx_library_album_user_added_at ON library_album (spotify_user_id, added_at DESC, id DESC)
+    WHERE state = 'ACTIVE';
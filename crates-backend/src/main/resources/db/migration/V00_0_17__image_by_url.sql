@@ -0,0 +1,34 @@
+-- Images are shared by URL from now on. Existing duplicates are merged in batches by the image
+-- compaction job, which swaps this index for a unique one once none are left.
+CREATE INDEX IF NOT EXISTS idx_image_url ON image (url);
+
+-- Best cover per size class, chosen once when the album is stored instead of on every read
+ALTER TABLE album ADD COLUMN image_small_url VARCHAR(512) NULL;
+ALTER TABLE album ADD COLUMN image_medium_url VARCHAR(512) NULL;
+ALTER TABLE album ADD COLUMN image_large_url VARCHAR(512) NULL;
+
+COMMENT ON COLUMN album.image_small_url IS 'Widest cover at most 100px wide, else the narrowest one.';
+COMMENT ON COLUMN album.image_medium_url IS 'Widest cover at most 400px wide, else the narrowest one.';
+COMMENT ON COLUMN album.image_large_url IS 'Widest cover.';
+
+UPDATE album a
+SET image_small_url  = (SELECT i.url
+                        FROM album_to_image ai
+                                 JOIN image i ON i.id = ai.image_id
+                        WHERE ai.album_id = a.id
+                        ORDER BY COALESCE(i.width, 0) > 100,
+                                 CASE WHEN COALESCE(i.width, 0) > 100 THEN i.width ELSE -COALESCE(i.width, 0) END
+                        LIMIT 1),
+    image_medium_url = (SELECT i.url
+                        FROM album_to_image ai
+                                 JOIN image i ON i.id = ai.image_id
+                        WHERE ai.album_id = a.id
+                        ORDER BY COALESCE(i.width, 0) > 400,
+                                 CASE WHEN COALESCE(i.width, 0) > 400 THEN i.width ELSE -COALESCE(i.width, 0) END
+                        LIMIT 1),
+    image_large_url  = (SELECT i.url
+                        FROM album_to_image ai
+                                 JOIN image i ON i.id = ai.image_id
+                        WHERE ai.album_id = a.id
+                        ORDER BY COALESCE(i.width, 0) DESC
+                        LIMIT 1);
@@ -0,0 +1,91 @@
+-- Library search matches a per-album document (album name + artist names, lower-cased and
+-- unaccented) through a trigram index instead of ILIKE over the album/artist join.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() is only STABLE because its dictionary could change; pinning the dictionary makes it
+-- usable in the indexed column and in queries the same way
+CREATE OR REPLACE FUNCTION crates_search_normalize(TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT AS
+$$
+SELECT lower(public.unaccent('public.unaccent'::regdictionary, $1))
+$$;
+
+CREATE OR REPLACE FUNCTION album_search_document(BIGINT, TEXT) RETURNS TEXT
+    LANGUAGE sql STABLE AS
+$$
+SELECT crates_search_normalize(concat_ws(' ', $2, string_agg(ar.name, ' ' ORDER BY ar.name)))
+FROM album_to_artist ata
+         JOIN artist ar ON ar.id = ata.artist_id
+WHERE ata.album_id = $1
+$$;
+
+ALTER TABLE album ADD COLUMN search_document TEXT NULL;
+
+COMMENT ON COLUMN album.search_document IS 'Normalized album and artist names for library search, maintained by triggers.';
+
+CREATE OR REPLACE FUNCTION album_search_document_on_album() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    NEW.search_document := album_search_document(NEW.id, NEW.name);
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER album_search_document_album
+    BEFORE INSERT OR UPDATE OF name
+    ON album
+    FOR EACH ROW
+EXECUTE FUNCTION album_search_document_on_album();
+
+-- statement level, so linking a whole page of albums rebuilds each document once
+CREATE OR REPLACE FUNCTION album_search_document_on_links() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE album a
+    SET search_document = album_search_document(a.id, a.name)
+    WHERE a.id IN (SELECT album_id FROM changed_links);
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER album_search_document_links_inserted
+    AFTER INSERT
+    ON album_to_artist
+    REFERENCING NEW TABLE AS changed_links
+    FOR EACH STATEMENT
+EXECUTE FUNCTION album_search_document_on_links();
+
+CREATE TRIGGER album_search_document_links_deleted
+    AFTER DELETE
+    ON album_to_artist
+    REFERENCING OLD TABLE AS changed_links
+    FOR EACH STATEMENT
+EXECUTE FUNCTION album_search_document_on_links();
+
+CREATE OR REPLACE FUNCTION album_search_document_on_artist() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE album a
+    SET search_document = album_search_document(a.id, a.name)
+    FROM album_to_artist ata
+    WHERE ata.album_id = a.id
+      AND ata.artist_id = NEW.id;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER album_search_document_artist
+    AFTER UPDATE OF name
+    ON artist
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+EXECUTE FUNCTION album_search_document_on_artist();
+
+UPDATE album
+SET search_document = album_search_document(id, name);
+
+CREATE INDEX idx_album_search_document ON album USING gin (search_document gin_trgm_ops);
@@ -0,0 +1,4 @@
+-- Back off background refreshes of libraries whose last one failed, so they stop crowding out the stalest healthy ones
+ALTER TABLE library ADD COLUMN next_refresh_at TIMESTAMP NULL;
+
+COMMENT ON COLUMN library.next_refresh_at IS 'Earliest time the background refresher may try this library again after a failed or skipped refresh; null when it is not backed off.';
@@ -0,0 +1,172 @@
+package page.crates.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+import page.crates.entity.Album;
+import page.crates.entity.Artist;
+import page.crates.repository.CatalogBatchRepository.Link;
+import page.crates.repository.CatalogBatchRepository.Upserted;
+
+import jakarta.annotation.Resource;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+class CatalogBatchRepositoryTest {
+    @Resource
+    private AlbumRepository albumRepository;
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void upsertAlbumsFlagsOnlyTheAlbumsItInserted() {
+        final Album existing = album();
+        final Map<String, Upserted> first = albumRepository.upsertAlbums(List.of(existing));
+        final Album added = album();
+
+        final Map<String, Upserted> second = albumRepository.upsertAlbums(List.of(existing, added));
+
+        assertThat(first.get(existing.getSpotifyId()).created(), equalTo(true));
+        assertThat(second, aMapWithSize(2));
+        assertThat(second.get(existing.getSpotifyId()), equalTo(
+                new Upserted(first.get(existing.getSpotifyId()).id(), false)));
+        assertThat(second.get(added.getSpotifyId()).created(), equalTo(true));
+        assertThat(albumRepository.findOneBySpotifyId(added.getSpotifyId()).getId(),
+                equalTo(second.get(added.getSpotifyId()).id()));
+    }
+
+    @Test
+    public void upsertAlbumsInsertsRepeatedAlbumsOnce() {
+        final Album album = album();
+
+        final Map<String, Upserted> upserted = albumRepository.upsertAlbums(List.of(album, album));
+
+        assertThat(upserted, aMapWithSize(1));
+        assertThat(count("SELECT count(*) FROM album WHERE spotify_id = ?", album.getSpotifyId()), equalTo(1));
+    }
+
+    @Test
+    public void upsertAlbumsReturnsAlbumsCommittedWhileItWaited() throws Exception {
+        final Album album = album();
+        final CountDownLatch inserted = new CountDownLatch(1);
+        final CountDownLatch commit = new CountDownLatch(1);
+        final CompletableFuture<Map<String, Upserted>> concurrent = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    final Map<String, Upserted> upserted = albumRepository.upsertAlbums(List.of(album));
+                    inserted.countDown();
+                    await(commit);
+                    return upserted;
+                }));
+        await(inserted);
+
+        // blocks on the uncommitted row, then skips it once the other transaction commits
+        final CompletableFuture<Map<String, Upserted>> waiting = CompletableFuture.supplyAsync(() ->
+                albumRepository.upsertAlbums(List.of(album)));
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count("SELECT count(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock'") == 0
+               && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        commit.countDown();
+
+        final Upserted winner = concurrent.get(10, TimeUnit.SECONDS).get(album.getSpotifyId());
+        assertThat(waiting.get(10, TimeUnit.SECONDS).get(album.getSpotifyId()),
+                equalTo(new Upserted(winner.id(), false)));
+    }
+
+    @Test
+    public void upsertArtistsFlagsOnlyTheArtistsItInserted() {
+        final Artist existing = artist();
+        final Map<String, Upserted> first = albumRepository.upsertArtists(List.of(existing));
+        final Artist added = artist();
+
+        final Map<String, Upserted> second = albumRepository.upsertArtists(List.of(existing, added, added));
+
+        assertThat(second, aMapWithSize(2));
+        assertThat(second.get(existing.getSpotifyId()), equalTo(
+                new Upserted(first.get(existing.getSpotifyId()).id(), false)));
+        assertThat(second.get(added.getSpotifyId()).created(), equalTo(true));
+        assertThat(albumRepository.findArtistIds(List.of(existing.getSpotifyId(), added.getSpotifyId())),
+                equalTo(Map.of(
+                        existing.getSpotifyId(), first.get(existing.getSpotifyId()).id(),
+                        added.getSpotifyId(), second.get(added.getSpotifyId()).id())));
+    }
+
+    @Test
+    public void upsertGenresReturnsNewAndExistingGenres() {
+        final String existing = "genre-" + UUID.randomUUID();
+        final Map<String, Long> first = albumRepository.upsertGenres(List.of(existing));
+        final String added = "genre-" + UUID.randomUUID();
+
+        final Map<String, Long> second = albumRepository.upsertGenres(List.of(existing, added, added));
+
+        assertThat(second, aMapWithSize(2));
+        assertThat(second.get(existing), equalTo(first.get(existing)));
+        assertThat(count("SELECT count(*) FROM genre WHERE name = ?", added), equalTo(1));
+    }
+
+    @Test
+    public void linkSkipsExistingRows() {
+        final long albumId = albumRepository.upsertAlbums(List.of(album())).values().iterator().next().id();
+        final Map<String, Upserted> artists = albumRepository.upsertArtists(List.of(artist(), artist()));
+        final long[] artistIds = artists.values().stream().mapToLong(Upserted::id).toArray();
+
+        albumRepository.link(Link.ALBUM_TO_ARTIST, new long[]{albumId}, new long[]{artistIds[0]});
+        albumRepository.link(Link.ALBUM_TO_ARTIST, new long[]{albumId, albumId}, artistIds);
+
+        assertThat(count("SELECT count(*) FROM album_to_artist WHERE album_id = ?", albumId), equalTo(2));
+    }
+
+    private int count(final String sql, final Object... args) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, args);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("timed out waiting for the other transaction");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Album album() {
+        final String spotifyId = "album-" + UUID.randomUUID();
+        return Album.builder()
+                .spotifyId(spotifyId)
+                .name(spotifyId)
+                .href("https://api.spotify.com/v1/albums/" + spotifyId)
+                .releaseDate(Instant.now())
+                .build();
+    }
+
+    private static Artist artist() {
+        final String spotifyId = "artist-" + UUID.randomUUID();
+        return Artist.builder()
+                .spotifyId(spotifyId)
+                .spotifyUri("spotify:artist:" + spotifyId)
+                .name(spotifyId)
+                .build();
+    }
+}
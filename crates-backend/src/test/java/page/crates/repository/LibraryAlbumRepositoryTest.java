@@ -0,0 +1,126 @@
+package page.crates.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import page.crates.entity.Album;
+import page.crates.entity.LibraryAlbum;
+import page.crates.entity.SpotifyUser;
+import page.crates.entity.enums.State;
+import page.crates.util.DatabaseTestSupport;
+
+import jakarta.annotation.Resource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+class LibraryAlbumRepositoryTest {
+    @Resource
+    private LibraryAlbumRepository libraryAlbumRepository;
+    @Resource
+    private AlbumRepository albumRepository;
+    @Resource
+    private SpotifyUserRepository spotifyUserRepository;
+    @Resource
+    private TokenRepository tokenRepository;
+
+    @Test
+    public void archiveActiveExceptArchivesUnseenAlbums() {
+        final SpotifyUser user = createUser();
+        final LibraryAlbum kept = createLibraryAlbum(user);
+        final LibraryAlbum removed = createLibraryAlbum(user);
+
+        final int archived = libraryAlbumRepository.archiveActiveExcept(
+                user.getId(), new long[]{kept.getAlbum().getId()}, Instant.now());
+
+        assertThat(archived, equalTo(1));
+        assertThat(reload(kept).getState(), equalTo(State.ACTIVE));
+        assertThat(reload(removed).getState(), equalTo(State.ARCHIVED));
+        assertThat(reload(removed).getArchivedAt(), notNullValue());
+    }
+
+    @Test
+    public void archiveActiveExceptWithNoAlbumsArchivesEverything() {
+        final SpotifyUser user = createUser();
+        final LibraryAlbum first = createLibraryAlbum(user);
+        final LibraryAlbum second = createLibraryAlbum(user);
+
+        final int archived = libraryAlbumRepository.archiveActiveExcept(user.getId(), new long[0], Instant.now());
+
+        assertThat(archived, equalTo(2));
+        assertThat(reload(first).getState(), equalTo(State.ARCHIVED));
+        assertThat(reload(second).getState(), equalTo(State.ARCHIVED));
+    }
+
+    @Test
+    public void archiveActiveExceptBindsLargeIdLists() {
+        final SpotifyUser user = createUser();
+        final LibraryAlbum kept = createLibraryAlbum(user);
+        final LibraryAlbum removed = createLibraryAlbum(user);
+        // far more ids than a driver allows bind parameters, all passed as one array literal
+        final long[] seen = LongStream.concat(
+                        LongStream.of(kept.getAlbum().getId()),
+                        LongStream.rangeClosed(1, 100_000).map(id -> -id))
+                .toArray();
+
+        final int archived = libraryAlbumRepository.archiveActiveExcept(user.getId(), seen, Instant.now());
+
+        assertThat(archived, equalTo(1));
+        assertThat(reload(kept).getState(), equalTo(State.ACTIVE));
+        assertThat(reload(removed).getState(), equalTo(State.ARCHIVED));
+    }
+
+    @Test
+    public void archiveActiveExceptOnlyTouchesTheUsersActiveAlbums() {
+        final SpotifyUser user = createUser();
+        final SpotifyUser other = createUser();
+        final LibraryAlbum alreadyArchived = createLibraryAlbum(user);
+        final Instant archivedAt = Instant.now().minus(Duration.ofDays(1));
+        libraryAlbumRepository.archive(new long[]{alreadyArchived.getId()}, archivedAt);
+        final LibraryAlbum othersAlbum = createLibraryAlbum(other);
+
+        final int archived = libraryAlbumRepository.archiveActiveExcept(user.getId(), new long[0], Instant.now());
+
+        assertThat(archived, equalTo(0));
+        assertThat(reload(alreadyArchived).getArchivedAt().toEpochMilli(), equalTo(archivedAt.toEpochMilli()));
+        assertThat(reload(othersAlbum).getState(), equalTo(State.ACTIVE));
+        assertThat(reload(othersAlbum).getArchivedAt(), nullValue());
+    }
+
+    private LibraryAlbum reload(final LibraryAlbum libraryAlbum) {
+        return libraryAlbumRepository.findById(libraryAlbum.getId()).orElseThrow();
+    }
+
+    private LibraryAlbum createLibraryAlbum(final SpotifyUser user) {
+        final String spotifyId = "album-" + UUID.randomUUID();
+        final Album album = albumRepository.save(Album.builder()
+                .spotifyId(spotifyId)
+                .name(spotifyId)
+                .href("https://api.spotify.com/v1/albums/" + spotifyId)
+                .releaseDate(Instant.now())
+                .build());
+        return libraryAlbumRepository.save(LibraryAlbum.builder()
+                .album(album)
+                .spotifyUser(user)
+                .state(State.ACTIVE)
+                .addedAt(Instant.now())
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    private SpotifyUser createUser() {
+        return DatabaseTestSupport.createUser(tokenRepository, spotifyUserRepository);
+    }
+}
@@ -0,0 +1,150 @@
+package page.crates.service;
+
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import page.crates.entity.Album;
+import page.crates.entity.Library;
+import page.crates.entity.LibraryAlbum;
+import page.crates.entity.SpotifyUser;
+import page.crates.service.mapper.SpotifyAlbumMapper;
+import page.crates.spotify.client.Context;
+import page.crates.spotify.client.Spotify;
+import page.crates.spotify.client.api.SavedAlbum;
+import page.crates.spotify.stub.SpotifyStubCatalog;
+import page.crates.spotify.stub.SpotifyStubServer;
+import page.crates.util.DatabaseTestSupport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Counts database round trips per saved-album page for the per-row reconciliation library sync used
+ * to do (album lookup, library_album lookup and a save for every album) against
+ * {@link LibraryPageSyncService#processPage}. Pages come from {@link SpotifyStubServer} and are read
+ * once up front, and the catalog is warmed before counting, so only the reconciliation itself is
+ * measured. Skipped unless {@code -Dbenchmark=true}; the number of pages can be set with
+ * {@code -Dbenchmark.pages}, e.g.
+ * {@code mvn test -Dtest=LibraryPageSyncBenchmark -Dbenchmark=true -Dbenchmark.pages=20}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LibraryPageSyncBenchmark extends DatabaseTestSupport {
+    private static final int PAGE_SIZE = 25;
+    private static final int PAGES = Integer.getInteger("benchmark.pages", 8);
+    private static final SpotifyStubServer SPOTIFY = new SpotifyStubServer(
+            new SpotifyStubCatalog((PAGES + 1) * PAGE_SIZE, 10, 180)).start();
+
+    @Resource
+    private LibraryPageSyncService libraryPageSyncService;
+    @Resource
+    private LibraryService libraryService;
+    @Resource
+    private LibraryAlbumService libraryAlbumService;
+    @Resource
+    private AlbumService albumService;
+    @Resource
+    private SpotifyAlbumMapper spotifyAlbumMapper;
+    @Resource
+    private Spotify spotify;
+    @Resource
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void spotify(final DynamicPropertyRegistry registry) {
+        registry.add("spotify.api.base.uri", SPOTIFY::getApiUri);
+        registry.add("spotify.accounts.uri", SPOTIFY::getAccountsUri);
+    }
+
+    @AfterAll
+    static void stop() {
+        SPOTIFY.close();
+    }
+
+    @Test
+    public void processPage() {
+        final SpotifyUser warmup = createUser();
+        final List<Page<SavedAlbum>> pages = fetchPages(warmup);
+        final List<Page<SavedAlbum>> moved = pages.stream().map(LibraryPageSyncBenchmark::addedAnHourLater).toList();
+        // creates the catalog albums, so neither path below pays for hydrating them.
+        run(warmup, pages, this::batch);
+
+        System.out.printf("%nlibrary page reconciliation: %d page(s) of %d albums, known catalog albums%n",
+                PAGES, PAGE_SIZE);
+        System.out.printf("%-22s %-10s %16s %16s%n", "scenario", "path", "db round trips", "per page");
+        final SpotifyUser perRowUser = createUser();
+        final SpotifyUser batchUser = createUser();
+        compare("new library rows", run(perRowUser, pages, this::perRow), run(batchUser, pages, this::batch));
+        compare("unchanged rows", run(perRowUser, pages, this::perRow), run(batchUser, pages, this::batch));
+        compare("added_at changed", run(perRowUser, moved, this::perRow), run(batchUser, moved, this::batch));
+    }
+
+    /**
+     * Reconciles the page the way library sync did before pages were reconciled as a set.
+     */
+    private void perRow(final Page<SavedAlbum> albumPage, final SpotifyUser user, final Library library) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (SavedAlbum savedAlbum : albumPage) {
+                final Album album = albumService.findOrCreate(spotifyAlbumMapper.map(savedAlbum));
+                final LibraryAlbum libraryAlbum = libraryAlbumService.findByAlbumAndUser(album, user);
+                if (null != libraryAlbum) {
+                    libraryAlbum.setAddedAt(savedAlbum.addedAt());
+                    libraryAlbumService.save(libraryAlbum);
+                } else {
+                    libraryAlbumService.create(album, user, savedAlbum.addedAt());
+                }
+            }
+        });
+    }
+
+    private void batch(final Page<SavedAlbum> albumPage, final SpotifyUser user, final Library library) {
+        libraryPageSyncService.processPage(albumPage, user, library);
+    }
+
+    private long run(final SpotifyUser user,
+                     final List<Page<SavedAlbum>> pages,
+                     final Reconciler path) {
+        final Library library = libraryService.findOrCreateLibrary(user);
+        DATABASE.reset();
+        pages.forEach(albumPage -> path.reconcile(albumPage, user, library));
+        return DATABASE.getRoundTrips();
+    }
+
+    private static void compare(final String scenario, final long perRow, final long batch) {
+        System.out.printf("%-22s %-10s %16d %16.1f%n", scenario, "per-row", perRow, (double) perRow / PAGES);
+        System.out.printf("%-22s %-10s %16d %16.1f%n", "", "batch", batch, (double) batch / PAGES);
+        assertThat(batch, lessThan(perRow));
+    }
+
+    private List<Page<SavedAlbum>> fetchPages(final SpotifyUser user) {
+        final Context context = Context.forUser(user.getId(), user.getToken().getAccessToken());
+        final List<Page<SavedAlbum>> pages = new ArrayList<>();
+        // the first page also flips the library's state, so it's left out.
+        for (int page = 1; page <= PAGES; page++) {
+            pages.add(spotify.getSavedLibraryAlbums(context, PageRequest.of(page, PAGE_SIZE)));
+        }
+        return pages;
+    }
+
+    private static Page<SavedAlbum> addedAnHourLater(final Page<SavedAlbum> albumPage) {
+        return new PageImpl<>(
+                albumPage.map(savedAlbum -> savedAlbum.withAddedAt(savedAlbum.addedAt().plus(Duration.ofHours(1))))
+                        .getContent(),
+                albumPage.getPageable(),
+                albumPage.getTotalElements());
+    }
+
+    private interface Reconciler {
+        void reconcile(Page<SavedAlbum> albumPage, SpotifyUser user, Library library);
+    }
+}
@@ -0,0 +1,166 @@
+package page.crates.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import page.crates.entity.Library;
+import page.crates.entity.SpotifyUser;
+import page.crates.entity.Token;
+import page.crates.service.enums.LibrarySyncJobState;
+import page.crates.util.SystemTimeFacade;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class LibraryRefreshServiceImplTest {
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Duration MAX_AGE = Duration.ofHours(6);
+    private static final Duration FAILURE_BACKOFF = Duration.ofHours(12);
+
+    private LibraryService libraryService;
+    private LibrarySyncJobService librarySyncJobService;
+    private LibrarySyncProgressService librarySyncProgressService;
+    private SystemTimeFacade systemTimeFacade;
+    private LibraryRefreshServiceImpl libraryRefreshService;
+    private final Map<Long, LibrarySyncJob> jobs = new HashMap<>();
+    private long nextId;
+
+    @BeforeEach
+    public void setUp() {
+        libraryService = Mockito.mock(LibraryService.class);
+        librarySyncJobService = Mockito.mock(LibrarySyncJobService.class);
+        librarySyncProgressService = Mockito.mock(LibrarySyncProgressService.class);
+        systemTimeFacade = Mockito.mock(SystemTimeFacade.class);
+        Mockito.when(systemTimeFacade.now()).thenReturn(NOW);
+        Mockito.when(librarySyncJobService.availableBackgroundSlots()).thenReturn(2);
+        Mockito.when(librarySyncJobService.submitBackground(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> job(invocation.getArgument(0)));
+        libraryRefreshService = new LibraryRefreshServiceImpl();
+        ReflectionTestUtils.setField(libraryRefreshService, "libraryService", libraryService);
+        ReflectionTestUtils.setField(libraryRefreshService, "librarySyncJobService", librarySyncJobService);
+        ReflectionTestUtils.setField(libraryRefreshService, "librarySyncProgressService", librarySyncProgressService);
+        ReflectionTestUtils.setField(libraryRefreshService, "systemTimeFacade", systemTimeFacade);
+        ReflectionTestUtils.setField(libraryRefreshService, "enabled", true);
+        ReflectionTestUtils.setField(libraryRefreshService, "maxAge", MAX_AGE);
+        ReflectionTestUtils.setField(libraryRefreshService, "batchSize", 10);
+        ReflectionTestUtils.setField(libraryRefreshService, "hourlyRequestBudget", 100);
+        ReflectionTestUtils.setField(libraryRefreshService, "failureBackoff", FAILURE_BACKOFF);
+    }
+
+    @Test
+    public void submitsUpToTheFreeBackgroundSlots() {
+        final List<Library> stale = List.of(library(true), library(true), library(true));
+        stale(stale);
+
+        libraryRefreshService.refreshStaleLibraries();
+
+        Mockito.verify(libraryService).findStale(ArgumentMatchers.any(), ArgumentMatchers.eq(NOW.minus(MAX_AGE)),
+                ArgumentMatchers.eq(NOW), ArgumentMatchers.eq(4));
+        Mockito.verify(librarySyncJobService).submitBackground(stale.get(0).getSpotifyUser());
+        Mockito.verify(librarySyncJobService).submitBackground(stale.get(1).getSpotifyUser());
+        Mockito.verify(librarySyncJobService, Mockito.never()).submitBackground(stale.get(2).getSpotifyUser());
+    }
+
+    @Test
+    public void defersLibrariesWithoutARefreshToken() {
+        final Library revoked = library(false);
+        final Library healthy = library(true);
+        stale(List.of(revoked, healthy));
+
+        libraryRefreshService.refreshStaleLibraries();
+
+        Mockito.verify(libraryService).deferRefresh(revoked.getId(), NOW.plus(FAILURE_BACKOFF));
+        Mockito.verify(librarySyncJobService, Mockito.never()).submitBackground(revoked.getSpotifyUser());
+        Mockito.verify(librarySyncJobService).submitBackground(healthy.getSpotifyUser());
+    }
+
+    @Test
+    public void defersLibrariesWhoseRefreshFailed() {
+        final Library failing = library(true);
+        final Library succeeding = library(true);
+        stale(List.of(failing, succeeding));
+        libraryRefreshService.refreshStaleLibraries();
+        finish(failing, LibrarySyncJobState.FAILED, 10);
+        finish(succeeding, LibrarySyncJobState.COMPLETED, 10);
+        stale(List.of());
+
+        libraryRefreshService.refreshStaleLibraries();
+
+        Mockito.verify(libraryService).deferRefresh(failing.getId(), NOW.plus(FAILURE_BACKOFF));
+        Mockito.verify(libraryService, Mockito.never())
+                .deferRefresh(ArgumentMatchers.eq(succeeding.getId()), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void stopsOnceTheHourlyBudgetIsSpentUntilTheWindowRollsOver() {
+        final Library first = library(true);
+        stale(List.of(first));
+        libraryRefreshService.refreshStaleLibraries();
+        finish(first, LibrarySyncJobState.COMPLETED, 100);
+
+        final Library second = library(true);
+        stale(List.of(second));
+        Mockito.when(systemTimeFacade.now()).thenReturn(NOW.plus(Duration.ofMinutes(30)));
+        libraryRefreshService.refreshStaleLibraries();
+        Mockito.verify(librarySyncJobService, Mockito.never()).submitBackground(second.getSpotifyUser());
+
+        Mockito.when(systemTimeFacade.now()).thenReturn(NOW.plus(Duration.ofMinutes(61)));
+        libraryRefreshService.refreshStaleLibraries();
+        Mockito.verify(librarySyncJobService).submitBackground(second.getSpotifyUser());
+    }
+
+    @Test
+    public void countsRunningSyncsAgainstTheBudget() {
+        final Library running = library(true);
+        stale(List.of(running));
+        libraryRefreshService.refreshStaleLibraries();
+        progress(running, 100);
+
+        final Library waiting = library(true);
+        stale(List.of(waiting));
+        libraryRefreshService.refreshStaleLibraries();
+
+        Mockito.verify(librarySyncJobService, Mockito.never()).submitBackground(waiting.getSpotifyUser());
+    }
+
+    private void stale(final List<Library> libraries) {
+        Mockito.when(libraryService.findStale(ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.anyInt())).thenReturn(libraries);
+    }
+
+    private void finish(final Library library, final LibrarySyncJobState state, final int spotifyCalls) {
+        progress(library, spotifyCalls);
+        jobs.get(library.getSpotifyUser().getId()).finish(state, NOW);
+    }
+
+    private void progress(final Library library, final int spotifyCalls) {
+        Mockito.when(librarySyncProgressService.getProgress(library.getSpotifyUser()))
+                .thenReturn(new LibrarySyncProgressSnapshot(null, false, NOW, NOW, null, 0, 0, 0, 0, 0,
+                        spotifyCalls, 0, null, null, null));
+    }
+
+    private LibrarySyncJob job(final SpotifyUser user) {
+        final LibrarySyncJob job = new LibrarySyncJob(jobs.size(), user, null, NOW, true);
+        jobs.put(user.getId(), job);
+        return job;
+    }
+
+    private Library library(final boolean refreshToken) {
+        final long id = ++nextId;
+        final SpotifyUser user = SpotifyUser.builder()
+                .id(id)
+                .spotifyId("user-" + id)
+                .token(Token.builder().refreshToken(refreshToken ? "refresh-token" : "").build())
+                .build();
+        return Library.builder()
+                .id(id)
+                .spotifyUser(user)
+                .updatedAt(NOW.minus(MAX_AGE).minusSeconds(1))
+                .build();
+    }
+}
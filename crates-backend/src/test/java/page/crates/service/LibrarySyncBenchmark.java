@@ -0,0 +1,92 @@
+package page.crates.service;
+
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import page.crates.entity.Library;
+import page.crates.entity.SpotifyUser;
+import page.crates.entity.enums.LibraryState;
+import page.crates.security.UserContextHolder;
+import page.crates.service.enums.LibrarySyncOption;
+import page.crates.spotify.stub.SpotifyStubCatalog;
+import page.crates.spotify.stub.SpotifyStubServer;
+import page.crates.util.DatabaseTestSupport;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Drives {@link LibrarySyncService#synchronize} end to end against {@link SpotifyStubServer} and the
+ * embedded test database, and prints albums/sec, Spotify calls and database round trips per sync.
+ * Skipped unless {@code -Dbenchmark=true}. The library size, stub latency, 429 injection and gateway
+ * rate can be set with {@code -Dbenchmark.albums}, {@code -Dbenchmark.latency-ms},
+ * {@code -Dbenchmark.throttle-every} and {@code -Dbenchmark.requests-per-second}, e.g.
+ * {@code mvn test -Dtest=LibrarySyncBenchmark -Dbenchmark=true -Dbenchmark.albums=5000}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LibrarySyncBenchmark extends DatabaseTestSupport {
+    private static final int ALBUMS = Integer.getInteger("benchmark.albums", 1000);
+    private static final int LATENCY_MS = Integer.getInteger("benchmark.latency-ms", 30);
+    private static final int THROTTLE_EVERY = Integer.getInteger("benchmark.throttle-every", 0);
+    private static final int REQUESTS_PER_SECOND = Integer.getInteger("benchmark.requests-per-second", 1000);
+    private static final SpotifyStubServer SPOTIFY = new SpotifyStubServer(new SpotifyStubCatalog(ALBUMS, 10, 180))
+            .latency(Duration.ofMillis(LATENCY_MS))
+            .throttleEvery(THROTTLE_EVERY, 1)
+            .start();
+
+    @Resource
+    private LibrarySyncService librarySyncService;
+    @Resource
+    private LibraryAlbumService libraryAlbumService;
+
+    @DynamicPropertySource
+    static void spotify(final DynamicPropertyRegistry registry) {
+        registry.add("spotify.api.base.uri", SPOTIFY::getApiUri);
+        registry.add("spotify.accounts.uri", SPOTIFY::getAccountsUri);
+        registry.add("spotify.gateway.requests-per-second", () -> REQUESTS_PER_SECOND);
+        registry.add("spotify.gateway.burst", () -> REQUESTS_PER_SECOND);
+    }
+
+    @AfterAll
+    static void stop() {
+        SPOTIFY.close();
+    }
+
+    @Test
+    public void synchronize() {
+        System.out.printf("%nlibrary sync against stub spotify: %d albums, %dms latency, 429 every %s call(s), %d req/s%n",
+                ALBUMS, LATENCY_MS, THROTTLE_EVERY > 0 ? THROTTLE_EVERY : "no", REQUESTS_PER_SECOND);
+        System.out.printf("%-22s %10s %12s %14s %10s %16s%n",
+                "scenario", "seconds", "albums/sec", "spotify calls", "429s", "db round trips");
+
+        final SpotifyUser first = createUser();
+        run("import, cold catalog", first, LibraryState.IMPORTED, LibrarySyncOption.FIRST_SYNC);
+        run("delta refresh", first, LibraryState.UPDATED);
+        run("full refresh", first, LibraryState.UPDATED, LibrarySyncOption.FULL_SYNC);
+        final SpotifyUser second = createUser();
+        run("import, warm catalog", second, LibraryState.IMPORTED, LibrarySyncOption.FIRST_SYNC);
+    }
+
+    private void run(final String scenario,
+                     final SpotifyUser user,
+                     final LibraryState expected,
+                     final LibrarySyncOption... options) {
+        UserContextHolder.setUserContext(user);
+        SPOTIFY.reset();
+        DATABASE.reset();
+        final long start = System.nanoTime();
+        final Library library = librarySyncService.synchronize(options);
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        final long roundTrips = DATABASE.getRoundTrips();
+        System.out.printf("%-22s %10.2f %12.0f %14d %10d %16d%n",
+                scenario, seconds, ALBUMS / seconds, SPOTIFY.getTotalCalls(), SPOTIFY.getThrottled(), roundTrips);
+        System.out.printf("    %s%n", SPOTIFY.getCalls());
+        assertThat(library.getState(), equalTo(expected));
+        assertThat(libraryAlbumService.countActive(user), equalTo((long) ALBUMS));
+    }
+}
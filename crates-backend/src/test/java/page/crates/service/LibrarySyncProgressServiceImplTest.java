@@ -0,0 +1,53 @@
+package page.crates.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import page.crates.entity.SpotifyUser;
+import page.crates.util.SystemTimeFacade;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class LibrarySyncProgressServiceImplTest {
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private SystemTimeFacade systemTimeFacade;
+    private LibrarySyncProgressServiceImpl librarySyncProgressService;
+
+    @BeforeEach
+    public void setUp() {
+        systemTimeFacade = Mockito.mock(SystemTimeFacade.class);
+        Mockito.when(systemTimeFacade.now()).thenReturn(NOW);
+        librarySyncProgressService = new LibrarySyncProgressServiceImpl();
+        ReflectionTestUtils.setField(librarySyncProgressService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(librarySyncProgressService, "systemTimeFacade", systemTimeFacade);
+        librarySyncProgressService.registerMeters();
+    }
+
+    @Test
+    public void keepsFinishedProgressForAnHour() {
+        final SpotifyUser finished = SpotifyUser.builder().id(1L).build();
+        final SpotifyUser running = SpotifyUser.builder().id(2L).build();
+        librarySyncProgressService.finish(librarySyncProgressService.start(finished));
+        librarySyncProgressService.start(running);
+
+        at(NOW.plus(Duration.ofMinutes(59)));
+        assertThat(librarySyncProgressService.getProgress(finished), notNullValue());
+
+        at(NOW.plus(Duration.ofMinutes(61)));
+        assertThat(librarySyncProgressService.getProgress(finished), nullValue());
+        assertThat(librarySyncProgressService.getProgress(running).running(), equalTo(true));
+    }
+
+    private void at(final Instant now) {
+        Mockito.when(systemTimeFacade.now()).thenReturn(now);
+    }
+}
@@ -0,0 +1,159 @@
+package page.crates.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.ForwardingCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import page.crates.entity.SpotifyUser;
+import page.crates.entity.Token;
+import page.crates.repository.SpotifyUserRepository;
+import page.crates.repository.TokenRepository;
+import page.crates.spotify.client.SpotifyAuth;
+import page.crates.spotify.client.TokenResponse;
+import page.crates.util.SystemTimeFacade;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class UserTokenServiceImplTest {
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Long USER_ID = 1L;
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private SpotifyAuth spotifyAuth;
+    private TokenRepository tokenRepository;
+    private SpotifyUserRepository spotifyUserRepository;
+    private UserTokenServiceImpl userTokenService;
+
+    @BeforeEach
+    public void setUp() {
+        spotifyAuth = Mockito.mock(SpotifyAuth.class);
+        tokenRepository = Mockito.mock(TokenRepository.class);
+        spotifyUserRepository = Mockito.mock(SpotifyUserRepository.class);
+        final SystemTimeFacade systemTimeFacade = Mockito.mock(SystemTimeFacade.class);
+        Mockito.when(systemTimeFacade.now()).thenReturn(NOW);
+        Mockito.when(spotifyAuth.refreshToken(ArgumentMatchers.anyString())).thenAnswer(invocation -> token());
+        login(token(1L, "access-0"));
+        userTokenService = new UserTokenServiceImpl();
+        ReflectionTestUtils.setField(userTokenService, "spotifyAuth", spotifyAuth);
+        ReflectionTestUtils.setField(userTokenService, "systemTimeFacade", systemTimeFacade);
+        ReflectionTestUtils.setField(userTokenService, "tokenRepository", tokenRepository);
+        ReflectionTestUtils.setField(userTokenService, "spotifyUserRepository", spotifyUserRepository);
+        ReflectionTestUtils.setField(userTokenService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userTokenService, "refreshAhead", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(userTokenService, "expiryMargin", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(userTokenService, "refreshThreads", 1);
+        ReflectionTestUtils.setField(userTokenService, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(userTokenService, "cacheIdle", Duration.ofHours(2));
+        userTokenService.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userTokenService.stop();
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void callerThatReadTheTokenBeforeARefreshFinishedReusesIt() throws Exception {
+        assertThat(userTokenService.getAccessToken(USER_ID), equalTo("access-0"));
+        // the late caller reads the rejected token, then stalls until another refresh has replaced it
+        final CountDownLatch lateCallerReadToken = new CountDownLatch(1);
+        final CountDownLatch refreshDone = new CountDownLatch(1);
+        final Thread[] lateCaller = new Thread[1];
+        stallCache(lateCaller, lateCallerReadToken, refreshDone);
+
+        final Future<String> late = callers.submit(() -> {
+            lateCaller[0] = Thread.currentThread();
+            return userTokenService.refreshAccessToken(USER_ID, "access-0");
+        });
+        assertThat(lateCallerReadToken.await(5, TimeUnit.SECONDS), equalTo(true));
+        assertThat(userTokenService.refreshAccessToken(USER_ID, "access-0"), equalTo("access-1"));
+        refreshDone.countDown();
+
+        assertThat(late.get(5, TimeUnit.SECONDS), equalTo("access-1"));
+        assertThat(exchanges.get(), equalTo(1));
+    }
+
+    @Test
+    public void refreshFinishingAfterALoginKeepsTheNewToken() throws Exception {
+        assertThat(userTokenService.getAccessToken(USER_ID), equalTo("access-0"));
+        final CountDownLatch exchangeStarted = new CountDownLatch(1);
+        final CountDownLatch releaseExchange = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            exchangeStarted.countDown();
+            releaseExchange.await(5, TimeUnit.SECONDS);
+            return token();
+        }).when(spotifyAuth).refreshToken(ArgumentMatchers.anyString());
+
+        final Future<String> refresh = callers.submit(() -> userTokenService.refreshAccessToken(USER_ID, "access-0"));
+        assertThat(exchangeStarted.await(5, TimeUnit.SECONDS), equalTo(true));
+        // a new login replaces the token row and evicts the cached token mid-exchange
+        Mockito.when(tokenRepository.findById(1L)).thenReturn(Optional.empty());
+        login(token(2L, "login"));
+        userTokenService.evict(USER_ID);
+        releaseExchange.countDown();
+
+        assertThat(refresh.get(5, TimeUnit.SECONDS), equalTo("access-1"));
+        assertThat(userTokenService.getAccessToken(USER_ID), equalTo("login"));
+        Mockito.verify(tokenRepository, Mockito.never()).save(ArgumentMatchers.any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> void stallCache(final Thread[] caller, final CountDownLatch read, final CountDownLatch resume) {
+        final Cache<K, V> tokens = (Cache<K, V>) ReflectionTestUtils.getField(userTokenService, "tokens");
+        ReflectionTestUtils.setField(userTokenService, "tokens", new ForwardingCache.SimpleForwardingCache<>(tokens) {
+            @Override
+            public V getIfPresent(final Object key) {
+                final V value = super.getIfPresent(key);
+                if (Thread.currentThread() == caller[0] && read.getCount() > 0) {
+                    read.countDown();
+                    try {
+                        resume.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return value;
+            }
+        });
+    }
+
+    private void login(final Token token) {
+        Mockito.when(spotifyUserRepository.findById(USER_ID))
+                .thenReturn(Optional.of(SpotifyUser.builder().id(USER_ID).token(token).build()));
+        Mockito.when(tokenRepository.findById(token.getId())).thenReturn(Optional.of(token));
+    }
+
+    private static Token token(final Long id, final String accessToken) {
+        return Token.builder()
+                .id(id)
+                .accessToken(accessToken)
+                .refreshToken("refresh-" + id)
+                .expiration(NOW.plus(Duration.ofHours(1)))
+                .build();
+    }
+
+    private TokenResponse token() {
+        final TokenResponse response = new TokenResponse();
+        response.setAccessToken("access-" + exchanges.incrementAndGet());
+        response.setExpiresIn(3600);
+        return response;
+    }
+}
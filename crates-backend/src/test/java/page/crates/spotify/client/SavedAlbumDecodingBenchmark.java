@@ -0,0 +1,93 @@
+package page.crates.spotify.client;
+
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import feign.Request;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.jackson.JacksonDecoder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import page.crates.spotify.client.api.LibraryAlbum;
+import page.crates.spotify.client.api.Page;
+import page.crates.spotify.client.api.SavedAlbumPage;
+import page.crates.spotify.stub.SpotifyStubCatalog;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Compares the bytes allocated decoding one 50-album saved album page with full Jackson binding
+ * against the streaming {@link SavedAlbumPageReader}. Run with
+ * {@code mvn test -Dtest=SavedAlbumDecodingBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SavedAlbumDecodingBenchmark {
+    private static final int ALBUMS_PER_PAGE = 50;
+    private static final int WARMUP = 300;
+    private static final int ITERATIONS = 1000;
+
+    private final byte[] body = new SpotifyStubCatalog(ALBUMS_PER_PAGE, 12, 180)
+            .savedAlbums(0, ALBUMS_PER_PAGE)
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void allocationPerPage() throws Exception {
+        final Type boundType = SpotifyClient.class.getMethod("getSavedAlbums", int.class, int.class)
+                .getGenericReturnType();
+        final Decoder bound = new JacksonDecoder(List.of(new JavaTimeModule()));
+        final Decoder streaming = new SpotifyJacksonDecoder(List.of(new JavaTimeModule()));
+
+        @SuppressWarnings("unchecked")
+        final Page<LibraryAlbum> boundPage = (Page<LibraryAlbum>) bound.decode(response(), boundType);
+        final SavedAlbumPage streamedPage = (SavedAlbumPage) streaming.decode(response(), SavedAlbumPage.class);
+        assertThat(streamedPage.total(), equalTo(boundPage.getTotal()));
+        assertThat(streamedPage.items().size(), equalTo(boundPage.getItems().size()));
+        for (int i = 0; i < streamedPage.items().size(); i++) {
+            final LibraryAlbum expected = boundPage.getItems().get(i);
+            assertThat(streamedPage.items().get(i).id(), equalTo(expected.album().getId()));
+            assertThat(streamedPage.items().get(i).addedAt(), equalTo(expected.addedAt()));
+            assertThat(streamedPage.items().get(i).upc(), equalTo(expected.album().getExternalIds().get("upc")));
+            assertThat(streamedPage.items().get(i).artistIds().size(), equalTo(expected.album().getArtists().size()));
+        }
+
+        final long boundBytes = allocatedPerPage(bound, boundType);
+        final long streamingBytes = allocatedPerPage(streaming, SavedAlbumPage.class);
+        System.out.printf("saved album page (%d albums, %d bytes): bound %,d B/page, streaming %,d B/page (%.1fx)%n",
+                ALBUMS_PER_PAGE, body.length, boundBytes, streamingBytes, (double) boundBytes / streamingBytes);
+        assertThat(streamingBytes, lessThan(boundBytes));
+    }
+
+    private long allocatedPerPage(final Decoder decoder, final Type type) throws Exception {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+        Object sink = null;
+        for (int i = 0; i < WARMUP; i++) {
+            sink = decoder.decode(response(), type);
+        }
+        final long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = decoder.decode(response(), type);
+        }
+        final long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        assertThat(null == sink, equalTo(false));
+        return allocated / ITERATIONS;
+    }
+
+    private Response response() {
+        return Response.builder()
+                .status(200)
+                .headers(Map.of())
+                .body(body)
+                .request(Request.create(Request.HttpMethod.GET, "/me/albums", Map.of(), null,
+                        StandardCharsets.UTF_8, null))
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package page.crates.spotify.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import page.crates.spotify.client.api.Album;
+import page.crates.spotify.client.api.Artist;
+import page.crates.spotify.client.api.Image;
+import page.crates.spotify.client.api.LibraryAlbum;
+import page.crates.spotify.client.api.Page;
+import page.crates.spotify.client.api.SavedAlbum;
+import page.crates.spotify.client.api.SavedAlbumPage;
+import page.crates.spotify.stub.SpotifyStubCatalog;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+class SavedAlbumPageReaderTest {
+    private static final Instant ADDED_AT = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .registerModule(new JavaTimeModule());
+    private final SavedAlbumPageReader reader = new SavedAlbumPageReader(mapper.getFactory());
+
+    @Test
+    public void readsWhatFullBindingReads() throws Exception {
+        final String body = new SpotifyStubCatalog(20, 3, 5).savedAlbums(0, 20);
+        final Page<LibraryAlbum> bound = mapper.readValue(body, new TypeReference<Page<LibraryAlbum>>() {
+        });
+
+        final SavedAlbumPage read = read(body);
+
+        assertThat(read.total(), equalTo(bound.getTotal()));
+        assertThat(read.items().size(), equalTo(bound.getItems().size()));
+        for (int i = 0; i < read.items().size(); i++) {
+            final SavedAlbum album = read.items().get(i);
+            final LibraryAlbum expected = bound.getItems().get(i);
+            final Album expectedAlbum = expected.album();
+            assertThat(album.id(), equalTo(expectedAlbum.getId()));
+            assertThat(album.name(), equalTo(expectedAlbum.getName()));
+            assertThat(album.href(), equalTo(expectedAlbum.getHref()));
+            assertThat(album.upc(), equalTo(expectedAlbum.getExternalIds().get("upc")));
+            assertThat(album.releaseDate(), equalTo(expectedAlbum.getReleaseDate()));
+            assertThat(album.releaseDatePrecision(), equalTo(expectedAlbum.getReleaseDatePrecision()));
+            assertThat(album.genres(), equalTo(expectedAlbum.getGenres()));
+            assertThat(album.artistIds(), equalTo(expectedAlbum.getArtists().stream().map(Artist::getId).toList()));
+            assertThat(images(album.images()), equalTo(images(expectedAlbum.getImages())));
+            assertThat(album.addedAt(), equalTo(expected.addedAt()));
+        }
+    }
+
+    @Test
+    public void skipsItemsWithoutAnAlbum() throws Exception {
+        final SavedAlbumPage read = read("""
+                {"items": [
+                  {"added_at": "2024-01-01T00:00:00Z", "album": null},
+                  {"added_at": "2024-01-01T00:00:00Z"},
+                  {"added_at": "2024-01-01T00:00:00Z", "album": {"id": "album-1"}}
+                ], "total": 3}""");
+
+        assertThat(read.items().stream().map(SavedAlbum::id).toList(), contains("album-1"));
+        assertThat(read.total(), equalTo(3));
+    }
+
+    @Test
+    public void readsAddedAtAfterTheAlbum() throws Exception {
+        final SavedAlbumPage read = read("""
+                {"items": [{"album": {"id": "album-1"}, "added_at": "2024-01-01T00:00:00Z"}]}""");
+
+        assertThat(read.items().get(0).addedAt(), equalTo(ADDED_AT));
+    }
+
+    @Test
+    public void defaultsNullAndMissingFields() throws Exception {
+        final SavedAlbumPage read = read("""
+                {"items": [{"added_at": null, "album": {
+                  "id": "album-1", "name": null, "external_ids": null, "images": null,
+                  "artists": null, "genres": null, "release_date": null
+                }}]}""");
+
+        final SavedAlbum album = read.items().get(0);
+        assertThat(album.id(), equalTo("album-1"));
+        assertThat(album.name(), nullValue());
+        assertThat(album.href(), nullValue());
+        assertThat(album.upc(), nullValue());
+        assertThat(album.releaseDate(), nullValue());
+        assertThat(album.images(), empty());
+        assertThat(album.artistIds(), empty());
+        assertThat(album.genres(), empty());
+        assertThat(album.addedAt(), nullValue());
+        assertThat(read.total(), equalTo(0));
+    }
+
+    private SavedAlbumPage read(final String body) throws IOException {
+        return reader.read(new StringReader(body));
+    }
+
+    private static List<String> images(final List<Image> images) {
+        return images.stream().map(image -> image.getUrl() + " " + image.getWidth() + "x" + image.getHeight()).toList();
+    }
+}
@@ -0,0 +1,58 @@
+package page.crates.spotify.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import page.crates.spotify.client.api.Album;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SpotifyAsyncImplTest {
+    private Spotify spotify;
+    private SpotifyAsyncImpl spotifyAsync;
+
+    @BeforeEach
+    public void setUp() {
+        spotify = Mockito.mock(Spotify.class);
+        spotifyAsync = new SpotifyAsyncImpl();
+        ReflectionTestUtils.setField(spotifyAsync, "spotify", spotify);
+        ReflectionTestUtils.setField(spotifyAsync, "threads", 2);
+        spotifyAsync.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        spotifyAsync.stop();
+    }
+
+    @Test
+    public void errorsCompleteTheFutureExceptionally() {
+        Mockito.when(spotify.getAlbum(ArgumentMatchers.any(), ArgumentMatchers.anyString()))
+                .thenThrow(new StackOverflowError());
+
+        final CompletableFuture<Album> album = spotifyAsync.getAlbum(Context.forToken("token"), "album-1");
+
+        final ExecutionException e = assertThrows(ExecutionException.class, () -> album.get(5, TimeUnit.SECONDS));
+        assertThat(e.getCause(), instanceOf(StackOverflowError.class));
+    }
+
+    @Test
+    public void errorsFailMapAsync() {
+        final CompletableFuture<List<Object>> mapped = spotifyAsync.mapAsync(List.of(1, 2, 3), 2, input -> {
+            throw new NoClassDefFoundError("missing");
+        });
+
+        final ExecutionException e = assertThrows(ExecutionException.class, () -> mapped.get(5, TimeUnit.SECONDS));
+        assertThat(e.getCause(), instanceOf(NoClassDefFoundError.class));
+    }
+}
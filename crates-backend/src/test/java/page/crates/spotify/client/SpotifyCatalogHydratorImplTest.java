@@ -0,0 +1,114 @@
+package page.crates.spotify.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import page.crates.spotify.client.api.Artist;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class SpotifyCatalogHydratorImplTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch backgroundStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseBackground = new CountDownLatch(1);
+    private Spotify spotify;
+    private SpotifyCatalogHydratorImpl hydrator;
+
+    @BeforeEach
+    public void setUp() {
+        spotify = Mockito.mock(Spotify.class);
+        final SpotifyServiceTokenProvider spotifyServiceTokenProvider = Mockito.mock(SpotifyServiceTokenProvider.class);
+        Mockito.when(spotifyServiceTokenProvider.getAccessToken()).thenReturn("token");
+        Mockito.when(spotify.getArtists(ArgumentMatchers.any(), ArgumentMatchers.anyList())).thenAnswer(invocation -> {
+            final Context context = invocation.getArgument(0);
+            if (SpotifyRequestPriority.BACKGROUND == context.priority()) {
+                backgroundStarted.countDown();
+                releaseBackground.await(5, TimeUnit.SECONDS);
+            }
+            final List<String> ids = invocation.getArgument(1);
+            return ids.stream().map(SpotifyCatalogHydratorImplTest::artist).toList();
+        });
+        hydrator = new SpotifyCatalogHydratorImpl();
+        ReflectionTestUtils.setField(hydrator, "spotify", spotify);
+        ReflectionTestUtils.setField(hydrator, "spotifyServiceTokenProvider", spotifyServiceTokenProvider);
+        ReflectionTestUtils.setField(hydrator, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(hydrator, "window", Duration.ofMillis(5));
+        ReflectionTestUtils.setField(hydrator, "threads", 2);
+        ReflectionTestUtils.setField(hydrator, "missingMaxSize", 100L);
+        ReflectionTestUtils.setField(hydrator, "missingTtl", Duration.ofMinutes(10));
+        hydrator.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        releaseBackground.countDown();
+        hydrator.stop();
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void interactiveLookupDoesNotWaitOnABackgroundLoad() throws Exception {
+        final Future<Artist> background = callers.submit(
+                () -> hydrator.getArtist("artist-1", SpotifyRequestPriority.BACKGROUND));
+        assertThat(backgroundStarted.await(5, TimeUnit.SECONDS), equalTo(true));
+
+        final Artist interactive = hydrator.getArtist("artist-1", SpotifyRequestPriority.INTERACTIVE);
+
+        assertThat(interactive.getId(), equalTo("artist-1"));
+        assertThat(background.isDone(), equalTo(false));
+        releaseBackground.countDown();
+        assertThat(background.get(5, TimeUnit.SECONDS).getId(), equalTo("artist-1"));
+    }
+
+    @Test
+    public void backgroundLookupJoinsAnInteractiveLoad() throws Exception {
+        final CountDownLatch interactiveStarted = new CountDownLatch(1);
+        final CountDownLatch releaseInteractive = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            interactiveStarted.countDown();
+            releaseInteractive.await(5, TimeUnit.SECONDS);
+            return List.of(artist("artist-1"));
+        }).when(spotify).getArtists(ArgumentMatchers.any(), ArgumentMatchers.anyList());
+        final Future<Artist> interactive = callers.submit(
+                () -> hydrator.getArtist("artist-1", SpotifyRequestPriority.INTERACTIVE));
+        assertThat(interactiveStarted.await(5, TimeUnit.SECONDS), equalTo(true));
+
+        final Future<Artist> background = callers.submit(
+                () -> hydrator.getArtist("artist-1", SpotifyRequestPriority.BACKGROUND));
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (joinedInFlight() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        releaseInteractive.countDown();
+
+        assertThat(interactive.get(5, TimeUnit.SECONDS).getId(), equalTo("artist-1"));
+        assertThat(background.get(5, TimeUnit.SECONDS).getId(), equalTo("artist-1"));
+        assertThat(joinedInFlight(), equalTo(1.0));
+        Mockito.verify(spotify).getArtists(ArgumentMatchers.any(), ArgumentMatchers.anyList());
+    }
+
+    private double joinedInFlight() {
+        return meterRegistry.counter("spotify.hydrator.deduplicated", "type", "artist", "reason", "in-flight").count();
+    }
+
+    private static Artist artist(final String id) {
+        final Artist artist = new Artist();
+        artist.setId(id);
+        return artist;
+    }
+}
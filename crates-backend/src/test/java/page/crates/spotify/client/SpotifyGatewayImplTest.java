@@ -0,0 +1,180 @@
+package page.crates.spotify.client;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import page.crates.util.SystemTimeFacade;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Drives the gateway's token bucket with a manual clock: no tokens are refilled and no pause ends
+ * until the test moves the clock, so waiting callers can only proceed in the order the gateway picks.
+ */
+class SpotifyGatewayImplTest {
+    private static final int REQUESTS_PER_SECOND = 10;
+    private static final Duration TOKEN = Duration.ofSeconds(1).dividedBy(REQUESTS_PER_SECOND);
+
+    private final ManualClock clock = new ManualClock();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final Queue<String> calls = new ConcurrentLinkedQueue<>();
+    private SpotifyGatewayImpl gateway;
+
+    @BeforeEach
+    public void setUp() {
+        gateway = new SpotifyGatewayImpl();
+        ReflectionTestUtils.setField(gateway, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(gateway, "systemTimeFacade", clock);
+        ReflectionTestUtils.setField(gateway, "requestsPerSecond", (double) REQUESTS_PER_SECOND);
+        ReflectionTestUtils.setField(gateway, "maxRetries", 3);
+        ReflectionTestUtils.setField(gateway, "interactiveMaxWait", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(gateway, "defaultRetryAfter", Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void backgroundYieldsToInteractive() throws Exception {
+        start(1);
+        // spends the only token, so both callers below have to wait for the clock
+        gateway.execute(SpotifyRequestPriority.INTERACTIVE, () -> calls.add("warmup"));
+        calls.clear();
+
+        final Future<?> background = submit(SpotifyRequestPriority.BACKGROUND, "background");
+        awaitQueued(SpotifyRequestPriority.BACKGROUND, 1);
+        final Future<?> interactive = submit(SpotifyRequestPriority.INTERACTIVE, "interactive");
+        awaitQueued(SpotifyRequestPriority.INTERACTIVE, 1);
+
+        clock.advance(TOKEN);
+        interactive.get(5, TimeUnit.SECONDS);
+        assertThat(List.copyOf(calls), contains("interactive"));
+        assertThat(queued(SpotifyRequestPriority.BACKGROUND), equalTo(1));
+
+        clock.advance(TOKEN);
+        background.get(5, TimeUnit.SECONDS);
+        assertThat(List.copyOf(calls), contains("interactive", "background"));
+    }
+
+    @Test
+    public void retryAfterPausesBothLanes() throws Exception {
+        start(20);
+        final AtomicInteger attempts = new AtomicInteger();
+        final Future<?> throttled = callers.submit(() -> gateway.execute(SpotifyRequestPriority.INTERACTIVE, () -> {
+            if (attempts.getAndIncrement() == 0) {
+                throw tooManyRequests(1);
+            }
+            return calls.add("retried");
+        }));
+        // the retry only queues again once the pause is in place
+        await(() -> meterRegistry.counter("spotify.gateway.throttled").count() == 1
+                    && queued(SpotifyRequestPriority.INTERACTIVE) == 1);
+
+        final Future<?> interactive = submit(SpotifyRequestPriority.INTERACTIVE, "interactive");
+        final Future<?> background = submit(SpotifyRequestPriority.BACKGROUND, "background");
+        awaitQueued(SpotifyRequestPriority.INTERACTIVE, 2);
+        awaitQueued(SpotifyRequestPriority.BACKGROUND, 1);
+
+        // enough time to refill several tokens, but still short of the one second Retry-After
+        clock.advance(Duration.ofMillis(900));
+        Thread.sleep(TOKEN.toMillis() * 3);
+        assertThat(calls, empty());
+        assertThat(queued(SpotifyRequestPriority.INTERACTIVE), equalTo(2));
+        assertThat(queued(SpotifyRequestPriority.BACKGROUND), equalTo(1));
+
+        // past Retry-After plus the most jitter it can carry
+        clock.advance(Duration.ofMillis(600));
+        throttled.get(5, TimeUnit.SECONDS);
+        interactive.get(5, TimeUnit.SECONDS);
+        background.get(5, TimeUnit.SECONDS);
+        assertThat(attempts.get(), equalTo(2));
+        assertThat(calls.size(), equalTo(3));
+    }
+
+    private void start(final int burst) {
+        ReflectionTestUtils.setField(gateway, "burst", burst);
+        gateway.start();
+    }
+
+    private Future<?> submit(final SpotifyRequestPriority priority, final String name) {
+        return callers.submit(() -> gateway.execute(priority, () -> calls.add(name)));
+    }
+
+    private void awaitQueued(final SpotifyRequestPriority priority, final int expected) {
+        await(() -> queued(priority) == expected);
+    }
+
+    private int queued(final SpotifyRequestPriority priority) {
+        return (int) meterRegistry.get("spotify.gateway.queue")
+                .tag("priority", priority.name().toLowerCase(Locale.ROOT))
+                .gauge()
+                .value();
+    }
+
+    private static void await(final BooleanSupplier condition) {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new AssertionError("condition not met within 5s");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static FeignException tooManyRequests(final int retryAfterSeconds) {
+        final Request request = Request.create(Request.HttpMethod.GET, "https://api.spotify.com/v1/me/albums",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("Spotify#getSavedAlbums", Response.builder()
+                .status(429)
+                .reason("Too Many Requests")
+                .request(request)
+                .headers(Map.of("Retry-After", List.of(String.valueOf(retryAfterSeconds))))
+                .build());
+    }
+
+    private static class ManualClock implements SystemTimeFacade {
+        private final AtomicLong nanos = new AtomicLong();
+
+        void advance(final Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+
+        @Override
+        public Instant now() {
+            return Instant.EPOCH.plusNanos(nanos.get());
+        }
+
+        @Override
+        public long nanoTime() {
+            return nanos.get();
+        }
+    }
+}
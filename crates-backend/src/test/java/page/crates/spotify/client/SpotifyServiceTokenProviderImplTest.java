@@ -0,0 +1,150 @@
+package page.crates.spotify.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import page.crates.util.SystemTimeFacade;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class SpotifyServiceTokenProviderImplTest {
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final int CALLERS = 16;
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    private SpotifyAuth spotifyAuth;
+    private SystemTimeFacade systemTimeFacade;
+    private SpotifyServiceTokenProviderImpl provider;
+
+    @BeforeEach
+    public void setUp() {
+        spotifyAuth = Mockito.mock(SpotifyAuth.class);
+        systemTimeFacade = Mockito.mock(SystemTimeFacade.class);
+        Mockito.when(systemTimeFacade.now()).thenReturn(NOW);
+        Mockito.when(spotifyAuth.getServiceToken()).thenAnswer(invocation -> token());
+        provider = new SpotifyServiceTokenProviderImpl();
+        ReflectionTestUtils.setField(provider, "spotifyAuth", spotifyAuth);
+        ReflectionTestUtils.setField(provider, "systemTimeFacade", systemTimeFacade);
+        ReflectionTestUtils.setField(provider, "refreshAhead", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(provider, "expiryMargin", Duration.ofSeconds(30));
+        provider.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        provider.stop();
+        callers.shutdownNow();
+    }
+
+    @Test
+    public void concurrentCallersShareOneExchange() throws Exception {
+        final CountDownLatch exchangeStarted = new CountDownLatch(1);
+        final CountDownLatch releaseExchange = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            exchangeStarted.countDown();
+            releaseExchange.await(5, TimeUnit.SECONDS);
+            return token();
+        }).when(spotifyAuth).getServiceToken();
+
+        final List<Future<String>> results = new ArrayList<>();
+        results.add(callers.submit(provider::getAccessToken));
+        assertThat(exchangeStarted.await(5, TimeUnit.SECONDS), equalTo(true));
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(callers.submit(provider::getAccessToken));
+        }
+        releaseExchange.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS), equalTo("token-1"));
+        }
+        assertThat(exchanges.get(), equalTo(1));
+    }
+
+    @Test
+    public void callerThatReadTheTokenBeforeAnExchangeFinishedReusesIt() throws Exception {
+        // the late caller reads the missing token, then stalls on the clock until another exchange is done
+        final CountDownLatch lateCallerReadToken = new CountDownLatch(1);
+        final CountDownLatch exchangeDone = new CountDownLatch(1);
+        final Thread[] lateCaller = new Thread[1];
+        Mockito.doAnswer(invocation -> {
+            if (Thread.currentThread() == lateCaller[0] && lateCallerReadToken.getCount() > 0) {
+                lateCallerReadToken.countDown();
+                exchangeDone.await(5, TimeUnit.SECONDS);
+            }
+            return NOW;
+        }).when(systemTimeFacade).now();
+
+        final Future<String> late = callers.submit(() -> {
+            lateCaller[0] = Thread.currentThread();
+            return provider.getAccessToken();
+        });
+        assertThat(lateCallerReadToken.await(5, TimeUnit.SECONDS), equalTo(true));
+        assertThat(provider.getAccessToken(), equalTo("token-1"));
+        exchangeDone.countDown();
+
+        assertThat(late.get(5, TimeUnit.SECONDS), equalTo("token-1"));
+        assertThat(exchanges.get(), equalTo(1));
+    }
+
+    @Test
+    public void refreshesAheadOfExpiryOnce() throws Exception {
+        assertThat(provider.getAccessToken(), equalTo("token-1"));
+        // inside the refresh-ahead window every caller keeps the current token while one exchange runs
+        final CountDownLatch releaseExchange = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            releaseExchange.await(5, TimeUnit.SECONDS);
+            return token();
+        }).when(spotifyAuth).getServiceToken();
+        Mockito.doReturn(NOW.plus(Duration.ofMinutes(56))).when(systemTimeFacade).now();
+
+        final List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(provider::getAccessToken));
+        }
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS), equalTo("token-1"));
+        }
+        releaseExchange.countDown();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!"token-2".equals(provider.getAccessToken()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(provider.getAccessToken(), equalTo("token-2"));
+        assertThat(exchanges.get(), equalTo(2));
+    }
+
+    @Test
+    public void invalidateDropsOnlyTheRejectedToken() {
+        assertThat(provider.getAccessToken(), equalTo("token-1"));
+
+        provider.invalidate("token-1");
+        assertThat(provider.getAccessToken(), equalTo("token-2"));
+
+        // a caller still holding the old token must not throw away the one that replaced it
+        provider.invalidate("token-1");
+        assertThat(provider.getAccessToken(), equalTo("token-2"));
+        assertThat(exchanges.get(), equalTo(2));
+    }
+
+    private TokenResponse token() {
+        final TokenResponse response = new TokenResponse();
+        response.setAccessToken("token-" + exchanges.incrementAndGet());
+        response.setExpiresIn(3600);
+        return response;
+    }
+}
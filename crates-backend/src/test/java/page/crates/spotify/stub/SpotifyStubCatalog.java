@@ -0,0 +1,238 @@
+package page.crates.spotify.stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A synthetic Spotify catalog and saved-album library, rendered as the JSON Spotify's API returns,
+ * including the parts the app ignores (tracks, markets, copyrights). Album {@code i} is
+ * {@code stubalbum<i>}, saved {@code i} hours before {@link #NEWEST_ADDED_AT} and credited to
+ * {@code stubartist<i % artists>}; every fifth album also credits the next artist.
+ */
+public class SpotifyStubCatalog {
+    public static final Instant NEWEST_ADDED_AT = Instant.parse("2024-01-01T00:00:00Z");
+    private static final String API = "https://api.spotify.com/v1";
+    private static final String ALBUM_PREFIX = "stubalbum";
+    private static final String ARTIST_PREFIX = "stubartist";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int albums;
+    private final int artists;
+    private final int tracksPerAlbum;
+    private final List<String> markets;
+
+    public SpotifyStubCatalog(final int albums, final int tracksPerAlbum, final int markets) {
+        this.albums = albums;
+        this.artists = Math.max(1, albums / 5);
+        this.tracksPerAlbum = tracksPerAlbum;
+        this.markets = new ArrayList<>(markets);
+        for (int i = 0; i < markets; i++) {
+            this.markets.add("" + (char) ('A' + i / 26 % 26) + (char) ('A' + i % 26));
+        }
+    }
+
+    public int getAlbums() {
+        return albums;
+    }
+
+    /**
+     * {@code GET /me/albums}: the whole catalog is the saved library, newest first.
+     */
+    public String savedAlbums(final int offset, final int limit) {
+        final List<Object> items = new ArrayList<>();
+        for (int i = offset; i < Math.min(albums, offset + limit); i++) {
+            final Map<String, Object> item = new LinkedHashMap<>();
+            item.put("added_at", NEWEST_ADDED_AT.minusSeconds(i * 3600L).toString());
+            item.put("album", album(i));
+            items.add(item);
+        }
+        return write(page(API + "/me/albums", items, offset, limit, albums));
+    }
+
+    /**
+     * {@code GET /me/albums/contains}
+     */
+    public String contains(final Collection<String> ids) {
+        return write(ids.stream().map(id -> index(id, ALBUM_PREFIX, albums) >= 0).toList());
+    }
+
+    /**
+     * {@code GET /albums/{id}}; null when the album doesn't exist.
+     */
+    public String album(final String id) {
+        final int index = index(id, ALBUM_PREFIX, albums);
+        return index < 0 ? null : write(album(index));
+    }
+
+    /**
+     * {@code GET /albums?ids=}
+     */
+    public String albums(final Collection<String> ids) {
+        final List<Object> found = new ArrayList<>();
+        ids.forEach(id -> {
+            final int index = index(id, ALBUM_PREFIX, albums);
+            found.add(index < 0 ? null : album(index));
+        });
+        return write(Map.of("albums", found));
+    }
+
+    /**
+     * {@code GET /artists/{id}}; null when the artist doesn't exist.
+     */
+    public String artist(final String id) {
+        final int index = index(id, ARTIST_PREFIX, artists);
+        return index < 0 ? null : write(artist(index, true));
+    }
+
+    /**
+     * {@code GET /artists?ids=}
+     */
+    public String artists(final Collection<String> ids) {
+        final List<Object> found = new ArrayList<>();
+        ids.forEach(id -> {
+            final int index = index(id, ARTIST_PREFIX, artists);
+            found.add(index < 0 ? null : artist(index, true));
+        });
+        return write(Map.of("artists", found));
+    }
+
+    /**
+     * {@code GET /search?type=album}: albums whose name contains the query, case-insensitively.
+     */
+    public String searchAlbums(final String query, final int offset, final int limit) {
+        final String needle = query.toLowerCase(Locale.ROOT);
+        final List<Object> items = new ArrayList<>();
+        int total = 0;
+        for (int i = 0; i < albums; i++) {
+            if (albumName(i).toLowerCase(Locale.ROOT).contains(needle)) {
+                if (total >= offset && items.size() < limit) {
+                    items.add(album(i));
+                }
+                total++;
+            }
+        }
+        return write(Map.of("albums", page(API + "/search", items, offset, limit, total)));
+    }
+
+    private Map<String, Object> album(final int index) {
+        final String id = ALBUM_PREFIX + index;
+        final Map<String, Object> album = new LinkedHashMap<>();
+        album.put("album_type", "album");
+        album.put("total_tracks", tracksPerAlbum);
+        album.put("available_markets", markets);
+        album.put("external_urls", Map.of("spotify", "https://open.spotify.com/album/" + id));
+        album.put("href", API + "/albums/" + id);
+        album.put("id", id);
+        album.put("images", List.of(image(id, 640), image(id, 300), image(id, 64)));
+        album.put("name", albumName(index));
+        album.put("release_date", String.format("%d-%02d-%02d", 1960 + index % 60, 1 + index % 12, 1 + index % 28));
+        album.put("release_date_precision", "day");
+        album.put("type", "album");
+        album.put("uri", "spotify:album:" + id);
+        final List<Object> albumArtists = new ArrayList<>();
+        albumArtists.add(artist(index % artists, false));
+        if (index % 5 == 0 && artists > 1) {
+            albumArtists.add(artist((index + 1) % artists, false));
+        }
+        album.put("artists", albumArtists);
+        final List<Object> tracks = new ArrayList<>(tracksPerAlbum);
+        for (int t = 0; t < tracksPerAlbum; t++) {
+            final String trackId = id + "track" + t;
+            final Map<String, Object> track = new LinkedHashMap<>();
+            track.put("artists", List.of(albumArtists.get(0)));
+            track.put("available_markets", markets);
+            track.put("disc_number", 1);
+            track.put("duration_ms", 180_000 + t * 1000);
+            track.put("explicit", false);
+            track.put("external_urls", Map.of("spotify", "https://open.spotify.com/track/" + trackId));
+            track.put("href", API + "/tracks/" + trackId);
+            track.put("id", trackId);
+            track.put("is_local", false);
+            track.put("name", "Track " + (t + 1));
+            track.put("preview_url", null);
+            track.put("track_number", t + 1);
+            track.put("type", "track");
+            track.put("uri", "spotify:track:" + trackId);
+            tracks.add(track);
+        }
+        album.put("tracks", page(API + "/albums/" + id + "/tracks", tracks, 0, 50, tracksPerAlbum));
+        album.put("copyrights", List.of(
+                Map.of("text", "(C) Stub Records", "type", "C"),
+                Map.of("text", "(P) Stub Records", "type", "P")));
+        album.put("external_ids", Map.of("upc", String.format("%012d", index)));
+        album.put("genres", List.of());
+        album.put("label", "Stub Records");
+        album.put("popularity", index % 100);
+        return album;
+    }
+
+    private Map<String, Object> artist(final int index, final boolean full) {
+        final String id = ARTIST_PREFIX + index;
+        final Map<String, Object> artist = new LinkedHashMap<>();
+        artist.put("external_urls", Map.of("spotify", "https://open.spotify.com/artist/" + id));
+        artist.put("href", API + "/artists/" + id);
+        artist.put("id", id);
+        artist.put("name", "Stub Artist " + index);
+        artist.put("type", "artist");
+        artist.put("uri", "spotify:artist:" + id);
+        if (full) {
+            artist.put("followers", Map.of("total", index * 10));
+            artist.put("genres", List.of("genre " + index % 20, "genre " + (index + 7) % 20));
+            artist.put("images", List.of(image(id, 640), image(id, 160)));
+            artist.put("popularity", index % 100);
+        }
+        return artist;
+    }
+
+    private static String albumName(final int index) {
+        return "Stub Album " + index;
+    }
+
+    private static Map<String, Object> image(final String id, final int size) {
+        return Map.of("url", "https://i.scdn.co/image/" + id + "-" + size, "height", size, "width", size);
+    }
+
+    private static Map<String, Object> page(final String href,
+                                            final List<Object> items,
+                                            final int offset,
+                                            final int limit,
+                                            final int total) {
+        final Map<String, Object> page = new LinkedHashMap<>();
+        page.put("href", href + "?offset=" + offset + "&limit=" + limit);
+        page.put("items", items);
+        page.put("limit", limit);
+        page.put("next", offset + limit < total ? href + "?offset=" + (offset + limit) + "&limit=" + limit : null);
+        page.put("offset", offset);
+        page.put("previous", offset > 0 ? href + "?offset=" + Math.max(0, offset - limit) + "&limit=" + limit : null);
+        page.put("total", total);
+        return page;
+    }
+
+    private static int index(final String id, final String prefix, final int count) {
+        if (null == id || !id.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            final int index = Integer.parseInt(id.substring(prefix.length()));
+            return index < count ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String write(final Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package page.crates.spotify.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * An in-process stand-in for the Spotify Web API and accounts service, serving a
+ * {@link SpotifyStubCatalog} over HTTP. Every API call waits {@code latency} before answering, and
+ * every {@code throttleEvery}-th API call is answered with a 429 and a Retry-After header instead.
+ * Calls are counted per endpoint so benchmarks can report how many Spotify requests an operation made.
+ *
+ * <p>Point {@code spotify.api.base.uri} at {@link #getApiUri()} and {@code spotify.accounts.uri} at
+ * {@link #getAccountsUri()}.
+ */
+public class SpotifyStubServer implements AutoCloseable {
+    private static final String API_PREFIX = "/v1";
+
+    private final SpotifyStubCatalog catalog;
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final AtomicLong apiCalls = new AtomicLong();
+    private final LongAdder throttled = new LongAdder();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int throttleEvery;
+    private volatile int retryAfterSeconds = 1;
+
+    public SpotifyStubServer(final SpotifyStubCatalog catalog) {
+        this.catalog = catalog;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "spotify-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/api/token", this::token);
+        server.createContext(API_PREFIX + "/", this::api);
+    }
+
+    public SpotifyStubServer start() {
+        server.start();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getApiUri() {
+        return getAccountsUri() + API_PREFIX;
+    }
+
+    public String getAccountsUri() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public SpotifyStubCatalog getCatalog() {
+        return catalog;
+    }
+
+    public SpotifyStubServer latency(final Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Answers every {@code n}-th API call with a 429; zero disables throttling.
+     */
+    public SpotifyStubServer throttleEvery(final int n, final int retryAfterSeconds) {
+        this.throttleEvery = n;
+        this.retryAfterSeconds = retryAfterSeconds;
+        return this;
+    }
+
+    /**
+     * Calls per endpoint since the last {@link #reset()}, e.g. {@code "GET /me/albums" -> 40};
+     * throttled calls are counted too.
+     */
+    public Map<String, Long> getCalls() {
+        return calls.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum(), Long::sum, TreeMap::new));
+    }
+
+    public long getTotalCalls() {
+        return calls.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long getThrottled() {
+        return throttled.sum();
+    }
+
+    public void reset() {
+        calls.clear();
+        throttled.reset();
+    }
+
+    private void token(final HttpExchange exchange) throws IOException {
+        count(exchange.getRequestMethod() + " /api/token");
+        respond(exchange, 200, "{\"access_token\":\"stub-access-token\",\"token_type\":\"Bearer\","
+                               + "\"scope\":\"user-library-read user-library-modify\",\"expires_in\":3600,"
+                               + "\"refresh_token\":\"stub-refresh-token\"}");
+    }
+
+    private void api(final HttpExchange exchange) throws IOException {
+        final String method = exchange.getRequestMethod();
+        final String path = exchange.getRequestURI().getPath().substring(API_PREFIX.length());
+        final Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        count(method + " " + path.replaceFirst("^/(albums|artists|tracks|playlists)/[^/]+$", "/$1/{id}"));
+        sleep();
+        final int n = throttleEvery;
+        if (n > 0 && apiCalls.incrementAndGet() % n == 0) {
+            throttled.increment();
+            exchange.getResponseHeaders().add("Retry-After", String.valueOf(retryAfterSeconds));
+            respond(exchange, 429, "{\"error\":{\"status\":429,\"message\":\"API rate limit exceeded\"}}");
+            return;
+        }
+        final String body;
+        if ("PUT".equals(method) && "/me/albums".equals(path)) {
+            body = "";
+        } else if (!"GET".equals(method)) {
+            body = null;
+        } else if ("/me/albums".equals(path)) {
+            body = catalog.savedAlbums(intParam(query, "offset", 0), intParam(query, "limit", 20));
+        } else if ("/me/albums/contains".equals(path)) {
+            body = catalog.contains(ids(query));
+        } else if ("/albums".equals(path)) {
+            body = catalog.albums(ids(query));
+        } else if ("/artists".equals(path)) {
+            body = catalog.artists(ids(query));
+        } else if (path.startsWith("/albums/")) {
+            body = catalog.album(path.substring("/albums/".length()));
+        } else if (path.startsWith("/artists/")) {
+            body = catalog.artist(path.substring("/artists/".length()));
+        } else if ("/search".equals(path)) {
+            body = catalog.searchAlbums(query.getOrDefault("q", ""),
+                    intParam(query, "offset", 0), intParam(query, "limit", 20));
+        } else {
+            body = null;
+        }
+        if (null == body) {
+            respond(exchange, 404, "{\"error\":{\"status\":404,\"message\":\"Not found.\"}}");
+        } else {
+            respond(exchange, 200, body);
+        }
+    }
+
+    private void count(final String endpoint) {
+        calls.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+    }
+
+    private void sleep() {
+        final long millis = latency.toMillis();
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(final String rawQuery) {
+        if (null == rawQuery || rawQuery.isEmpty()) {
+            return Map.of();
+        }
+        return Arrays.stream(rawQuery.split("&"))
+                .map(pair -> pair.split("=", 2))
+                .collect(Collectors.toMap(
+                        pair -> URLDecoder.decode(pair[0], StandardCharsets.UTF_8),
+                        pair -> pair.length > 1 ? URLDecoder.decode(pair[1], StandardCharsets.UTF_8) : "",
+                        (first, second) -> second));
+    }
+
+    private static List<String> ids(final Map<String, String> query) {
+        final String ids = query.getOrDefault("ids", "");
+        return ids.isEmpty() ? List.of() : List.of(ids.split(","));
+    }
+
+    private static int intParam(final Map<String, String> query, final String name, final int defaultValue) {
+        final String value = query.get(name);
+        return null == value ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,83 @@
+package page.crates.util;
+
+import jakarta.annotation.Resource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import page.crates.entity.SpotifyUser;
+import page.crates.entity.Token;
+import page.crates.repository.SpotifyUserRepository;
+import page.crates.repository.TokenRepository;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Base for tests that run the whole application against the embedded test database, such as the
+ * library sync benchmarks. Every database round trip is counted in {@link #DATABASE}, and
+ * {@link #createUser(TokenRepository, SpotifyUserRepository)} is the user fixture repository tests share.
+ */
+@SpringBootTest(properties = {
+        "crates.encryption-key=benchmark-key-16",
+        "spotify.client-id=benchmark",
+        "spotify.client-secret=benchmark",
+        "spotify.redirect-uri=http://localhost/callback",
+        "crates.auth.callback.uri=http://localhost/auth/callback",
+        "crates.library.refresh.enabled=false",
+        "crates.library.sync.recover-on-startup=false"
+})
+@ActiveProfiles("test")
+@Import(DatabaseTestSupport.RoundTripCounting.class)
+public abstract class DatabaseTestSupport {
+    protected static final RoundTripCounter DATABASE = new RoundTripCounter();
+
+    @Resource
+    private TokenRepository tokenRepository;
+    @Resource
+    private SpotifyUserRepository spotifyUserRepository;
+
+    protected SpotifyUser createUser() {
+        return createUser(tokenRepository, spotifyUserRepository);
+    }
+
+    /**
+     * Saves a user whose token Spotify stubs accept, with a unique Spotify id.
+     */
+    public static SpotifyUser createUser(final TokenRepository tokenRepository,
+                                         final SpotifyUserRepository spotifyUserRepository) {
+        final String spotifyId = "user-" + UUID.randomUUID();
+        final Token token = tokenRepository.save(Token.builder()
+                .authToken(UUID.randomUUID().toString())
+                .accessToken("stub-access-token")
+                .refreshToken("stub-refresh-token")
+                .expiration(Instant.now().plus(Duration.ofHours(1)))
+                .build());
+        return spotifyUserRepository.save(SpotifyUser.builder()
+                .spotifyId(spotifyId)
+                .displayName(spotifyId)
+                .href("https://api.spotify.com/v1/users/" + spotifyId)
+                .spotifyUri("spotify:user:" + spotifyId)
+                .token(token)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
+    }
+
+    @TestConfiguration
+    static class RoundTripCounting {
+        @Bean
+        static BeanPostProcessor roundTripCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                    return bean instanceof DataSource dataSource ? DATABASE.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package page.crates.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class LongIdSetTest {
+    @Test
+    public void empty() {
+        final LongIdSet set = new LongIdSet();
+
+        assertThat(set.size(), equalTo(0));
+        assertThat(set.contains(1L), equalTo(false));
+        assertThat(set.toArray(), equalTo(new long[0]));
+    }
+
+    @Test
+    public void sortsAndDeduplicates() {
+        final LongIdSet set = new LongIdSet();
+        set.addAll(new long[]{5L, 3L, 5L, 1L, 3L});
+
+        assertThat(set.size(), equalTo(3));
+        assertThat(set.toArray(), equalTo(new long[]{1L, 3L, 5L}));
+        assertThat(set.contains(3L), equalTo(true));
+        assertThat(set.contains(4L), equalTo(false));
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        final LongIdSet set = new LongIdSet(1);
+        for (long id = 10; id > 0; id--) {
+            set.add(id);
+        }
+
+        assertThat(set.size(), equalTo(10));
+        assertThat(set.toArray(), equalTo(LongStream.rangeClosed(1, 10).toArray()));
+    }
+
+    @Test
+    public void addsAfterCompacting() {
+        final LongIdSet set = new LongIdSet(2);
+        set.addAll(new long[]{2L, 2L});
+        assertThat(set.size(), equalTo(1));
+
+        set.addAll(new long[]{1L, 2L, 3L});
+
+        assertThat(set.size(), equalTo(3));
+        assertThat(set.toArray(), equalTo(new long[]{1L, 2L, 3L}));
+    }
+
+    @Test
+    public void largeLibrary() {
+        final int albums = 100_000;
+        final LongIdSet set = new LongIdSet();
+        // every id twice, newest first, the way overlapping pages of a sync would add them
+        for (long id = albums; id > 0; id--) {
+            set.add(id);
+            set.add(id);
+        }
+
+        assertThat(set.size(), equalTo(albums));
+        assertThat(set.toArray(), equalTo(LongStream.rangeClosed(1, albums).toArray()));
+        assertThat(set.contains(albums), equalTo(true));
+        assertThat(set.contains(albums + 1L), equalTo(false));
+    }
+}
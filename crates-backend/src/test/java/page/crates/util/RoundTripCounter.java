@@ -0,0 +1,78 @@
+package page.crates.util;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts database round trips made through a wrapped {@link DataSource}: every statement execution
+ * (a JDBC batch counts once), commit and rollback.
+ */
+public class RoundTripCounter {
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder transactions = new LongAdder();
+
+    public DataSource wrap(final DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (method, result) ->
+                result instanceof Connection connection ? wrap(connection) : result);
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getTransactions() {
+        return transactions.sum();
+    }
+
+    public long getRoundTrips() {
+        return getStatements() + getTransactions();
+    }
+
+    public void reset() {
+        statements.reset();
+        transactions.reset();
+    }
+
+    private Connection wrap(final Connection connection) {
+        return proxy(Connection.class, connection, (method, result) -> {
+            if ("commit".equals(method.getName()) || "rollback".equals(method.getName())) {
+                transactions.increment();
+            }
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return wrap(statement, method.getReturnType());
+            }
+            return result;
+        });
+    }
+
+    private Object wrap(final Statement statement, final Class<?> type) {
+        return proxy(type, statement, (method, result) -> {
+            if (method.getName().startsWith("execute")) {
+                statements.increment();
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(final Class<?> type, final Object target, final ResultHandler handler) {
+        final InvocationHandler invocationHandler = (proxy, method, args) -> {
+            try {
+                return handler.handle(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    private interface ResultHandler {
+        Object handle(Method method, Object result) throws Throwable;
+    }
+}
@@ -0,0 +1,8 @@
+import { Page } from '../../../shared/model/page.model';
+import { Album } from './album.model';
+
+export class LibraryAlbumPage extends Page<Album> {
+  nextCursor?: string;
+  updatedAt?: string;
+  refreshing?: boolean;
+}
@@ -1,8 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Pageable } from '../../../shared/model/pageable.model';
-import { Album } from '../model/album.model';
-import { Page } from '../../../shared/model/page.model';
+import { LibraryAlbumPage } from '../model/library-album-page.model';
 import { first, map, mergeMap, Observable, tap, timeout, timer } from 'rxjs';
 import { environment } from '../../../../environments/environment';
 import { LibraryAlbumFilter } from '../model/library-album-filter.enum';
@@ -16,7 +15,7 @@ export class LibraryService {
   constructor(private http: HttpClient) {
   }
 
-  getAlbums(pageable: Pageable, search?: string, filters?: LibraryAlbumFilter[]): Observable<Page<Album>> {
+  getAlbums(pageable: Pageable, search?: string, filters?: LibraryAlbumFilter[], cursor?: string): Observable<LibraryAlbumPage> {
     let params: any = {
       page: pageable.pageNumber,
       size: pageable.pageSize,
@@ -32,6 +31,12 @@ export class LibraryService {
         ...params,
         search,
       }
+    } else if (cursor) {
+      // the library endpoint pages by cursor; the page number is only a fallback
+      params = {
+        ...params,
+        cursor,
+      }
     }
     
     // Use hybrid search endpoint when searching, otherwise use regular library endpoint
@@ -42,7 +47,7 @@ export class LibraryService {
     return this.http.get(endpoint, {
       params,
     }).pipe(
-      map(response => Object.assign(new Page<Album>(), response) as Page<Album>),
+      map(response => Object.assign(new LibraryAlbumPage(), response) as LibraryAlbumPage),
       map(page => {
         page.content = page.content.map(album => ({
           ...album,
@@ -1,8 +1,7 @@
 import { createAction, props } from '@ngrx/store';
 import { ApiResponse } from '../../../shared/model/api-response.model';
 import { Pageable } from '../../../shared/model/pageable.model';
-import { Album } from '../../shared/model/album.model';
-import { Page } from '../../../shared/model/page.model';
+import { LibraryAlbumPage } from '../../shared/model/library-album-page.model';
 import { LibraryAlbumFilter } from '../../shared/model/library-album-filter.enum';
 
 export const loadAlbums = createAction(
@@ -14,7 +13,7 @@ export const loadAlbums = createAction(
   }>());
 export const loadAlbumsResult = createAction(
   '[Library] Load Albums Result',
-  props<{ response: ApiResponse<Page<Album>> }>());
+  props<{ response: ApiResponse<LibraryAlbumPage> }>());
 
 export const reloadAlbums = createAction(
   '[Library] Reload Albums',
@@ -6,6 +6,7 @@ import { catchError, exhaustMap, filter, map, of, Subject, tap, withLatestFrom }
 import { ApiError } from '../../../shared/model/api-error.model';
 import { loadLibrary, loadLibraryResult, syncLibrary, syncLibraryResult } from '../actions/sync.actions';
 import {
+  selectAlbumCursor,
   selectAlbumPageable,
   selectHideCrated,
   selectLibraryFilters,
@@ -23,12 +24,13 @@ export class LibraryEffects {
   loadAlbums$ = createEffect(() =>
     this.actions$.pipe(
       ofType(loadAlbums, reloadAlbums),
-      withLatestFrom(this.store.select(selectHideCrated)),
-      exhaustMap(([action, hideCrated]) =>
+      withLatestFrom(this.store.select(selectHideCrated), this.store.select(selectAlbumCursor)),
+      exhaustMap(([action, hideCrated, cursor]) =>
         this.libraryService.getAlbums(
           action.pageable,
           action.search,
-          hideCrated ? [LibraryAlbumFilter.ExcludeCrated] : action.filters).pipe(
+          hideCrated ? [LibraryAlbumFilter.ExcludeCrated] : action.filters,
+          action.pageable.pageNumber > 0 ? cursor : undefined).pipe(
           map(albums => loadAlbumsResult({
             response: {
               data: albums,
@@ -26,6 +26,7 @@ export interface LibraryState {
   hideCrated: boolean;
   search?: string;
   albumPageable: Pageable;
+  albumCursor?: string;
   listType: ListType;
 }
 
@@ -72,7 +73,8 @@ const libraryReducer = createReducer(initialState,
           loaded: true,
           hasNextPage: !action.response.data.last,
           error: undefined
-        }
+        },
+        albumCursor: action.response.data.nextCursor,
       }
     }
     return {
@@ -95,6 +97,7 @@ const libraryReducer = createReducer(initialState,
         error: undefined
       },
       albumPageable: action.pageable,
+      albumCursor: undefined,
     };
   }),
   on(toggleAlbumSelection, (state, action): LibraryState => {
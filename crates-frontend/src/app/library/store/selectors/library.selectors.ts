@@ -10,6 +10,7 @@ export const selectAlbumsLoaded = createSelector(selectLibraryState, state => st
 export const selectAlbumsError = createSelector(selectLibraryState, state => state.albums.error);
 export const selectAlbumsHasNextPage = createSelector(selectLibraryState, state => state.albums.hasNextPage);
 export const selectAlbumPageable = createSelector(selectLibraryState, state => state.albumPageable);
+export const selectAlbumCursor = createSelector(selectLibraryState, state => state.albumCursor);
 
 export const selectLibraryFilters = createSelector(selectLibraryState, state => state.filters);
 export const selectLibrarySearch = createSelector(selectLibraryState, state => state.search);